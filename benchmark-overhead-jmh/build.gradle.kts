@@ -14,6 +14,7 @@ otelJava {
 
 dependencies {
   jmhImplementation("org.springframework.boot:spring-boot-starter-web:3.4.4")
+  jmhImplementation(project(":instrumentation-annotations"))
 }
 
 tasks {
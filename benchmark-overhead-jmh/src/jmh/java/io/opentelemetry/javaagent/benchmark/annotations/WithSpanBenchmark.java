@@ -0,0 +1,61 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.annotations;
+
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares calling a plain method with calling methods that the agent instruments because they are
+ * annotated with {@link WithSpan}, which measures the overhead the advice adds to every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class WithSpanBenchmark {
+
+  private final TracedService service = new TracedService();
+  private int counter;
+
+  @Benchmark
+  public int plain() {
+    return service.plain(counter++);
+  }
+
+  @Benchmark
+  public int withSpan() {
+    return service.withSpan(counter++);
+  }
+
+  @Benchmark
+  public int withSpanAttribute() {
+    return service.withSpanAttribute(counter++);
+  }
+
+  public static class TracedService {
+
+    public int plain(int value) {
+      return value + 1;
+    }
+
+    @WithSpan
+    public int withSpan(int value) {
+      return value + 1;
+    }
+
+    @WithSpan
+    public int withSpanAttribute(@SpanAttribute("value") int value) {
+      return value + 1;
+    }
+  }
+}
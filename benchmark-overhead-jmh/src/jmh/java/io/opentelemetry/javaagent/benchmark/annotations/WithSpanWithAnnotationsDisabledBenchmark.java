@@ -0,0 +1,13 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.annotations;
+
+import org.openjdk.jmh.annotations.Fork;
+
+@Fork(
+    jvmArgsAppend =
+        "-Dotel.instrumentation.opentelemetry-instrumentation-annotations.enabled=false")
+public class WithSpanWithAnnotationsDisabledBenchmark extends WithSpanBenchmark {}
@@ -5,6 +5,7 @@ plugins {
   id("otel.animalsniffer-conventions")
   id("otel.jacoco-conventions")
   id("otel.japicmp-conventions")
+  id("otel.jmh-conventions")
   id("otel.publish-conventions")
 }
 
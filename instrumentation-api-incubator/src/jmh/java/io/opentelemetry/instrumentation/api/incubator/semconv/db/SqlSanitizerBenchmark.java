@@ -0,0 +1,68 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the SQL sanitizer on generated bulk inserts and selects with long IN lists, from about
+ * 100 bytes to about 1 MB. The sanitizer cache is bypassed.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class SqlSanitizerBenchmark {
+
+  @Param({"100", "10000", "100000", "1000000"})
+  int size;
+
+  private String bulkInsert;
+  private String inListSelect;
+
+  @Setup
+  public void setup() {
+    StringBuilder insert = new StringBuilder("INSERT INTO orders (id, customer, total) VALUES ");
+    for (int i = 0; insert.length() < size; i++) {
+      if (i > 0) {
+        insert.append(", ");
+      }
+      insert.append('(').append(i).append(", 'customer").append(i).append("', 12.5)");
+    }
+    bulkInsert = insert.toString();
+
+    StringBuilder select =
+        new StringBuilder("SELECT id, customer, total FROM orders WHERE id IN (");
+    for (int i = 0; select.length() < size; i++) {
+      select.append(i).append(", ");
+    }
+    select.append("0) AND status = 'OPEN'");
+    inListSelect = select.toString();
+  }
+
+  @Benchmark
+  public SqlStatementInfo bulkInsert() {
+    return AutoSqlSanitizer.sanitize(bulkInsert, SqlDialect.DEFAULT);
+  }
+
+  @Benchmark
+  public SqlStatementInfo inListSelect() {
+    return AutoSqlSanitizer.sanitize(inListSelect, SqlDialect.DEFAULT);
+  }
+}
@@ -17,6 +17,7 @@ import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import io.opentelemetry.instrumentation.api.internal.SemconvStability;
 import java.util.concurrent.TimeUnit;
@@ -29,7 +30,7 @@ import java.util.logging.Logger;
  *
  * @since 2.11.0
  */
-public final class DbClientMetrics implements OperationListener {
+public final class DbClientMetrics implements MergedAttributesOperationListener {
 
   private static final double NANOS_PER_S = TimeUnit.SECONDS.toNanos(1);
 
@@ -84,7 +85,12 @@ public final class DbClientMetrics implements OperationListener {
 
     Attributes attributes = state.startAttributes().toBuilder().putAll(endAttributes).build();
 
-    duration.record((endNanos - state.startTimeNanos()) / NANOS_PER_S, attributes, context);
+    onEnd(context, attributes, state.startTimeNanos(), endNanos);
+  }
+
+  @Override
+  public void onEnd(Context context, Attributes attributes, long startNanos, long endNanos) {
+    duration.record((endNanos - startNanos) / NANOS_PER_S, attributes, context);
   }
 
   @AutoValue
@@ -5,9 +5,11 @@
 
 package io.opentelemetry.instrumentation.api.incubator.semconv.db;
 
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlStatementInfoGetter;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanNameExtractor;
 import io.opentelemetry.instrumentation.api.internal.SemconvStability;
 import java.util.Collection;
+import javax.annotation.Nullable;
 
 public abstract class DbClientSpanNameExtractor<REQUEST> implements SpanNameExtractor<REQUEST> {
 
@@ -84,13 +86,12 @@ public abstract class DbClientSpanNameExtractor<REQUEST> implements SpanNameExtr
   private static final class SqlClientSpanNameExtractor<REQUEST>
       extends DbClientSpanNameExtractor<REQUEST> {
 
-    // a dedicated sanitizer just for extracting the operation and identifier name
-    private static final SqlStatementSanitizer sanitizer = SqlStatementSanitizer.create(true);
-
     private final SqlClientAttributesGetter<REQUEST, ?> getter;
+    @Nullable private final SqlStatementInfoGetter<REQUEST> statementInfoGetter;
 
     private SqlClientSpanNameExtractor(SqlClientAttributesGetter<REQUEST, ?> getter) {
       this.getter = getter;
+      this.statementInfoGetter = SqlClientAttributesExtractor.statementInfoGetter(getter);
     }
 
     @Override
@@ -101,18 +102,24 @@ public abstract class DbClientSpanNameExtractor<REQUEST> implements SpanNameExtr
       if (rawQueryTexts.isEmpty()) {
         return computeSpanName(namespace, null, null);
       }
+      long queryTextCount =
+          SqlClientAttributesExtractor.queryTextCount(statementInfoGetter, request, rawQueryTexts);
 
       if (!SemconvStability.emitStableDatabaseSemconv()) {
-        if (rawQueryTexts.size() > 1) { // for backcompat(?)
+        if (queryTextCount > 1) { // for backcompat(?)
           return computeSpanName(namespace, null, null);
         }
-        SqlStatementInfo sanitizedStatement = sanitizer.sanitize(rawQueryTexts.iterator().next());
+        SqlStatementInfo sanitizedStatement =
+            SqlClientAttributesExtractor.sanitize(
+                statementInfoGetter, request, rawQueryTexts.iterator().next());
         return computeSpanName(
             namespace, sanitizedStatement.getOperation(), sanitizedStatement.getMainIdentifier());
       }
 
-      if (rawQueryTexts.size() == 1) {
-        SqlStatementInfo sanitizedStatement = sanitizer.sanitize(rawQueryTexts.iterator().next());
+      if (queryTextCount == 1) {
+        SqlStatementInfo sanitizedStatement =
+            SqlClientAttributesExtractor.sanitize(
+                statementInfoGetter, request, rawQueryTexts.iterator().next());
         String operation = sanitizedStatement.getOperation();
         if (isBatch(request)) {
           operation = "BATCH " + operation;
@@ -120,7 +127,8 @@ public abstract class DbClientSpanNameExtractor<REQUEST> implements SpanNameExtr
         return computeSpanName(namespace, operation, sanitizedStatement.getMainIdentifier());
       }
 
-      MultiQuery multiQuery = MultiQuery.analyze(rawQueryTexts, false);
+      MultiQuery multiQuery =
+          SqlClientAttributesExtractor.analyze(statementInfoGetter, request, rawQueryTexts, false);
       return computeSpanName(
           namespace,
           multiQuery.getOperation() != null ? "BATCH " + multiQuery.getOperation() : "BATCH",
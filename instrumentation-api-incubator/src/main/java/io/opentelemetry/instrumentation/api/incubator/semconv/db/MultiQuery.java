@@ -7,7 +7,9 @@ package io.opentelemetry.instrumentation.api.incubator.semconv.db;
 
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 class MultiQuery {
   private static final SqlStatementSanitizer sanitizer = SqlStatementSanitizer.create(true);
@@ -24,11 +26,29 @@ class MultiQuery {
 
   static MultiQuery analyze(
       Collection<String> rawQueryTexts, boolean statementSanitizationEnabled) {
+    return analyze(rawQueryTexts, null, statementSanitizationEnabled);
+  }
+
+  /**
+   * Analyzes the query texts, using {@code sanitizedStatements} instead of sanitizing them again
+   * when it holds the already sanitized query texts in the same order.
+   */
+  static MultiQuery analyze(
+      Collection<String> rawQueryTexts,
+      @Nullable List<SqlStatementInfo> sanitizedStatements,
+      boolean statementSanitizationEnabled) {
+    if (sanitizedStatements != null && sanitizedStatements.size() != rawQueryTexts.size()) {
+      sanitizedStatements = null;
+    }
     UniqueValue uniqueMainIdentifier = new UniqueValue();
     UniqueValue uniqueOperation = new UniqueValue();
     Set<String> uniqueStatements = new LinkedHashSet<>();
+    int i = 0;
     for (String rawQueryText : rawQueryTexts) {
-      SqlStatementInfo sanitizedStatement = sanitizer.sanitize(rawQueryText);
+      SqlStatementInfo sanitizedStatement =
+          sanitizedStatements != null
+              ? sanitizedStatements.get(i++)
+              : sanitizer.sanitize(rawQueryText);
       String mainIdentifier = sanitizedStatement.getMainIdentifier();
       uniqueMainIdentifier.set(mainIdentifier);
       String operation = sanitizedStatement.getOperation();
@@ -10,9 +10,12 @@ import static io.opentelemetry.instrumentation.api.internal.AttributesExtractorU
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlStatementInfoGetter;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.internal.SemconvStability;
 import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
 
 /**
  * Extractor of <a
@@ -60,6 +63,7 @@ public final class SqlClientAttributesExtractor<REQUEST, RESPONSE>
 
   private final AttributeKey<String> oldSemconvTableAttribute;
   private final boolean statementSanitizationEnabled;
+  @Nullable private final SqlStatementInfoGetter<REQUEST> statementInfoGetter;
 
   SqlClientAttributesExtractor(
       SqlClientAttributesGetter<REQUEST, RESPONSE> getter,
@@ -68,6 +72,52 @@ public final class SqlClientAttributesExtractor<REQUEST, RESPONSE>
     super(getter);
     this.oldSemconvTableAttribute = oldSemconvTableAttribute;
     this.statementSanitizationEnabled = statementSanitizationEnabled;
+    this.statementInfoGetter = statementInfoGetter(getter);
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  static <REQUEST> SqlStatementInfoGetter<REQUEST> statementInfoGetter(
+      SqlClientAttributesGetter<REQUEST, ?> getter) {
+    return getter instanceof SqlStatementInfoGetter
+        ? (SqlStatementInfoGetter<REQUEST>) getter
+        : null;
+  }
+
+  static <REQUEST> SqlStatementInfo sanitize(
+      @Nullable SqlStatementInfoGetter<REQUEST> statementInfoGetter,
+      REQUEST request,
+      String rawQueryText) {
+    if (statementInfoGetter != null) {
+      SqlStatementInfo sanitizedStatement = statementInfoGetter.getSqlStatementInfo(request);
+      if (sanitizedStatement != null) {
+        return sanitizedStatement;
+      }
+    }
+    return sanitizer.sanitize(rawQueryText);
+  }
+
+  static <REQUEST> long queryTextCount(
+      @Nullable SqlStatementInfoGetter<REQUEST> statementInfoGetter,
+      REQUEST request,
+      Collection<String> rawQueryTexts) {
+    if (statementInfoGetter != null) {
+      Long queryTextCount = statementInfoGetter.getQueryTextCount(request);
+      if (queryTextCount != null) {
+        return queryTextCount;
+      }
+    }
+    return rawQueryTexts.size();
+  }
+
+  static <REQUEST> MultiQuery analyze(
+      @Nullable SqlStatementInfoGetter<REQUEST> statementInfoGetter,
+      REQUEST request,
+      Collection<String> rawQueryTexts,
+      boolean statementSanitizationEnabled) {
+    List<SqlStatementInfo> sanitizedStatements =
+        statementInfoGetter != null ? statementInfoGetter.getSqlStatementInfos(request) : null;
+    return MultiQuery.analyze(rawQueryTexts, sanitizedStatements, statementSanitizationEnabled);
   }
 
   @Override
@@ -79,11 +129,12 @@ public final class SqlClientAttributesExtractor<REQUEST, RESPONSE>
     if (rawQueryTexts.isEmpty()) {
       return;
     }
+    long queryTextCount = queryTextCount(statementInfoGetter, request, rawQueryTexts);
 
     if (SemconvStability.emitOldDatabaseSemconv()) {
-      if (rawQueryTexts.size() == 1) { // for backcompat(?)
+      if (queryTextCount == 1) { // for backcompat(?)
         String rawQueryText = rawQueryTexts.iterator().next();
-        SqlStatementInfo sanitizedStatement = sanitizer.sanitize(rawQueryText);
+        SqlStatementInfo sanitizedStatement = sanitize(statementInfoGetter, request, rawQueryText);
         String operation = sanitizedStatement.getOperation();
         internalSet(
             attributes,
@@ -102,9 +153,9 @@ public final class SqlClientAttributesExtractor<REQUEST, RESPONSE>
       if (isBatch) {
         internalSet(attributes, DB_OPERATION_BATCH_SIZE, batchSize);
       }
-      if (rawQueryTexts.size() == 1) {
+      if (queryTextCount == 1) {
         String rawQueryText = rawQueryTexts.iterator().next();
-        SqlStatementInfo sanitizedStatement = sanitizer.sanitize(rawQueryText);
+        SqlStatementInfo sanitizedStatement = sanitize(statementInfoGetter, request, rawQueryText);
         String operation = sanitizedStatement.getOperation();
         internalSet(
             attributes,
@@ -116,7 +167,7 @@ public final class SqlClientAttributesExtractor<REQUEST, RESPONSE>
         }
       } else {
         MultiQuery multiQuery =
-            MultiQuery.analyze(getter.getRawQueryTexts(request), statementSanitizationEnabled);
+            analyze(statementInfoGetter, request, rawQueryTexts, statementSanitizationEnabled);
         internalSet(attributes, DB_QUERY_TEXT, join("; ", multiQuery.getStatements()));
 
         String operation =
@@ -5,11 +5,7 @@
 
 package io.opentelemetry.instrumentation.api.incubator.semconv.db;
 
-import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS;
-
-import com.google.auto.value.AutoValue;
-import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
-import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlStatementInfoCache;
 import javax.annotation.Nullable;
 
 /**
@@ -17,10 +13,8 @@ import javax.annotation.Nullable;
  * statements and queries.
  */
 public final class SqlStatementSanitizer {
-  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
-
-  private static final Cache<CacheKey, SqlStatementInfo> sqlToStatementInfoCache =
-      Cache.bounded(1000);
+  private static final SqlStatementInfoCache sqlToStatementInfoCache =
+      SqlStatementInfoCache.instance();
 
   public static SqlStatementSanitizer create(boolean statementSanitizationEnabled) {
     return new SqlStatementSanitizer(statementSanitizationEnabled);
@@ -40,23 +34,10 @@ public final class SqlStatementSanitizer {
     if (!statementSanitizationEnabled || statement == null) {
       return SqlStatementInfo.create(statement, null, null);
     }
-    return sqlToStatementInfoCache.computeIfAbsent(
-        CacheKey.create(statement, dialect),
-        k -> {
-          supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
-          return AutoSqlSanitizer.sanitize(statement, dialect);
-        });
+    return sqlToStatementInfoCache.get(statement, dialect, SqlStatementSanitizer::sanitizeUncached);
   }
 
-  @AutoValue
-  abstract static class CacheKey {
-
-    static CacheKey create(String statement, SqlDialect dialect) {
-      return new AutoValue_SqlStatementSanitizer_CacheKey(statement, dialect);
-    }
-
-    abstract String getStatement();
-
-    abstract SqlDialect getDialect();
+  private static SqlStatementInfo sanitizeUncached(String statement, SqlDialect dialect) {
+    return AutoSqlSanitizer.sanitize(statement, dialect);
   }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db.internal;
+
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlDialect;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.Counter;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
+
+/**
+ * Caches the result of sanitizing SQL statements.
+ *
+ * <p>The cache is bounded by the total length of the cached statements rather than by their number,
+ * so that many short statements, which is what ORMs typically generate, fit in the cache while a
+ * few very long ones can't take over the heap. The maximum total length in characters is configured
+ * with {@code otel.instrumentation.experimental.sql-sanitizer-cache-size}. Statements that are too
+ * long to fit in a shard of the cache are sanitized on every call.
+ *
+ * <p>The cache is split in shards selected by the statement hash, so that the eviction bookkeeping
+ * of concurrent callers does not contend on a single lock. The hits, misses and evictions are
+ * counted by {@link SupportabilityMetrics}, which exports them with the other agent counters.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class SqlStatementInfoCache {
+
+  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+  // room for 1000 statements of 1000 characters, the previous limit was 1000 statements of any
+  // length
+  private static final long DEFAULT_MAX_WEIGHT = 1_000_000;
+  private static final int MAX_SHARDS = 16;
+
+  private static final SqlStatementInfoCache INSTANCE =
+      create(
+          ConfigPropertiesUtil.getInt(
+              "otel.instrumentation.experimental.sql-sanitizer-cache-size",
+              (int) DEFAULT_MAX_WEIGHT),
+          Runtime.getRuntime().availableProcessors());
+
+  /** Returns the cache shared by all {@code SqlStatementSanitizer} instances. */
+  public static SqlStatementInfoCache instance() {
+    return INSTANCE;
+  }
+
+  // visible for testing
+  static SqlStatementInfoCache create(long maxWeight, int concurrency) {
+    int shardCount = 1;
+    while (shardCount < Math.min(concurrency, MAX_SHARDS)) {
+      shardCount <<= 1;
+    }
+    return new SqlStatementInfoCache(Math.max(0, maxWeight), shardCount);
+  }
+
+  private final ConcurrentLinkedHashMap<Key, SqlStatementInfo>[] shards;
+  private final long maxShardWeight;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private SqlStatementInfoCache(long maxWeight, int shardCount) {
+    maxShardWeight = maxWeight / shardCount;
+    shards = new ConcurrentLinkedHashMap[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] =
+          new ConcurrentLinkedHashMap.Builder<Key, SqlStatementInfo>()
+              .maximumWeightedCapacity(maxShardWeight)
+              .weigher((Key key, SqlStatementInfo value) -> weigh(key))
+              .listener(
+                  (key, value) ->
+                      supportability.increment(Counter.SQL_STATEMENT_SANITIZER_CACHE_EVICTION))
+              .build();
+    }
+  }
+
+  private static int weigh(Key key) {
+    return Math.max(1, key.statement.length());
+  }
+
+  /**
+   * Returns the cached sanitization result for {@code statement} in {@code dialect}, computing it
+   * with {@code sanitizer} if it is not cached.
+   */
+  public SqlStatementInfo get(
+      String statement,
+      SqlDialect dialect,
+      BiFunction<String, SqlDialect, SqlStatementInfo> sanitizer) {
+    Key key = new Key(statement, dialect);
+    ConcurrentLinkedHashMap<Key, SqlStatementInfo> shard = shardFor(key);
+    SqlStatementInfo result = shard.get(key);
+    if (result != null) {
+      supportability.increment(Counter.SQL_STATEMENT_SANITIZER_CACHE_HIT);
+      return result;
+    }
+    supportability.increment(Counter.SQL_STATEMENT_SANITIZER_CACHE_MISS);
+    result = sanitizer.apply(statement, dialect);
+    if (weigh(key) <= maxShardWeight) {
+      SqlStatementInfo existing = shard.putIfAbsent(key, result);
+      if (existing != null) {
+        return existing;
+      }
+    }
+    return result;
+  }
+
+  private ConcurrentLinkedHashMap<Key, SqlStatementInfo> shardFor(Key key) {
+    // the low bits select the bucket inside the shard
+    return shards[(key.hashCode >>> 16) & (shards.length - 1)];
+  }
+
+  // visible for testing
+  long weightedSize() {
+    long size = 0;
+    for (ConcurrentLinkedHashMap<Key, SqlStatementInfo> shard : shards) {
+      size += shard.weightedSize();
+    }
+    return size;
+  }
+
+  private static final class Key {
+
+    private final String statement;
+    private final SqlDialect dialect;
+    // computed once, the shard and the bucket inside it are both selected with it
+    private final int hashCode;
+
+    Key(String statement, SqlDialect dialect) {
+      this.statement = statement;
+      this.dialect = dialect;
+      int hash = 31 * statement.hashCode() + dialect.hashCode();
+      this.hashCode = hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      // JDBC drivers and ORMs often pass the same statement instance over and over, which avoids
+      // comparing the characters of long statements
+      return hashCode == other.hashCode
+          && dialect == other.dialect
+          && (statement == other.statement || statement.equals(other.statement));
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
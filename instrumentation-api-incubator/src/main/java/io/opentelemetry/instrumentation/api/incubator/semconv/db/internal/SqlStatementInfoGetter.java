@@ -0,0 +1,50 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db.internal;
+
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Can be implemented by a {@code SqlClientAttributesGetter} whose requests already carry the
+ * sanitized form of their query texts, for example because it was computed once and attached to a
+ * reused prepared statement. The SQL client extractors use the returned value instead of sanitizing
+ * the query text again.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface SqlStatementInfoGetter<REQUEST> {
+
+  /**
+   * Returns the result of sanitizing the single query text of the {@code request} with statement
+   * sanitization enabled and the default dialect, or {@code null} if it is not known.
+   */
+  @Nullable
+  SqlStatementInfo getSqlStatementInfo(REQUEST request);
+
+  /**
+   * Returns the results of sanitizing each of the query texts of the {@code request}, in the order
+   * of {@code getRawQueryTexts()}, or {@code null} if they are not known. The span name and the
+   * attributes of a batch share the returned list, so that each query text is sanitized once.
+   */
+  @Nullable
+  default List<SqlStatementInfo> getSqlStatementInfos(REQUEST request) {
+    return null;
+  }
+
+  /**
+   * Returns the number of query texts of the {@code request}, counting every repetition of the same
+   * query text, or {@code null} if it is the size of {@code getRawQueryTexts()}. A request that
+   * only carries the distinct query texts of a batch returns the number of statements of the batch,
+   * so that its span name and attributes are the same as if it carried every statement.
+   */
+  @Nullable
+  default Long getQueryTextCount(REQUEST request) {
+    return null;
+  }
+}
@@ -13,7 +13,6 @@ import static java.util.logging.Level.FINE;
 import com.google.auto.value.AutoValue;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
 import io.opentelemetry.api.metrics.LongHistogram;
@@ -24,6 +23,7 @@ import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.incubator.semconv.db.DbClientMetrics;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -33,7 +33,7 @@ import java.util.logging.Logger;
  * href="https://opentelemetry.io/docs/specs/semconv/gen-ai/gen-ai-metrics/#generative-ai-client-metrics">Generative
  * AI Client Metrics</a>.
  */
-public final class GenAiClientMetrics implements OperationListener {
+public final class GenAiClientMetrics implements MergedAttributesOperationListener {
 
   private static final double NANOS_PER_S = TimeUnit.SECONDS.toNanos(1);
 
@@ -97,20 +97,24 @@ public final class GenAiClientMetrics implements OperationListener {
       return;
     }
 
-    AttributesBuilder attributesBuilder = state.startAttributes().toBuilder().putAll(endAttributes);
+    Attributes attributes = state.startAttributes().toBuilder().putAll(endAttributes).build();
 
-    operationDuration.record(
-        (endNanos - state.startTimeNanos()) / NANOS_PER_S, attributesBuilder.build(), context);
+    onEnd(context, attributes, state.startTimeNanos(), endNanos);
+  }
+
+  @Override
+  public void onEnd(Context context, Attributes attributes, long startNanos, long endNanos) {
+    operationDuration.record((endNanos - startNanos) / NANOS_PER_S, attributes, context);
 
-    Long inputTokens = endAttributes.get(GEN_AI_USAGE_INPUT_TOKENS);
+    Long inputTokens = attributes.get(GEN_AI_USAGE_INPUT_TOKENS);
     if (inputTokens != null) {
       tokenUsage.record(
-          inputTokens, attributesBuilder.put(GEN_AI_TOKEN_TYPE, "input").build(), context);
+          inputTokens, attributes.toBuilder().put(GEN_AI_TOKEN_TYPE, "input").build(), context);
     }
-    Long outputTokens = endAttributes.get(GEN_AI_USAGE_OUTPUT_TOKENS);
+    Long outputTokens = attributes.get(GEN_AI_USAGE_OUTPUT_TOKENS);
     if (outputTokens != null) {
       tokenUsage.record(
-          outputTokens, attributesBuilder.put(GEN_AI_TOKEN_TYPE, "output").build(), context);
+          outputTokens, attributes.toBuilder().put(GEN_AI_TOKEN_TYPE, "output").build(), context);
     }
   }
 
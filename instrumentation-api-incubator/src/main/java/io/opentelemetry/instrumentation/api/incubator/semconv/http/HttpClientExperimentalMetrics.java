@@ -17,6 +17,7 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import java.util.logging.Logger;
 
@@ -29,7 +30,7 @@ import java.util.logging.Logger;
  * href="https://github.com/open-telemetry/semantic-conventions/blob/main/docs/http/http-metrics.md#metric-httpclientresponsebodysize">
  * the response size</a>.
  */
-public final class HttpClientExperimentalMetrics implements OperationListener {
+public final class HttpClientExperimentalMetrics implements MergedAttributesOperationListener {
 
   private static final ContextKey<Attributes> HTTP_CLIENT_REQUEST_METRICS_START_ATTRIBUTES =
       ContextKey.named("http-client-experimental-metrics-start-attributes");
@@ -87,14 +88,19 @@ public final class HttpClientExperimentalMetrics implements OperationListener {
 
     Attributes sizeAttributes = startAttributes.toBuilder().putAll(endAttributes).build();
 
-    Long requestBodySize = getHttpRequestBodySize(endAttributes, startAttributes);
+    onEnd(context, sizeAttributes, 0, endNanos);
+  }
+
+  @Override
+  public void onEnd(Context context, Attributes attributes, long startNanos, long endNanos) {
+    Long requestBodySize = getHttpRequestBodySize(attributes);
     if (requestBodySize != null) {
-      requestSize.record(requestBodySize, sizeAttributes, context);
+      requestSize.record(requestBodySize, attributes, context);
     }
 
-    Long responseBodySize = getHttpResponseBodySize(endAttributes, startAttributes);
+    Long responseBodySize = getHttpResponseBodySize(attributes);
     if (responseBodySize != null) {
-      responseSize.record(responseBodySize, sizeAttributes, context);
+      responseSize.record(responseBodySize, attributes, context);
     }
   }
 }
@@ -20,6 +20,7 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -29,7 +30,7 @@ import java.util.logging.Logger;
  * href="https://github.com/open-telemetry/semantic-conventions/blob/v1.26.0/docs/messaging/messaging-metrics.md#consumer-metrics">Consumer
  * metrics</a>.
  */
-public final class MessagingConsumerMetrics implements OperationListener {
+public final class MessagingConsumerMetrics implements MergedAttributesOperationListener {
   private static final double NANOS_PER_S = TimeUnit.SECONDS.toNanos(1);
 
   // copied from MessagingIncubatingAttributes
@@ -85,21 +86,17 @@ public final class MessagingConsumerMetrics implements OperationListener {
     }
 
     Attributes attributes = state.startAttributes().toBuilder().putAll(endAttributes).build();
-    receiveDurationHistogram.record(
-        (endNanos - state.startTimeNanos()) / NANOS_PER_S, attributes, context);
 
-    long receiveMessagesCount = getReceiveMessagesCount(state.startAttributes(), endAttributes);
-    receiveMessageCount.add(receiveMessagesCount, attributes, context);
+    onEnd(context, attributes, state.startTimeNanos(), endNanos);
   }
 
-  private static long getReceiveMessagesCount(Attributes... attributesList) {
-    for (Attributes attributes : attributesList) {
-      Long value = attributes.get(MESSAGING_BATCH_MESSAGE_COUNT);
-      if (value != null) {
-        return value;
-      }
-    }
-    return 1;
+  @Override
+  public void onEnd(Context context, Attributes attributes, long startNanos, long endNanos) {
+    receiveDurationHistogram.record((endNanos - startNanos) / NANOS_PER_S, attributes, context);
+
+    Long batchMessageCount = attributes.get(MESSAGING_BATCH_MESSAGE_COUNT);
+    long receiveMessagesCount = batchMessageCount != null ? batchMessageCount : 1;
+    receiveMessageCount.add(receiveMessagesCount, attributes, context);
   }
 
   @AutoValue
@@ -17,6 +17,7 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -26,7 +27,7 @@ import java.util.logging.Logger;
  * href="https://github.com/open-telemetry/semantic-conventions/blob/v1.26.0/docs/messaging/messaging-metrics.md#metric-messagingpublishduration">Producer
  * metrics</a>.
  */
-public final class MessagingProducerMetrics implements OperationListener {
+public final class MessagingProducerMetrics implements MergedAttributesOperationListener {
   private static final double NANOS_PER_S = TimeUnit.SECONDS.toNanos(1);
 
   private static final ContextKey<MessagingProducerMetrics.State> MESSAGING_PRODUCER_METRICS_STATE =
@@ -71,8 +72,12 @@ public final class MessagingProducerMetrics implements OperationListener {
 
     Attributes attributes = state.startAttributes().toBuilder().putAll(endAttributes).build();
 
-    publishDurationHistogram.record(
-        (endNanos - state.startTimeNanos()) / NANOS_PER_S, attributes, context);
+    onEnd(context, attributes, state.startTimeNanos(), endNanos);
+  }
+
+  @Override
+  public void onEnd(Context context, Attributes attributes, long startNanos, long endNanos) {
+    publishDurationHistogram.record((endNanos - startNanos) / NANOS_PER_S, attributes, context);
   }
 
   @AutoValue
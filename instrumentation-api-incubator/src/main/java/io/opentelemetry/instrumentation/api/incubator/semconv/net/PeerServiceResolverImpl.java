@@ -11,8 +11,10 @@ import static java.util.Comparator.nullsFirst;
 
 import com.google.auto.value.AutoValue;
 import io.opentelemetry.instrumentation.api.incubator.semconv.net.internal.UrlParser;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
@@ -24,9 +26,10 @@ class PeerServiceResolverImpl implements PeerServiceResolver {
           comparing(ServiceMatcher::getPort, nullsFirst(naturalOrder()))
               .thenComparing(comparing(ServiceMatcher::getPath, nullsFirst(naturalOrder()))));
 
-  private final Map<String, Map<ServiceMatcher, String>> mapping = new HashMap<>();
+  private final Map<String, HostMatchers> mapping = new HashMap<>();
 
   PeerServiceResolverImpl(Map<String, String> peerServiceMapping) {
+    Map<String, Map<ServiceMatcher, String>> matchersByHost = new HashMap<>();
     peerServiceMapping.forEach(
         (key, serviceName) -> {
           String url = "https://" + key;
@@ -34,9 +37,10 @@ class PeerServiceResolverImpl implements PeerServiceResolver {
           Integer port = UrlParser.getPort(url);
           String path = UrlParser.getPath(url);
           Map<ServiceMatcher, String> matchers =
-              mapping.computeIfAbsent(host, x -> new HashMap<>());
+              matchersByHost.computeIfAbsent(host, x -> new HashMap<>());
           matchers.putIfAbsent(ServiceMatcher.create(port, path), serviceName);
         });
+    matchersByHost.forEach((host, matchers) -> mapping.put(host, new HostMatchers(matchers)));
   }
 
   @Override
@@ -48,15 +52,88 @@ class PeerServiceResolverImpl implements PeerServiceResolver {
   @Nullable
   public String resolveService(
       String host, @Nullable Integer port, @Nullable Supplier<String> pathSupplier) {
-    Map<ServiceMatcher, String> matchers = mapping.get(host);
+    HostMatchers matchers = mapping.get(host);
     if (matchers == null) {
       return null;
     }
-    return matchers.entrySet().stream()
-        .filter(entry -> entry.getKey().matches(port, pathSupplier))
-        .max((o1, o2) -> matcherComparator.compare(o1.getKey(), o2.getKey()))
-        .map(Map.Entry::getValue)
-        .orElse(null);
+    return matchers.resolve(port, pathSupplier);
+  }
+
+  /** The matchers of a single host, precompiled so that resolving a service allocates nothing. */
+  private static final class HostMatchers {
+
+    // sorted from the most specific to the least specific matcher
+    private final ServiceMatcher[] matchers;
+    private final String[] serviceNames;
+
+    // when no matcher of this host has a path, the resolved service only depends on the port and
+    // is looked up in these instead of walking the matchers
+    @Nullable private final Map<Integer, String> serviceNamesByPort;
+    @Nullable private final String defaultServiceName;
+
+    HostMatchers(Map<ServiceMatcher, String> matchersMap) {
+      List<Map.Entry<ServiceMatcher, String>> entries = new ArrayList<>(matchersMap.entrySet());
+      entries.sort((o1, o2) -> matcherComparator.compare(o2.getKey(), o1.getKey()));
+      matchers = new ServiceMatcher[entries.size()];
+      serviceNames = new String[entries.size()];
+      boolean pathDependent = false;
+      for (int i = 0; i < entries.size(); i++) {
+        matchers[i] = entries.get(i).getKey();
+        serviceNames[i] = entries.get(i).getValue();
+        pathDependent |= matchers[i].hasPath();
+      }
+
+      if (pathDependent) {
+        serviceNamesByPort = null;
+        defaultServiceName = null;
+        return;
+      }
+      serviceNamesByPort = new HashMap<>();
+      String defaultName = null;
+      for (int i = 0; i < matchers.length; i++) {
+        Integer port = matchers[i].getPort();
+        if (port == null) {
+          defaultName = serviceNames[i];
+        } else {
+          serviceNamesByPort.put(port, serviceNames[i]);
+        }
+      }
+      defaultServiceName = defaultName;
+    }
+
+    @Nullable
+    String resolve(@Nullable Integer port, @Nullable Supplier<String> pathSupplier) {
+      if (serviceNamesByPort != null) {
+        if (port != null) {
+          String serviceName = serviceNamesByPort.get(port);
+          if (serviceName != null) {
+            return serviceName;
+          }
+        }
+        return defaultServiceName;
+      }
+
+      // the path is only computed once, and only if a matcher needs it
+      boolean pathComputed = false;
+      String path = null;
+      for (int i = 0; i < matchers.length; i++) {
+        ServiceMatcher matcher = matchers[i];
+        if (!matcher.matchesPort(port)) {
+          continue;
+        }
+        if (matcher.hasPath()) {
+          if (!pathComputed) {
+            path = pathSupplier == null ? null : pathSupplier.get();
+            pathComputed = true;
+          }
+          if (!matcher.matchesPath(port, path)) {
+            continue;
+          }
+        }
+        return serviceNames[i];
+      }
+      return null;
+    }
   }
 
   @AutoValue
@@ -72,26 +149,23 @@ class PeerServiceResolverImpl implements PeerServiceResolver {
     @Nullable
     abstract String getPath();
 
-    public boolean matches(Integer port, Supplier<String> pathSupplier) {
-      if (this.getPort() != null) {
-        if (!this.getPort().equals(port)) {
-          return false;
-        }
+    boolean hasPath() {
+      return this.getPath() != null && this.getPath().length() > 0;
+    }
+
+    boolean matchesPort(@Nullable Integer port) {
+      return this.getPort() == null || this.getPort().equals(port);
+    }
+
+    boolean matchesPath(@Nullable Integer port, @Nullable String path) {
+      if (path == null) {
+        return false;
       }
-      if (this.getPath() != null && this.getPath().length() > 0) {
-        if (pathSupplier == null) {
-          return false;
-        }
-        String path = pathSupplier.get();
-        if (path == null) {
-          return false;
-        }
-        if (!path.startsWith(this.getPath())) {
-          return false;
-        }
-        if (port != null) {
-          return port.equals(this.getPort());
-        }
+      if (!path.startsWith(this.getPath())) {
+        return false;
+      }
+      if (port != null) {
+        return port.equals(this.getPort());
       }
       return true;
     }
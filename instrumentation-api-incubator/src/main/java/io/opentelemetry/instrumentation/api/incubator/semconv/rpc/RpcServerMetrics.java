@@ -16,6 +16,7 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -25,7 +26,7 @@ import java.util.logging.Logger;
  * href="https://github.com/open-telemetry/semantic-conventions/blob/main/docs/rpc/rpc-metrics.md#rpc-server">RPC
  * server metrics</a>.
  */
-public final class RpcServerMetrics implements OperationListener {
+public final class RpcServerMetrics implements MergedAttributesOperationListener {
 
   private static final double NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
 
@@ -72,10 +73,16 @@ public final class RpcServerMetrics implements OperationListener {
           context);
       return;
     }
-    serverDurationHistogram.record(
-        (endNanos - state.startTimeNanos()) / NANOS_PER_MS,
+    onEnd(
+        context,
         state.startAttributes().toBuilder().putAll(endAttributes).build(),
-        context);
+        state.startTimeNanos(),
+        endNanos);
+  }
+
+  @Override
+  public void onEnd(Context context, Attributes attributes, long startNanos, long endNanos) {
+    serverDurationHistogram.record((endNanos - startNanos) / NANOS_PER_MS, attributes, context);
   }
 
   @AutoValue
@@ -9,6 +9,7 @@ import static java.util.Collections.singleton;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlStatementInfoGetter;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanNameExtractor;
 import io.opentelemetry.instrumentation.api.internal.SemconvStability;
 import java.util.Arrays;
@@ -22,6 +23,9 @@ class DbClientSpanNameExtractorTest {
   @Mock DbClientAttributesGetter<DbRequest, Void> dbAttributesGetter;
   @Mock SqlClientAttributesGetter<DbRequest, Void> sqlAttributesGetter;
 
+  @Mock(extraInterfaces = SqlStatementInfoGetter.class)
+  SqlClientAttributesGetter<DbRequest, Void> sqlStatementInfoGetter;
+
   @Test
   void shouldExtractFullSpanName() {
     // given
@@ -183,5 +187,29 @@ class DbClientSpanNameExtractorTest {
         spanName);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldExtractFullSpanNameForDeduplicatedBatch() {
+    // given
+    DbRequest dbRequest = new DbRequest();
+
+    when(sqlStatementInfoGetter.getRawQueryTexts(dbRequest))
+        .thenReturn(singleton("INSERT INTO table VALUES(1)"));
+    when(((SqlStatementInfoGetter<DbRequest>) sqlStatementInfoGetter).getQueryTextCount(dbRequest))
+        .thenReturn(2L);
+    when(sqlStatementInfoGetter.getDbNamespace(dbRequest)).thenReturn("database");
+
+    SpanNameExtractor<DbRequest> underTest =
+        DbClientSpanNameExtractor.create(sqlStatementInfoGetter);
+
+    // when
+    String spanName = underTest.extract(dbRequest);
+
+    // then the span name is the same as for a batch carrying both statements
+    assertEquals(
+        SemconvStability.emitStableDatabaseSemconv() ? "BATCH INSERT database.table" : "database",
+        spanName);
+  }
+
   static class DbRequest {}
 }
@@ -13,6 +13,7 @@ import static org.assertj.core.api.Assertions.entry;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlStatementInfoGetter;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.internal.SemconvStability;
 import io.opentelemetry.semconv.incubating.DbIncubatingAttributes;
@@ -20,6 +21,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 
@@ -81,6 +83,35 @@ class SqlClientAttributesExtractorTest {
     }
   }
 
+  static class TestSqlStatementInfoGetter extends TestAttributesGetter
+      implements SqlStatementInfoGetter<Map<String, Object>> {
+
+    @Override
+    public SqlStatementInfo getSqlStatementInfo(Map<String, Object> map) {
+      return read(map, "sql.statement.info", SqlStatementInfo.class);
+    }
+  }
+
+  static class TestMultiSqlStatementInfoGetter extends TestMultiAttributesGetter
+      implements SqlStatementInfoGetter<Map<String, Object>> {
+
+    @Override
+    public SqlStatementInfo getSqlStatementInfo(Map<String, Object> map) {
+      return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<SqlStatementInfo> getSqlStatementInfos(Map<String, Object> map) {
+      return (List<SqlStatementInfo>) map.get("sql.statement.infos");
+    }
+
+    @Override
+    public Long getQueryTextCount(Map<String, Object> map) {
+      return read(map, "db.query.text.count", Long.class);
+    }
+  }
+
   @SuppressWarnings("deprecation") // TODO DbIncubatingAttributes.DB_CONNECTION_STRING deprecation
   @Test
   void shouldExtractAllAttributes() {
@@ -387,4 +418,136 @@ class SqlClientAttributesExtractorTest {
 
     assertThat(endAttributes.build().isEmpty()).isTrue();
   }
+
+  @Test
+  void shouldUseAlreadySanitizedStatement() {
+    // given
+    Map<String, Object> request = new HashMap<>();
+    request.put("db.statement", "SELECT * FROM potato WHERE id=12345");
+    // deliberately different from what the sanitizer would return
+    request.put(
+        "sql.statement.info", SqlStatementInfo.create("SELECT * FROM tomato", "SELECT", "tomato"));
+
+    Context context = Context.root();
+
+    AttributesExtractor<Map<String, Object>, Void> underTest =
+        SqlClientAttributesExtractor.create(new TestSqlStatementInfoGetter());
+
+    // when
+    AttributesBuilder attributes = Attributes.builder();
+    underTest.onStart(attributes, context, request);
+
+    // then
+    if (SemconvStability.emitOldDatabaseSemconv()) {
+      assertThat(attributes.build())
+          .containsEntry(DbIncubatingAttributes.DB_STATEMENT, "SELECT * FROM tomato")
+          .containsEntry(DbIncubatingAttributes.DB_SQL_TABLE, "tomato");
+    }
+    if (SemconvStability.emitStableDatabaseSemconv()) {
+      assertThat(attributes.build())
+          .containsEntry(DbIncubatingAttributes.DB_QUERY_TEXT, "SELECT * FROM tomato")
+          .containsEntry(DbIncubatingAttributes.DB_COLLECTION_NAME, "tomato");
+    }
+  }
+
+  @Test
+  void shouldSanitizeWhenSanitizedStatementIsNotKnown() {
+    // given
+    Map<String, Object> request = new HashMap<>();
+    request.put("db.statement", "SELECT * FROM potato WHERE id=12345");
+
+    Context context = Context.root();
+
+    AttributesExtractor<Map<String, Object>, Void> underTest =
+        SqlClientAttributesExtractor.create(new TestSqlStatementInfoGetter());
+
+    // when
+    AttributesBuilder attributes = Attributes.builder();
+    underTest.onStart(attributes, context, request);
+
+    // then
+    if (SemconvStability.emitOldDatabaseSemconv()) {
+      assertThat(attributes.build())
+          .containsEntry(DbIncubatingAttributes.DB_STATEMENT, "SELECT * FROM potato WHERE id=?");
+    }
+    if (SemconvStability.emitStableDatabaseSemconv()) {
+      assertThat(attributes.build())
+          .containsEntry(DbIncubatingAttributes.DB_QUERY_TEXT, "SELECT * FROM potato WHERE id=?");
+    }
+  }
+
+  @Test
+  void shouldUseAlreadySanitizedBatchStatements() {
+    // given
+    Map<String, Object> request = new HashMap<>();
+    request.put(
+        "db.statements",
+        Arrays.asList("INSERT INTO potato VALUES(1)", "INSERT INTO potato VALUES(2)"));
+    request.put("db.operation.batch.size", 2L);
+    // deliberately different from what the sanitizer would return
+    request.put(
+        "sql.statement.infos",
+        Arrays.asList(
+            SqlStatementInfo.create("INSERT INTO tomato VALUES(?)", "INSERT", "tomato"),
+            SqlStatementInfo.create("INSERT INTO tomato VALUES(?)", "INSERT", "tomato")));
+
+    Context context = Context.root();
+
+    AttributesExtractor<Map<String, Object>, Void> underTest =
+        SqlClientAttributesExtractor.create(new TestMultiSqlStatementInfoGetter());
+
+    // when
+    AttributesBuilder attributes = Attributes.builder();
+    underTest.onStart(attributes, context, request);
+
+    // then
+    if (SemconvStability.emitStableDatabaseSemconv()) {
+      assertThat(attributes.build())
+          .containsEntry(DbIncubatingAttributes.DB_QUERY_TEXT, "INSERT INTO tomato VALUES(?)")
+          .containsEntry(DbIncubatingAttributes.DB_OPERATION_NAME, "BATCH INSERT")
+          .containsEntry(DbIncubatingAttributes.DB_COLLECTION_NAME, "tomato");
+    }
+  }
+
+  @Test
+  void shouldCountRepeatedStatementsOfDeduplicatedBatch() {
+    // given
+    Map<String, Object> request = new HashMap<>();
+    request.put("db.name", "potatoes");
+    request.put("db.statements", singleton("INSERT INTO potato VALUES(1)"));
+    request.put("db.query.text.count", 2L);
+    request.put("db.operation.batch.size", 2L);
+
+    Context context = Context.root();
+
+    AttributesExtractor<Map<String, Object>, Void> underTest =
+        SqlClientAttributesExtractor.create(new TestMultiSqlStatementInfoGetter());
+
+    // when
+    AttributesBuilder startAttributes = Attributes.builder();
+    underTest.onStart(startAttributes, context, request);
+
+    // then the attributes are the same as for a batch carrying both statements
+    if (SemconvStability.emitStableDatabaseSemconv() && SemconvStability.emitOldDatabaseSemconv()) {
+      assertThat(startAttributes.build())
+          .containsOnly(
+              entry(DbIncubatingAttributes.DB_NAME, "potatoes"),
+              entry(DbIncubatingAttributes.DB_NAMESPACE, "potatoes"),
+              entry(DbIncubatingAttributes.DB_QUERY_TEXT, "INSERT INTO potato VALUES(?)"),
+              entry(DbIncubatingAttributes.DB_OPERATION_NAME, "BATCH INSERT"),
+              entry(DbIncubatingAttributes.DB_COLLECTION_NAME, "potato"),
+              entry(DbIncubatingAttributes.DB_OPERATION_BATCH_SIZE, 2L));
+    } else if (SemconvStability.emitOldDatabaseSemconv()) {
+      assertThat(startAttributes.build())
+          .containsOnly(entry(DbIncubatingAttributes.DB_NAME, "potatoes"));
+    } else if (SemconvStability.emitStableDatabaseSemconv()) {
+      assertThat(startAttributes.build())
+          .containsOnly(
+              entry(DbIncubatingAttributes.DB_NAMESPACE, "potatoes"),
+              entry(DbIncubatingAttributes.DB_QUERY_TEXT, "INSERT INTO potato VALUES(?)"),
+              entry(DbIncubatingAttributes.DB_OPERATION_NAME, "BATCH INSERT"),
+              entry(DbIncubatingAttributes.DB_COLLECTION_NAME, "potato"),
+              entry(DbIncubatingAttributes.DB_OPERATION_BATCH_SIZE, 2L));
+    }
+  }
 }
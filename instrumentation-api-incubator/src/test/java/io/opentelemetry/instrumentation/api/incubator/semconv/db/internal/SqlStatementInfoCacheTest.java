@@ -0,0 +1,85 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db.internal;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlDialect;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.Counter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.Test;
+
+class SqlStatementInfoCacheTest {
+
+  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+
+  private final AtomicInteger sanitizeCount = new AtomicInteger();
+  private final BiFunction<String, SqlDialect, SqlStatementInfo> sanitizer =
+      (statement, dialect) -> {
+        sanitizeCount.incrementAndGet();
+        return SqlStatementInfo.create(statement, "SELECT", "table");
+      };
+
+  @Test
+  void cachesByStatementAndDialect() {
+    long hits = supportability.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_HIT);
+    long misses = supportability.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_MISS);
+    SqlStatementInfoCache cache = SqlStatementInfoCache.create(1000, 1);
+
+    SqlStatementInfo first = cache.get("SELECT * FROM table", SqlDialect.DEFAULT, sanitizer);
+    // an equal statement that is a different instance
+    String copy = new StringBuilder("SELECT * FROM table").toString();
+    SqlStatementInfo second = cache.get(copy, SqlDialect.DEFAULT, sanitizer);
+    SqlStatementInfo couchbase = cache.get("SELECT * FROM table", SqlDialect.COUCHBASE, sanitizer);
+
+    assertThat(second).isSameAs(first);
+    assertThat(couchbase).isNotSameAs(first);
+    assertThat(sanitizeCount).hasValue(2);
+    assertThat(supportability.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_HIT) - hits).isEqualTo(1);
+    assertThat(supportability.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_MISS) - misses)
+        .isEqualTo(2);
+  }
+
+  @Test
+  void evictsByStatementLength() {
+    long evictions = supportability.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_EVICTION);
+    SqlStatementInfoCache cache = SqlStatementInfoCache.create(100, 1);
+
+    for (int i = 0; i < 10; i++) {
+      cache.get(statement(i, 40), SqlDialect.DEFAULT, sanitizer);
+    }
+
+    assertThat(cache.weightedSize()).isLessThanOrEqualTo(100);
+    assertThat(supportability.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_EVICTION) - evictions)
+        .isEqualTo(8);
+  }
+
+  @Test
+  void doesNotCacheStatementsLongerThanAShard() {
+    long evictions = supportability.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_EVICTION);
+    SqlStatementInfoCache cache = SqlStatementInfoCache.create(100, 1);
+    String statement = statement(0, 200);
+
+    cache.get(statement, SqlDialect.DEFAULT, sanitizer);
+    cache.get(statement, SqlDialect.DEFAULT, sanitizer);
+
+    assertThat(sanitizeCount).hasValue(2);
+    assertThat(cache.weightedSize()).isZero();
+    assertThat(supportability.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_EVICTION))
+        .isEqualTo(evictions);
+  }
+
+  private static String statement(int id, int length) {
+    StringBuilder statement = new StringBuilder("SELECT * FROM table WHERE id = ").append(id);
+    while (statement.length() < length) {
+      statement.append(' ');
+    }
+    return statement.toString();
+  }
+}
@@ -6,9 +6,11 @@
 package io.opentelemetry.instrumentation.api.incubator.semconv.net;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 class PeerServiceResolverTest {
@@ -35,4 +37,52 @@ class PeerServiceResolverTest {
     assertEquals(
         "someOtherServiceAPI", peerServiceResolver.resolveService("1.2.3.4", null, () -> "/api"));
   }
+
+  @Test
+  void resolvesByPortWhenNoPathIsMapped() {
+    Map<String, String> peerServiceMapping = new HashMap<>();
+    peerServiceMapping.put("example.com:8080", "myService8080");
+    peerServiceMapping.put("example.com:9090", "myService9090");
+    peerServiceMapping.put("example.com", "myServiceBase");
+    peerServiceMapping.put("other.com:8080", "otherService8080");
+
+    PeerServiceResolver peerServiceResolver = PeerServiceResolver.create(peerServiceMapping);
+
+    assertEquals("myService8080", peerServiceResolver.resolveService("example.com", 8080, null));
+    assertEquals(
+        "myService9090", peerServiceResolver.resolveService("example.com", 9090, () -> "/api"));
+    assertEquals("myServiceBase", peerServiceResolver.resolveService("example.com", 443, null));
+    assertEquals("myServiceBase", peerServiceResolver.resolveService("example.com", null, null));
+    assertEquals("otherService8080", peerServiceResolver.resolveService("other.com", 8080, null));
+    assertNull(peerServiceResolver.resolveService("other.com", 443, null));
+    assertNull(peerServiceResolver.resolveService("unknown.com", 8080, null));
+  }
+
+  @Test
+  void prefersLongestPathAndComputesPathOnce() {
+    Map<String, String> peerServiceMapping = new HashMap<>();
+    peerServiceMapping.put("example.com/api", "apiService");
+    peerServiceMapping.put("example.com/api/v2", "apiV2Service");
+    peerServiceMapping.put("example.com/other", "otherService");
+    peerServiceMapping.put("example.com", "baseService");
+
+    PeerServiceResolver peerServiceResolver = PeerServiceResolver.create(peerServiceMapping);
+
+    AtomicInteger pathCalls = new AtomicInteger();
+    assertEquals(
+        "apiV2Service",
+        peerServiceResolver.resolveService(
+            "example.com",
+            null,
+            () -> {
+              pathCalls.incrementAndGet();
+              return "/api/v2/users";
+            }));
+    assertEquals(1, pathCalls.get());
+    assertEquals(
+        "apiService", peerServiceResolver.resolveService("example.com", null, () -> "/api/v1"));
+    assertEquals(
+        "baseService", peerServiceResolver.resolveService("example.com", null, () -> "/users"));
+    assertEquals("baseService", peerServiceResolver.resolveService("example.com", null, null));
+  }
 }
@@ -25,6 +25,7 @@ dependencies {
   testImplementation("org.junit-pioneer:junit-pioneer")
 
   jmhImplementation(project(":instrumentation-api-incubator"))
+  jmhImplementation("io.opentelemetry:opentelemetry-sdk-testing")
 }
 
 tasks {
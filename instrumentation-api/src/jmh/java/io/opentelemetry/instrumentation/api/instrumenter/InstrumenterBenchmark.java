@@ -5,13 +5,18 @@
 
 package io.opentelemetry.instrumentation.api.instrumenter;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.semconv.http.HttpClientAttributesExtractor;
 import io.opentelemetry.instrumentation.api.semconv.http.HttpClientAttributesGetter;
 import io.opentelemetry.instrumentation.api.semconv.http.HttpSpanNameExtractor;
 import java.net.InetSocketAddress;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
@@ -42,6 +47,9 @@ public class InstrumenterBenchmark {
               HttpClientAttributesExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
           .buildInstrumenter();
 
+  private static final AttributesExtractor<Void, Void> ATTRIBUTES_EXTRACTOR =
+      HttpClientAttributesExtractor.create(ConstantHttpAttributesGetter.INSTANCE);
+
   @Benchmark
   public Context start() {
     return INSTRUMENTER.start(Context.root(), null);
@@ -54,6 +62,58 @@ public class InstrumenterBenchmark {
     return context;
   }
 
+  // compare the allocation rate (gc.alloc.rate.norm) of the attributes storage used by the
+  // instrumenter with the HashMap based storage that was used before
+
+  @Benchmark
+  public int startEndAttributes() {
+    UnsafeAttributes startAttributes = new UnsafeAttributes(8);
+    ATTRIBUTES_EXTRACTOR.onStart(startAttributes, Context.root(), null);
+    UnsafeAttributes endAttributes = new UnsafeAttributes(4);
+    ATTRIBUTES_EXTRACTOR.onEnd(endAttributes, Context.root(), null, null, null);
+    return startAttributes.size() + endAttributes.size();
+  }
+
+  @Benchmark
+  public int startEndAttributesHashMap() {
+    HashMapAttributesBuilder startAttributes = new HashMapAttributesBuilder();
+    ATTRIBUTES_EXTRACTOR.onStart(startAttributes, Context.root(), null);
+    HashMapAttributesBuilder endAttributes = new HashMapAttributesBuilder();
+    ATTRIBUTES_EXTRACTOR.onEnd(endAttributes, Context.root(), null, null, null);
+    return startAttributes.size() + endAttributes.size();
+  }
+
+  static final class HashMapAttributesBuilder extends HashMap<AttributeKey<?>, Object>
+      implements AttributesBuilder {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Attributes build() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public <T> AttributesBuilder put(AttributeKey<Long> key, int value) {
+      return put(key, (long) value);
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public <T> AttributesBuilder put(AttributeKey<T> key, T value) {
+      super.put(key, value);
+      return this;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public AttributesBuilder putAll(Attributes attributes) {
+      attributes.forEach(this::put);
+      return this;
+    }
+  }
+
   enum ConstantHttpAttributesGetter implements HttpClientAttributesGetter<Void, Void> {
     INSTANCE;
 
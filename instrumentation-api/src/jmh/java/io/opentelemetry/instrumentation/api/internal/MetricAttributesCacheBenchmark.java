@@ -0,0 +1,108 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static java.util.Arrays.asList;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.incubator.metrics.ExtendedDoubleHistogramBuilder;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import io.opentelemetry.semconv.ClientAttributes;
+import io.opentelemetry.semconv.HttpAttributes;
+import io.opentelemetry.semconv.NetworkAttributes;
+import io.opentelemetry.semconv.UrlAttributes;
+import io.opentelemetry.semconv.UserAgentAttributes;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class MetricAttributesCacheBenchmark {
+
+  private static final List<AttributeKey<?>> ADVICE =
+      asList(
+          HttpAttributes.HTTP_ROUTE,
+          HttpAttributes.HTTP_REQUEST_METHOD,
+          HttpAttributes.HTTP_RESPONSE_STATUS_CODE,
+          NetworkAttributes.NETWORK_PROTOCOL_VERSION,
+          UrlAttributes.URL_SCHEME);
+  private static final String[] ROUTES = {"/users/{id}", "/orders/{id}", "/health", "/"};
+  private static final int REQUESTS = 1024;
+
+  private DoubleHistogram histogram;
+  private MetricAttributesCache cache;
+  // every request has its own instances, like the attributes extracted by the instrumentation
+  private Attributes[] requestAttributes;
+  private int index;
+
+  @Setup
+  public void setup() {
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(InMemoryMetricReader.create()).build();
+    DoubleHistogramBuilder builder =
+        meterProvider.get("benchmark").histogramBuilder("http.server.request.duration");
+    ((ExtendedDoubleHistogramBuilder) builder).setAttributesAdvice(ADVICE);
+    histogram = builder.build();
+    cache = MetricAttributesCache.create(ADVICE, 100);
+
+    requestAttributes = new Attributes[REQUESTS];
+    for (int i = 0; i < REQUESTS; i++) {
+      requestAttributes[i] = requestAttributes(i);
+    }
+  }
+
+  // what the HTTP server metrics receive: the advice attributes plus the high cardinality ones
+  @SuppressWarnings("StringOperationCanBeSimplified")
+  private static Attributes requestAttributes(int i) {
+    return Attributes.builder()
+        .put(HttpAttributes.HTTP_ROUTE, new String(ROUTES[i % ROUTES.length]))
+        .put(HttpAttributes.HTTP_REQUEST_METHOD, "GET")
+        .put(HttpAttributes.HTTP_RESPONSE_STATUS_CODE, 200L + (i % 2))
+        .put(NetworkAttributes.NETWORK_PROTOCOL_VERSION, "1.1")
+        .put(UrlAttributes.URL_SCHEME, "https")
+        .put(UrlAttributes.URL_PATH, "/users/" + i)
+        .put(UrlAttributes.URL_QUERY, "details=true")
+        .put(ClientAttributes.CLIENT_ADDRESS, "10.1.2." + (i % 256))
+        .put(NetworkAttributes.NETWORK_PEER_ADDRESS, "10.1.2." + (i % 256))
+        .put(NetworkAttributes.NETWORK_PEER_PORT, 50000L + i)
+        .put(UserAgentAttributes.USER_AGENT_ORIGINAL, "Mozilla/5.0")
+        .build();
+  }
+
+  private Attributes nextAttributes() {
+    index = (index + 1) & (REQUESTS - 1);
+    return requestAttributes[index];
+  }
+
+  @Benchmark
+  public void record() {
+    histogram.record(0.1, nextAttributes(), Context.root());
+  }
+
+  @Benchmark
+  public void recordCanonical() {
+    histogram.record(0.1, cache.get(nextAttributes()), Context.root());
+  }
+}
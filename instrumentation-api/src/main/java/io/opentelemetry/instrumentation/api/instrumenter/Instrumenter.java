@@ -5,7 +5,10 @@
 
 package io.opentelemetry.instrumentation.api.instrumenter;
 
+import static java.util.logging.Level.FINE;
+
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.SpanKind;
@@ -15,9 +18,11 @@ import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.internal.HttpRouteState;
 import io.opentelemetry.instrumentation.api.internal.InstrumenterAccess;
 import io.opentelemetry.instrumentation.api.internal.InstrumenterUtil;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
 import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import java.time.Instant;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
 /**
@@ -44,6 +49,10 @@ public class Instrumenter<REQUEST, RESPONSE> {
 
   private static final ContextKey<OperationListener[]> START_OPERATION_LISTENERS =
       ContextKey.named("instrumenter-start-operation-listeners");
+  private static final ContextKey<OperationStartState> OPERATION_START_STATE =
+      ContextKey.named("instrumenter-operation-start-state");
+
+  private static final Logger logger = Logger.getLogger(Instrumenter.class.getName());
 
   /**
    * Returns a new {@link InstrumenterBuilder}.
@@ -68,7 +77,7 @@ public class Instrumenter<REQUEST, RESPONSE> {
 
   private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
 
-  private final String instrumentationName;
+  private final SupportabilityMetrics.SuppressedSpanCounter suppressedSpans;
   private final Tracer tracer;
   private final SpanNameExtractor<? super REQUEST> spanNameExtractor;
   private final SpanKindExtractor<? super REQUEST> spanKindExtractor;
@@ -77,14 +86,20 @@ public class Instrumenter<REQUEST, RESPONSE> {
   private final AttributesExtractor<? super REQUEST, ? super RESPONSE>[] attributesExtractors;
   private final ContextCustomizer<? super REQUEST>[] contextCustomizers;
   private final OperationListener[] operationListeners;
+  private final boolean hasMergedAttributesOperationListeners;
   private final ErrorCauseExtractor errorCauseExtractor;
   private final boolean propagateOperationListenersToOnEnd;
   private final boolean enabled;
   private final SpanSuppressor spanSuppressor;
 
+  // the number of attributes extracted by the previous operation, used to presize the attributes
+  // of the next one; races between threads are harmless, these are only hints
+  private int startAttributesSizeHint;
+  private int endAttributesSizeHint;
+
   @SuppressWarnings({"rawtypes", "unchecked"})
   Instrumenter(InstrumenterBuilder<REQUEST, RESPONSE> builder) {
-    this.instrumentationName = builder.instrumentationName;
+    this.suppressedSpans = supportability.suppressedSpanCounter(builder.instrumentationName);
     this.tracer = builder.buildTracer();
     this.spanNameExtractor = builder.spanNameExtractor;
     this.spanKindExtractor = builder.spanKindExtractor;
@@ -93,6 +108,8 @@ public class Instrumenter<REQUEST, RESPONSE> {
     this.attributesExtractors = builder.attributesExtractors.toArray(new AttributesExtractor[0]);
     this.contextCustomizers = builder.contextCustomizers.toArray(new ContextCustomizer[0]);
     this.operationListeners = builder.buildOperationListeners().toArray(new OperationListener[0]);
+    this.hasMergedAttributesOperationListeners =
+        anyMergedAttributesOperationListener(operationListeners);
     this.errorCauseExtractor = builder.errorCauseExtractor;
     this.propagateOperationListenersToOnEnd = builder.propagateOperationListenersToOnEnd;
     this.enabled = builder.enabled;
@@ -117,7 +134,7 @@ public class Instrumenter<REQUEST, RESPONSE> {
     boolean suppressed = spanSuppressor.shouldSuppress(parentContext, spanKind);
 
     if (suppressed) {
-      supportability.recordSuppressedSpan(spanKind, instrumentationName);
+      suppressedSpans.increment(spanKind);
     }
     return !suppressed;
   }
@@ -177,10 +194,13 @@ public class Instrumenter<REQUEST, RESPONSE> {
       spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
+    UnsafeAttributes attributes = new UnsafeAttributes(startAttributesSizeHint);
     for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
       extractor.onStart(attributes, parentContext, request);
     }
+    if (attributes.size() != startAttributesSizeHint) {
+      startAttributesSizeHint = attributes.size();
+    }
 
     Context context = parentContext;
 
@@ -202,7 +222,17 @@ public class Instrumenter<REQUEST, RESPONSE> {
       // for capturing exemplars
       long startNanos = getNanos(startTime);
       for (int i = 0; i < operationListeners.length; i++) {
-        context = operationListeners[i].onStart(context, attributes, startNanos);
+        OperationListener operationListener = operationListeners[i];
+        if (!(operationListener instanceof MergedAttributesOperationListener)) {
+          context = operationListener.onStart(context, attributes, startNanos);
+        }
+      }
+      if (hasMergedAttributesOperationListeners) {
+        // a single context entry for all the listeners that only need the merged attributes at end
+        context =
+            context.with(
+                OPERATION_START_STATE,
+                new OperationStartState(operationListeners, attributes, startNanos));
       }
     }
     if (propagateOperationListenersToOnEnd || context.get(START_OPERATION_LISTENERS) != null) {
@@ -238,10 +268,13 @@ public class Instrumenter<REQUEST, RESPONSE> {
       span.recordException(error);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
+    UnsafeAttributes attributes = new UnsafeAttributes(endAttributesSizeHint);
     for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
       extractor.onEnd(attributes, context, request, response, error);
     }
+    if (attributes.size() != endAttributesSizeHint) {
+      endAttributesSizeHint = attributes.size();
+    }
     span.setAllAttributes(attributes);
 
     OperationListener[] operationListeners = context.get(START_OPERATION_LISTENERS);
@@ -250,8 +283,30 @@ public class Instrumenter<REQUEST, RESPONSE> {
     }
     if (operationListeners.length != 0) {
       long endNanos = getNanos(endTime);
+      Attributes mergedAttributes = null;
+      long startNanos = 0;
+      if (hasMergedAttributesOperationListeners(operationListeners)) {
+        OperationStartState startState = context.get(OPERATION_START_STATE);
+        // the state may belong to a parent operation when start and end are not called on the
+        // same instrumenter
+        if (startState != null && startState.operationListeners == operationListeners) {
+          mergedAttributes = startState.mergeWith(attributes);
+          startNanos = startState.startNanos;
+        } else {
+          logger.log(
+              FINE,
+              "No state present when ending context {0}. Cannot record operation metrics.",
+              context);
+        }
+      }
       for (int i = operationListeners.length - 1; i >= 0; i--) {
-        operationListeners[i].onEnd(context, attributes, endNanos);
+        OperationListener operationListener = operationListeners[i];
+        if (!(operationListener instanceof MergedAttributesOperationListener)) {
+          operationListener.onEnd(context, attributes, endNanos);
+        } else if (mergedAttributes != null) {
+          ((MergedAttributesOperationListener) operationListener)
+              .onEnd(context, mergedAttributes, startNanos, endNanos);
+        }
       }
     }
 
@@ -265,6 +320,23 @@ public class Instrumenter<REQUEST, RESPONSE> {
     }
   }
 
+  private boolean hasMergedAttributesOperationListeners(OperationListener[] operationListeners) {
+    if (operationListeners == this.operationListeners) {
+      return hasMergedAttributesOperationListeners;
+    }
+    return anyMergedAttributesOperationListener(operationListeners);
+  }
+
+  private static boolean anyMergedAttributesOperationListener(
+      OperationListener[] operationListeners) {
+    for (OperationListener operationListener : operationListeners) {
+      if (operationListener instanceof MergedAttributesOperationListener) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static long getNanos(@Nullable Instant time) {
     if (time == null) {
       return System.nanoTime();
@@ -272,6 +344,25 @@ public class Instrumenter<REQUEST, RESPONSE> {
     return TimeUnit.SECONDS.toNanos(time.getEpochSecond()) + time.getNano();
   }
 
+  private static final class OperationStartState {
+
+    private final OperationListener[] operationListeners;
+    private final Attributes startAttributes;
+    private final long startNanos;
+
+    private OperationStartState(
+        OperationListener[] operationListeners, Attributes startAttributes, long startNanos) {
+      this.operationListeners = operationListeners;
+      this.startAttributes = startAttributes;
+      this.startNanos = startNanos;
+    }
+
+    // built once per operation and shared by all the listeners
+    private Attributes mergeWith(Attributes endAttributes) {
+      return Attributes.builder().putAll(startAttributes).putAll(endAttributes).build();
+    }
+  }
+
   static {
     InstrumenterUtil.setInstrumenterAccess(
         new InstrumenterAccess() {
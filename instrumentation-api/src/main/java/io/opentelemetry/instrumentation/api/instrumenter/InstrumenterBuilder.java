@@ -29,6 +29,7 @@ import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -246,6 +247,20 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
         spanKindExtractor);
   }
 
+  /**
+   * Returns a new {@link Instrumenter} which will create spans with kind determined by the passed
+   * {@link SpanKindExtractor} and extract context from requests with the passed function, which
+   * must behave like the propagator of the {@link OpenTelemetry} instance.
+   */
+  Instrumenter<REQUEST, RESPONSE> buildUpstreamInstrumenter(
+      BiFunction<Context, REQUEST, Context> contextExtractor,
+      SpanKindExtractor<REQUEST> spanKindExtractor) {
+    requireNonNull(contextExtractor, "contextExtractor");
+    return buildInstrumenter(
+        builder -> new PropagatingFromUpstreamInstrumenter<>(builder, contextExtractor),
+        spanKindExtractor);
+  }
+
   /**
    * Returns a new {@link Instrumenter} which will create spans with kind determined by the passed
    * {@link SpanKindExtractor} and inject context into requests with the passed {@link
@@ -404,6 +419,14 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
             return builder.buildUpstreamInstrumenter(getter, spanKindExtractor);
           }
 
+          @Override
+          public <RQ, RS> Instrumenter<RQ, RS> buildUpstreamInstrumenter(
+              InstrumenterBuilder<RQ, RS> builder,
+              BiFunction<Context, RQ, Context> contextExtractor,
+              SpanKindExtractor<RQ> spanKindExtractor) {
+            return builder.buildUpstreamInstrumenter(contextExtractor, spanKindExtractor);
+          }
+
           @Override
           public <RQ, RS> Instrumenter<RQ, RS> buildDownstreamInstrumenter(
               InstrumenterBuilder<RQ, RS> builder,
@@ -9,25 +9,36 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.ContextPropagators;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.instrumentation.api.internal.ContextPropagationDebug;
+import java.util.function.BiFunction;
 
 final class PropagatingFromUpstreamInstrumenter<REQUEST, RESPONSE>
     extends Instrumenter<REQUEST, RESPONSE> {
 
-  private final ContextPropagators propagators;
-  private final TextMapGetter<REQUEST> getter;
+  private final BiFunction<Context, REQUEST, Context> contextExtractor;
 
   PropagatingFromUpstreamInstrumenter(
       InstrumenterBuilder<REQUEST, RESPONSE> builder, TextMapGetter<REQUEST> getter) {
+    this(builder, propagatorContextExtractor(builder.openTelemetry.getPropagators(), getter));
+  }
+
+  PropagatingFromUpstreamInstrumenter(
+      InstrumenterBuilder<REQUEST, RESPONSE> builder,
+      BiFunction<Context, REQUEST, Context> contextExtractor) {
     super(builder);
-    this.propagators = builder.openTelemetry.getPropagators();
-    this.getter = getter;
+    this.contextExtractor = contextExtractor;
+  }
+
+  private static <REQUEST> BiFunction<Context, REQUEST, Context> propagatorContextExtractor(
+      ContextPropagators propagators, TextMapGetter<REQUEST> getter) {
+    return (parentContext, request) ->
+        propagators.getTextMapPropagator().extract(parentContext, request, getter);
   }
 
   @Override
   public Context start(Context parentContext, REQUEST request) {
     ContextPropagationDebug.debugContextLeakIfEnabled();
 
-    Context extracted = propagators.getTextMapPropagator().extract(parentContext, request, getter);
+    Context extracted = contextExtractor.apply(parentContext, request);
     return super.start(extracted, request);
   }
 }
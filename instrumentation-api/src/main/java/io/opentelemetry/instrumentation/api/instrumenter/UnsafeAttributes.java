@@ -9,9 +9,12 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 
 /**
  * The {@link AttributesBuilder} and {@link Attributes} used by the instrumentation API. We are able
@@ -19,23 +22,83 @@ import java.util.function.BiConsumer;
  * multiple Attributes instances. So we use just one storage for both the builder and attributes. A
  * couple of methods still require copying to satisfy the interface contracts, but in practice
  * should never be called by user code even though they can.
+ *
+ * <p>Entries are kept in a single flat open-addressed array, keys at even and values at odd
+ * indices, so that an instance with {@code n} attributes costs one object and one array instead of
+ * a hash table plus a node per entry. The {@link Instrumenter} passes the number of attributes it
+ * saw on its previous operation as the expected size, so that in the steady state the table is
+ * never resized.
  */
-final class UnsafeAttributes extends HashMap<AttributeKey<?>, Object>
-    implements Attributes, AttributesBuilder {
+final class UnsafeAttributes implements Attributes, AttributesBuilder {
 
-  private static final long serialVersionUID = 1L;
+  private static final int MIN_CAPACITY = 8;
+  // a table of capacity n can hold n/2 entries before being resized
+  private static final int MAX_CAPACITY = 1 << 29;
+
+  // key, value, key, value, ...
+  private Object[] table;
+  private int size;
+
+  UnsafeAttributes() {
+    this(0);
+  }
+
+  UnsafeAttributes(int expectedSize) {
+    table = new Object[2 * capacityFor(expectedSize)];
+  }
+
+  private static int capacityFor(int expectedSize) {
+    if (expectedSize <= MIN_CAPACITY / 2) {
+      return MIN_CAPACITY;
+    }
+    if (expectedSize >= MAX_CAPACITY / 2) {
+      return MAX_CAPACITY;
+    }
+    return Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+  }
 
   // Attributes
 
-  @SuppressWarnings("unchecked")
+  @Nullable
   @Override
+  @SuppressWarnings("unchecked")
   public <T> T get(AttributeKey<T> key) {
-    return (T) super.get(key);
+    if (key == null) {
+      return null;
+    }
+    int index = indexOf(table, key);
+    return index < 0 ? null : (T) table[index + 1];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> action) {
+    Object[] table = this.table;
+    for (int i = 0; i < table.length; i += 2) {
+      Object key = table[i];
+      if (key != null) {
+        action.accept((AttributeKey<?>) key, table[i + 1]);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
   }
 
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  // This can be called by user code in a RequestListener so copy. In practice, it should not be
+  // called as there is no real use case.
   @Override
   public Map<AttributeKey<?>, Object> asMap() {
-    return this;
+    Map<AttributeKey<?>, Object> map = new LinkedHashMap<>();
+    forEach(map::put);
+    return Collections.unmodifiableMap(map);
   }
 
   // This can be called by user code in a RequestListener so copy. In practice, it should not be
@@ -63,22 +126,132 @@ final class UnsafeAttributes extends HashMap<AttributeKey<?>, Object>
   @Override
   @CanIgnoreReturnValue
   public <T> AttributesBuilder put(AttributeKey<T> key, T value) {
-    super.put(key, value);
+    if (key == null || key.getKey().isEmpty() || value == null) {
+      return this;
+    }
+    int index = indexOf(table, key);
+    if (index >= 0) {
+      table[index + 1] = value;
+      return this;
+    }
+    if (2 * (size + 1) > table.length / 2) {
+      resize(table.length);
+    }
+    insert(table, key, value);
+    size++;
     return this;
   }
 
   @Override
   @CanIgnoreReturnValue
   public AttributesBuilder putAll(Attributes attributes) {
-    attributes.forEach(this::put);
+    attributes.forEach(this::putUnchecked);
     return this;
   }
 
   @Override
-  public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> action) {
-    // https://github.com/open-telemetry/opentelemetry-java/issues/4161
-    // Help out android desugaring by having an explicit call to HashMap.forEach, when forEach is
-    // just called through Attributes.forEach desugaring is unable to correctly handle it.
-    super.forEach(action);
+  @CanIgnoreReturnValue
+  public <T> AttributesBuilder remove(AttributeKey<T> key) {
+    if (key == null) {
+      return this;
+    }
+    return removeIf(
+        candidate ->
+            candidate.getKey().equals(key.getKey()) && candidate.getType() == key.getType());
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  @SuppressWarnings("unchecked")
+  public AttributesBuilder removeIf(Predicate<AttributeKey<?>> filter) {
+    if (filter == null || size == 0) {
+      return this;
+    }
+    // rehash the surviving entries, open addressing with linear probing does not allow simply
+    // clearing a slot
+    Object[] newTable = new Object[table.length];
+    int newSize = 0;
+    for (int i = 0; i < table.length; i += 2) {
+      Object key = table[i];
+      if (key != null && !filter.test((AttributeKey<?>) key)) {
+        insert(newTable, key, table[i + 1]);
+        newSize++;
+      }
+    }
+    table = newTable;
+    size = newSize;
+    return this;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void putUnchecked(AttributeKey<?> key, Object value) {
+    put((AttributeKey<Object>) key, value);
+  }
+
+  private void resize(int length) {
+    if (length >= 2 * MAX_CAPACITY) {
+      throw new IllegalStateException("Too many attributes");
+    }
+    Object[] oldTable = table;
+    Object[] newTable = new Object[length * 2];
+    for (int i = 0; i < oldTable.length; i += 2) {
+      Object key = oldTable[i];
+      if (key != null) {
+        insert(newTable, key, oldTable[i + 1]);
+      }
+    }
+    table = newTable;
+  }
+
+  private static int indexOf(Object[] table, Object key) {
+    int mask = table.length - 1;
+    int index = slot(key, mask);
+    while (true) {
+      Object candidate = table[index];
+      if (candidate == null) {
+        return -1;
+      }
+      if (candidate == key || candidate.equals(key)) {
+        return index;
+      }
+      index = (index + 2) & mask;
+    }
+  }
+
+  private static void insert(Object[] table, Object key, Object value) {
+    int mask = table.length - 1;
+    int index = slot(key, mask);
+    while (table[index] != null) {
+      index = (index + 2) & mask;
+    }
+    table[index] = key;
+    table[index + 1] = value;
+  }
+
+  private static int slot(Object key, int mask) {
+    int hash = key.hashCode();
+    // spread the high bits like HashMap does, and keep the index even
+    return ((hash ^ (hash >>> 16)) << 1) & mask;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof Attributes)) {
+      return false;
+    }
+    return asMap().equals(((Attributes) obj).asMap());
+  }
+
+  @Override
+  public int hashCode() {
+    return asMap().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return asMap().toString();
   }
 }
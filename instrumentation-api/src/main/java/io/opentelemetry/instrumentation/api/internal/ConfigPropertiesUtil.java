@@ -34,6 +34,18 @@ public final class ConfigPropertiesUtil {
     }
   }
 
+  public static double getDouble(String propertyName, double defaultValue) {
+    String strValue = getString(propertyName);
+    if (strValue == null) {
+      return defaultValue;
+    }
+    try {
+      return Double.parseDouble(strValue);
+    } catch (NumberFormatException ignored) {
+      return defaultValue;
+    }
+  }
+
   @Nullable
   public static String getString(String propertyName) {
     String value = System.getProperty(propertyName);
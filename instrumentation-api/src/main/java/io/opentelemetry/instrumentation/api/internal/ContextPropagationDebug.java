@@ -5,31 +5,72 @@
 
 package io.opentelemetry.instrumentation.api.internal;
 
+import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.WARNING;
 
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
-import java.util.Iterator;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 import javax.annotation.Nullable;
 
 /**
- * This class is internal and is hence not for public use. Its APIs are unstable and can change at
- * any time.
+ * Records where a context was propagated to another thread, so that the propagation that leaked a
+ * context can be found.
+ *
+ * <p>Recording every propagation with a full stack trace is only affordable in tests. With {@code
+ * otel.javaagent.experimental.thread-propagation-debugger.sampling-ratio} below 1 only that share
+ * of the propagations is recorded, with at most {@code
+ * otel.javaagent.experimental.thread-propagation-debugger.max-frames} frames captured through
+ * {@code StackWalker} when it is available. Every context keeps only its most recent propagations.
+ * The recorded propagations are counted by call site, and every leak is logged and counted by the
+ * call site that last propagated the context, or as {@code unknown} when none of its propagations
+ * was recorded. The counters can be exported with {@link #registerMetrics(OpenTelemetry)}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
  */
 public final class ContextPropagationDebug {
   private static final Logger logger = Logger.getLogger(ContextPropagationDebug.class.getName());
+  private static final String INSTRUMENTATION_NAME = "io.opentelemetry.javaagent";
+  private static final AttributeKey<String> CALL_SITE_KEY = AttributeKey.stringKey("call_site");
 
   // locations where the context was propagated to another thread (tracking multiple steps is
   // helpful in akka where there is so much recursive async spawning of new work)
   private static final ContextKey<ContextPropagationDebug> THREAD_PROPAGATION_LOCATIONS =
       ContextKey.named("thread-propagation-locations");
 
+  // number of most recent propagations kept for a context
+  private static final int MAX_LOCATIONS = 32;
+  // call sites beyond this number are counted together
+  private static final int MAX_CALL_SITES = 1000;
+  private static final String OTHER_CALL_SITE = "other";
+  // leaked contexts whose propagations were not recorded
+  private static final String UNKNOWN_CALL_SITE = "unknown";
+  // addDebugInfo() is not part of the captured stack
+  private static final int SKIPPED_FRAMES = 1;
+
   private static final boolean THREAD_PROPAGATION_DEBUGGER;
   private static final boolean FAIL_ON_CONTEXT_LEAK;
+  private static final double SAMPLING_RATIO;
+  private static final int MAX_FRAMES;
 
   static {
     boolean agentDebugEnabled = ConfigPropertiesUtil.getBoolean("otel.javaagent.debug", false);
@@ -39,17 +80,33 @@ public final class ContextPropagationDebug {
             "otel.javaagent.experimental.thread-propagation-debugger.enabled", agentDebugEnabled);
     FAIL_ON_CONTEXT_LEAK =
         ConfigPropertiesUtil.getBoolean("otel.javaagent.testing.fail-on-context-leak", false);
+    SAMPLING_RATIO =
+        Math.max(
+            0,
+            Math.min(
+                1,
+                ConfigPropertiesUtil.getDouble(
+                    "otel.javaagent.experimental.thread-propagation-debugger.sampling-ratio", 1)));
+    int maxFrames =
+        ConfigPropertiesUtil.getInt(
+            "otel.javaagent.experimental.thread-propagation-debugger.max-frames", 0);
+    MAX_FRAMES = maxFrames > 0 ? maxFrames : Integer.MAX_VALUE;
   }
 
+  private static final ConcurrentMap<String, CallSite> callSites = new ConcurrentHashMap<>();
+  private static final CallSite otherCallSite = new CallSite(OTHER_CALL_SITE);
+  private static final CallSite unknownCallSite = new CallSite(UNKNOWN_CALL_SITE);
+
   // context to which debug locations were added
   private final Context sourceContext;
-  private final List<Propagation> locations;
+  // the most recent propagations, locations[(next - 1) & (MAX_LOCATIONS - 1)] is the newest
+  private final Propagation[] locations = new Propagation[MAX_LOCATIONS];
+  private int next;
   // context after adding debug locations
   private Context wrappedContext;
 
   private ContextPropagationDebug(Context sourceContext) {
     this.sourceContext = sourceContext;
-    this.locations = new CopyOnWriteArrayList<>();
   }
 
   public static boolean isThreadPropagationDebuggerEnabled() {
@@ -57,14 +114,18 @@ public final class ContextPropagationDebug {
   }
 
   public static Context addDebugInfo(Context context, Object carrier) {
-    if (ContextPropagationDebug.isThreadPropagationDebuggerEnabled()) {
+    if (ContextPropagationDebug.isThreadPropagationDebuggerEnabled() && shouldSample()) {
       context =
           ContextPropagationDebug.appendLocations(
-              context, new Exception().getStackTrace(), carrier);
+              context, StackCapture.capture(SKIPPED_FRAMES, MAX_FRAMES), carrier);
     }
     return context;
   }
 
+  private static boolean shouldSample() {
+    return SAMPLING_RATIO >= 1 || ThreadLocalRandom.current().nextDouble() < SAMPLING_RATIO;
+  }
+
   public static Context appendLocations(
       Context context, StackTraceElement[] locations, Object carrier) {
     ContextPropagationDebug propagationDebug = ContextPropagationDebug.getPropagations(context);
@@ -73,7 +134,9 @@ public final class ContextPropagationDebug {
       context = context.with(THREAD_PROPAGATION_LOCATIONS, propagationDebug);
       propagationDebug.wrappedContext = context;
     }
-    propagationDebug.locations.add(0, new Propagation(carrier.getClass().getName(), locations));
+    CallSite callSite = callSite(locations);
+    callSite.propagations.increment();
+    propagationDebug.add(new Propagation(carrier.getClass().getName(), locations, callSite));
     return context;
   }
 
@@ -82,15 +145,25 @@ public final class ContextPropagationDebug {
       return;
     }
 
-    Context current = Context.current();
+    debugContextLeak(Context.current());
+  }
+
+  // visible for testing
+  static void debugContextLeak(Context current) {
     if (current != Context.root()) {
+      ContextPropagationDebug propagationDebug = getPropagations(current);
+      Propagation lastPropagation = propagationDebug != null ? propagationDebug.newest() : null;
+      CallSite callSite = lastPropagation != null ? lastPropagation.callSite : unknownCallSite;
+      callSite.leaks.increment();
+
       logger.warning("Unexpected non-root current context found when extracting remote context!");
       Span currentSpan = Span.fromContextOrNull(current);
       if (currentSpan != null) {
         logger.log(WARNING, "It contains this span: {0}", currentSpan);
       }
 
-      debugContextPropagation(current);
+      // only the sampled propagations have a stack to report
+      debugContextPropagation(propagationDebug);
 
       if (FAIL_ON_CONTEXT_LEAK) {
         throw new IllegalStateException("Context leak detected");
@@ -112,25 +185,151 @@ public final class ContextPropagationDebug {
     return propagationDebug.wrappedContext == context ? propagationDebug.sourceContext : context;
   }
 
+  /**
+   * Registers counters reporting the recorded context propagations and the context leaks found on
+   * them as {@code otel.javaagent.context_propagation.*} metrics by call site. Call this once per
+   * {@link OpenTelemetry} instance, and close the returned instruments to stop reporting.
+   */
+  public static List<AutoCloseable> registerMetrics(OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter(INSTRUMENTATION_NAME);
+    List<AutoCloseable> observables = new ArrayList<>();
+    observables.add(
+        meter
+            .counterBuilder("otel.javaagent.context_propagation.recorded")
+            .setUnit("{propagation}")
+            .setDescription(
+                "The number of context propagations to another thread recorded by the thread"
+                    + " propagation debugger.")
+            .buildWithCallback(
+                measurement -> recordCallSites(measurement, callSite -> callSite.propagations)));
+    observables.add(
+        meter
+            .counterBuilder("otel.javaagent.context_propagation.leaks")
+            .setUnit("{leak}")
+            .setDescription(
+                "The number of leaked contexts found by the thread propagation debugger, by the"
+                    + " call site that last propagated them.")
+            .buildWithCallback(
+                measurement -> recordCallSites(measurement, callSite -> callSite.leaks)));
+    return observables;
+  }
+
+  private static void recordCallSites(
+      ObservableLongMeasurement measurement, Function<CallSite, LongAdder> counter) {
+    callSites.forEach((name, callSite) -> record(measurement, callSite, counter));
+    record(measurement, otherCallSite, counter);
+    record(measurement, unknownCallSite, counter);
+  }
+
+  private static void record(
+      ObservableLongMeasurement measurement,
+      CallSite callSite,
+      Function<CallSite, LongAdder> counter) {
+    long value = counter.apply(callSite).sum();
+    if (value > 0) {
+      measurement.record(value, Attributes.of(CALL_SITE_KEY, callSite.name));
+    }
+  }
+
+  // visible for testing
+  @Nullable
+  static CallSite getCallSite(String name) {
+    if (OTHER_CALL_SITE.equals(name)) {
+      return otherCallSite;
+    }
+    if (UNKNOWN_CALL_SITE.equals(name)) {
+      return unknownCallSite;
+    }
+    return callSites.get(name);
+  }
+
+  // visible for testing
+  static int getLocationCount(Context context) {
+    ContextPropagationDebug propagationDebug = getPropagations(context);
+    return propagationDebug != null ? propagationDebug.snapshot().size() : 0;
+  }
+
+  private static CallSite callSite(StackTraceElement[] locations) {
+    String name = callSiteName(locations);
+    if (name == null) {
+      return otherCallSite;
+    }
+    CallSite callSite = callSites.get(name);
+    if (callSite == null) {
+      if (callSites.size() >= MAX_CALL_SITES) {
+        return otherCallSite;
+      }
+      callSite = callSites.computeIfAbsent(name, CallSite::new);
+    }
+    return callSite;
+  }
+
+  /**
+   * Returns the first frame outside of the agent and the JDK, that's where the context was handed
+   * over to the carrier.
+   */
+  // visible for testing
+  @Nullable
+  static String callSiteName(StackTraceElement[] locations) {
+    for (StackTraceElement location : locations) {
+      String className = location.getClassName();
+      if (!className.startsWith("io.opentelemetry.javaagent.")
+          && !className.startsWith("io.opentelemetry.instrumentation.")
+          && !className.startsWith("java.")
+          && !className.startsWith("jdk.")
+          && !className.startsWith("sun.")) {
+        return callSiteName(location);
+      }
+    }
+    // all captured frames are framework frames, use the closest one
+    return locations.length > 0 ? callSiteName(locations[0]) : null;
+  }
+
+  private static String callSiteName(StackTraceElement location) {
+    return location.getClassName()
+        + "."
+        + location.getMethodName()
+        + ":"
+        + location.getLineNumber();
+  }
+
   @Nullable
   private static ContextPropagationDebug getPropagations(Context context) {
     return context.get(THREAD_PROPAGATION_LOCATIONS);
   }
 
-  private static void debugContextPropagation(Context context) {
-    ContextPropagationDebug propagationDebug = getPropagations(context);
+  private synchronized void add(Propagation propagation) {
+    locations[next & (MAX_LOCATIONS - 1)] = propagation;
+    next++;
+  }
+
+  @Nullable
+  private synchronized Propagation newest() {
+    return next == 0 ? null : locations[(next - 1) & (MAX_LOCATIONS - 1)];
+  }
+
+  // newest first
+  private synchronized List<Propagation> snapshot() {
+    int size = Math.min(next, MAX_LOCATIONS);
+    List<Propagation> result = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      result.add(locations[(next - i) & (MAX_LOCATIONS - 1)]);
+    }
+    return result;
+  }
+
+  private static void debugContextPropagation(@Nullable ContextPropagationDebug propagationDebug) {
     if (propagationDebug != null) {
-      List<Propagation> propagations = propagationDebug.locations;
+      List<Propagation> propagations = propagationDebug.snapshot();
       StringBuilder sb = new StringBuilder();
-      Iterator<Propagation> i = propagations.iterator();
-      while (i.hasNext()) {
-        Propagation entry = i.next();
+      for (int i = 0; i < propagations.size(); i++) {
+        Propagation entry = propagations.get(i);
         sb.append("\ncarrier of type: ").append(entry.carrierClassName);
         for (StackTraceElement ste : entry.location) {
           sb.append("\n    ");
           sb.append(ste);
         }
-        if (i.hasNext()) {
+        if (i < propagations.size() - 1) {
           sb.append("\nwhich was propagated from:");
         }
       }
@@ -141,10 +340,108 @@ public final class ContextPropagationDebug {
   private static class Propagation {
     public final String carrierClassName;
     public final StackTraceElement[] location;
+    public final CallSite callSite;
 
-    public Propagation(String carrierClassName, StackTraceElement[] location) {
+    public Propagation(String carrierClassName, StackTraceElement[] location, CallSite callSite) {
       this.carrierClassName = carrierClassName;
       this.location = location;
+      this.callSite = callSite;
+    }
+  }
+
+  // visible for testing
+  static final class CallSite {
+    final String name;
+    final LongAdder propagations = new LongAdder();
+    final LongAdder leaks = new LongAdder();
+
+    CallSite(String name) {
+      this.name = name;
     }
   }
+
+  /**
+   * Captures the current stack. On Java 9+ {@code StackWalker} is used, so that only the frames
+   * that are kept are turned into {@link StackTraceElement}s.
+   */
+  // visible for testing
+  static final class StackCapture {
+    @Nullable private static final MethodHandle walk = walkHandle();
+    @Nullable private static final MethodHandle toStackTraceElement = toStackTraceElementHandle();
+
+    @Nullable
+    private static MethodHandle walkHandle() {
+      try {
+        Class<?> stackWalkerClass = Class.forName("java.lang.StackWalker");
+        // walk() is caller sensitive, it can not be looked up with the public lookup
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Object stackWalker =
+            lookup
+                .findStatic(
+                    stackWalkerClass, "getInstance", MethodType.methodType(stackWalkerClass))
+                .invoke();
+        return lookup
+            .findVirtual(
+                stackWalkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+            .bindTo(stackWalker);
+      } catch (Throwable t) {
+        // not available before Java 9
+        logger.log(FINE, "StackWalker is not available", t);
+        return null;
+      }
+    }
+
+    @Nullable
+    private static MethodHandle toStackTraceElementHandle() {
+      try {
+        Class<?> stackFrameClass = Class.forName("java.lang.StackWalker$StackFrame");
+        return MethodHandles.lookup()
+            .findVirtual(
+                stackFrameClass,
+                "toStackTraceElement",
+                MethodType.methodType(StackTraceElement.class))
+            .asType(MethodType.methodType(StackTraceElement.class, Object.class));
+      } catch (Throwable t) {
+        return null;
+      }
+    }
+
+    /**
+     * Returns at most {@code maxFrames} frames of the stack of the caller, skipping the given
+     * number of frames of the caller itself.
+     */
+    static StackTraceElement[] capture(int skip, int maxFrames) {
+      // skip this method too
+      int skipped = skip + 1;
+      if (walk != null && toStackTraceElement != null) {
+        try {
+          return (StackTraceElement[])
+              walk.invoke(
+                  (Function<Stream<Object>, StackTraceElement[]>)
+                      frames ->
+                          frames
+                              .skip(skipped)
+                              .limit(maxFrames)
+                              .map(StackCapture::toStackTraceElement)
+                              .toArray(StackTraceElement[]::new));
+        } catch (Throwable t) {
+          // fall back to the stack trace of an exception
+        }
+      }
+      StackTraceElement[] stackTrace = new Exception().getStackTrace();
+      int from = Math.min(skipped, stackTrace.length);
+      int to = (int) Math.min((long) from + maxFrames, stackTrace.length);
+      return Arrays.copyOfRange(stackTrace, from, to);
+    }
+
+    private static StackTraceElement toStackTraceElement(Object frame) {
+      try {
+        return (StackTraceElement) toStackTraceElement.invokeExact(frame);
+      } catch (Throwable t) {
+        throw new IllegalStateException(t);
+      }
+    }
+
+    private StackCapture() {}
+  }
 }
@@ -5,11 +5,13 @@
 
 package io.opentelemetry.instrumentation.api.internal;
 
+import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapSetter;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanKindExtractor;
+import java.util.function.BiFunction;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
@@ -22,6 +24,11 @@ public interface InstrumenterBuilderAccess {
       TextMapGetter<REQUEST> getter,
       SpanKindExtractor<REQUEST> spanKindExtractor);
 
+  <REQUEST, RESPONSE> Instrumenter<REQUEST, RESPONSE> buildUpstreamInstrumenter(
+      InstrumenterBuilder<REQUEST, RESPONSE> builder,
+      BiFunction<Context, REQUEST, Context> contextExtractor,
+      SpanKindExtractor<REQUEST> spanKindExtractor);
+
   <REQUEST, RESPONSE> Instrumenter<REQUEST, RESPONSE> buildDownstreamInstrumenter(
       InstrumenterBuilder<REQUEST, RESPONSE> builder,
       TextMapSetter<REQUEST> setter,
@@ -13,6 +13,7 @@ import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanKindExtractor;
 import java.time.Instant;
+import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 
 /**
@@ -59,6 +60,20 @@ public final class InstrumenterUtil {
     return instrumenterBuilderAccess.buildUpstreamInstrumenter(builder, getter, spanKindExtractor);
   }
 
+  /**
+   * Builds an instrumenter that extracts the parent context of requests with the passed function
+   * instead of the propagator of the {@link io.opentelemetry.api.OpenTelemetry} instance, e.g. to
+   * read the propagation fields of a request without converting them to strings first.
+   */
+  public static <REQUEST, RESPONSE> Instrumenter<REQUEST, RESPONSE> buildUpstreamInstrumenter(
+      InstrumenterBuilder<REQUEST, RESPONSE> builder,
+      BiFunction<Context, REQUEST, Context> contextExtractor,
+      SpanKindExtractor<REQUEST> spanKindExtractor) {
+    // instrumenterBuilderAccess is guaranteed to be non-null here
+    return instrumenterBuilderAccess.buildUpstreamInstrumenter(
+        builder, contextExtractor, spanKindExtractor);
+  }
+
   public static <REQUEST, RESPONSE> Instrumenter<REQUEST, RESPONSE> buildDownstreamInstrumenter(
       InstrumenterBuilder<REQUEST, RESPONSE> builder,
       TextMapSetter<REQUEST> setter,
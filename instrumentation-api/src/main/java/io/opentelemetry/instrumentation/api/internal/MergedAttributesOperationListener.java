@@ -0,0 +1,39 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
+
+/**
+ * An {@link OperationListener} that only needs the start and end attributes merged together when
+ * the operation ends, e.g. to record a duration metric.
+ *
+ * <p>When called by the {@link Instrumenter}, neither {@link OperationListener#onStart(Context,
+ * Attributes, long)} nor {@link OperationListener#onEnd(Context, Attributes, long)} are invoked on
+ * listeners implementing this interface. Instead, the {@link Instrumenter} keeps the start
+ * attributes and start timestamp in the context once for all such listeners, and at the end of the
+ * operation calls {@link #onEnd(Context, Attributes, long, long)} with a single immutable merged
+ * attributes instance that is shared by all of them. Implementations must still support the plain
+ * {@link OperationListener} methods for callers that invoke them directly.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface MergedAttributesOperationListener extends OperationListener {
+
+  /**
+   * Listener method that is called at the end of an instrumented operation.
+   *
+   * @param attributes The start attributes with the end attributes put on top of them. The same
+   *     instance is passed to all the listeners of the operation.
+   * @param startNanos The nanosecond timestamp marking the start of the operation.
+   * @param endNanos The nanosecond timestamp marking the end of the operation.
+   */
+  void onEnd(Context context, Attributes attributes, long startNanos, long endNanos);
+}
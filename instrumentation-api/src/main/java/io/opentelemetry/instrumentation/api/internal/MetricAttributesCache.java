@@ -0,0 +1,152 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded cache of canonical {@link Attributes} instances for metric instruments whose attributes
+ * are restricted to a small, low cardinality set of keys (the attributes advice of the instrument).
+ * Looking up the canonical instance only reads and compares the values of those keys, so in the
+ * steady state a lookup allocates nothing, and the SDK always sees the same instance (with its
+ * memoized hash code) for the same time series.
+ *
+ * <p>The cache is disabled by default, because it drops all attributes not in the advice before the
+ * SDK sees them, which defeats views that select additional attributes. It is enabled by setting
+ * {@code otel.instrumentation.experimental.metrics-attributes-cache-size} to the maximum number of
+ * distinct attribute combinations to cache per instrument. Once that many combinations have been
+ * seen, the attributes of new combinations are passed through unchanged and filtered by the SDK as
+ * usual.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class MetricAttributesCache {
+
+  private static final int MAX_SIZE =
+      ConfigPropertiesUtil.getInt(
+          "otel.instrumentation.experimental.metrics-attributes-cache-size", 0);
+  // keeps the table size within the int range
+  private static final int MAX_SIZE_LIMIT = 1 << 20;
+
+  /** Returns a new {@link MetricAttributesCache} for the given advice keys. */
+  public static MetricAttributesCache create(List<AttributeKey<?>> keys) {
+    return create(keys, MAX_SIZE);
+  }
+
+  // visible for testing
+  static MetricAttributesCache create(List<AttributeKey<?>> keys, int maxSize) {
+    return new MetricAttributesCache(keys, Math.min(Math.max(0, maxSize), MAX_SIZE_LIMIT));
+  }
+
+  private final AttributeKey<?>[] keys;
+  private final int maxSize;
+  // open addressing with linear probing, entries are never removed; the table is at least twice as
+  // large as maxSize so that a free slot is always found
+  private final AtomicReferenceArray<Entry> table;
+  private final AtomicInteger size = new AtomicInteger();
+
+  private MetricAttributesCache(List<AttributeKey<?>> keys, int maxSize) {
+    this.keys = keys.toArray(new AttributeKey<?>[0]);
+    this.maxSize = maxSize;
+    this.table =
+        new AtomicReferenceArray<>(maxSize == 0 ? 0 : Integer.highestOneBit(maxSize * 4 - 1));
+  }
+
+  /**
+   * Returns the canonical instance holding the advice attributes of {@code attributes}, or {@code
+   * attributes} itself if the cache is disabled or full.
+   */
+  public Attributes get(Attributes attributes) {
+    if (maxSize == 0) {
+      return attributes;
+    }
+    int hash = 1;
+    for (AttributeKey<?> key : keys) {
+      Object value = attributes.get(key);
+      hash = 31 * hash + (value == null ? 0 : value.hashCode());
+    }
+    // spread the high bits, the table is indexed by the low ones
+    hash ^= hash >>> 16;
+
+    int mask = table.length() - 1;
+    int index = hash & mask;
+    // the probing is bounded, concurrent inserts may overshoot maxSize and fill the table
+    for (int probes = 0; probes < table.length(); probes++) {
+      Entry entry = table.get(index);
+      if (entry == null) {
+        return insert(index, hash, attributes);
+      }
+      if (entry.hash == hash && entry.matches(attributes)) {
+        return entry.attributes;
+      }
+      index = (index + 1) & mask;
+    }
+    return attributes;
+  }
+
+  private Attributes insert(int index, int hash, Attributes attributes) {
+    if (size.get() >= maxSize) {
+      return attributes;
+    }
+    // only a combination that is not cached yet allocates
+    Object[] values = new Object[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      values[i] = attributes.get(keys[i]);
+    }
+    Entry newEntry = new Entry(hash, values);
+    int mask = table.length() - 1;
+    for (int probes = 0; probes < table.length(); probes++) {
+      if (table.compareAndSet(index, null, newEntry)) {
+        size.incrementAndGet();
+        return newEntry.attributes;
+      }
+      Entry entry = table.get(index);
+      if (entry.hash == hash && Arrays.equals(entry.values, values)) {
+        // another thread inserted the same combination
+        return entry.attributes;
+      }
+      index = (index + 1) & mask;
+    }
+    return attributes;
+  }
+
+  private final class Entry {
+
+    private final int hash;
+    private final Object[] values;
+    private final Attributes attributes;
+
+    @SuppressWarnings("unchecked")
+    private Entry(int hash, Object[] values) {
+      this.hash = hash;
+      this.values = values;
+      AttributesBuilder builder = Attributes.builder();
+      for (int i = 0; i < keys.length; i++) {
+        if (values[i] != null) {
+          builder.put((AttributeKey<Object>) keys[i], values[i]);
+        }
+      }
+      this.attributes = builder.build();
+    }
+
+    private boolean matches(Attributes attributes) {
+      for (int i = 0; i < keys.length; i++) {
+        Object value = attributes.get(keys[i]);
+        if (value == null ? values[i] != null : !value.equals(values[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
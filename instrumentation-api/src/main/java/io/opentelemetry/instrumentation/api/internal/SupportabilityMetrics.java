@@ -5,28 +5,57 @@
 
 package io.opentelemetry.instrumentation.api.internal;
 
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.trace.SpanKind;
 import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
- * This class is internal and is hence not for public use. Its APIs are unstable and can change at
- * any time.
+ * Agent-internal counters.
+ *
+ * <p>The counters are always recorded. They are {@link LongAdder}s resolved once, when this class
+ * is initialized for the well-known {@link Counter}s and when an {@code Instrumenter} is built for
+ * its suppressed spans, so that incrementing them neither looks anything up nor contends between
+ * threads. They are logged every 5 seconds when {@code otel.javaagent.debug} is enabled, and can be
+ * exported as metrics with {@link #registerMetrics(OpenTelemetry)}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
  */
 public final class SupportabilityMetrics {
   private static final Logger logger = Logger.getLogger(SupportabilityMetrics.class.getName());
+  private static final String INSTRUMENTATION_NAME = "io.opentelemetry.javaagent";
+  private static final AttributeKey<String> INSTRUMENTATION_NAME_KEY =
+      AttributeKey.stringKey("instrumentation.name");
+  private static final AttributeKey<String> SPAN_KIND_KEY = AttributeKey.stringKey("span.kind");
+  private static final Map<String, Counter> countersByName = new HashMap<>();
+
+  static {
+    for (Counter counter : Counter.values()) {
+      countersByName.put(counter.name, counter);
+    }
+  }
+
   private final boolean agentDebugEnabled;
   private final Consumer<String> reporter;
 
+  private final ReportedCounter[] counters = new ReportedCounter[Counter.values().length];
+  private final ConcurrentMap<String, ReportedCounter> otherCounters = new ConcurrentHashMap<>();
   private final ConcurrentMap<String, KindCounters> suppressionCounters = new ConcurrentHashMap<>();
-  private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
 
   private static final SupportabilityMetrics INSTANCE =
       new SupportabilityMetrics(
@@ -41,45 +70,110 @@ public final class SupportabilityMetrics {
   SupportabilityMetrics(boolean agentDebugEnabled, Consumer<String> reporter) {
     this.agentDebugEnabled = agentDebugEnabled;
     this.reporter = reporter;
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = new ReportedCounter();
+    }
+  }
+
+  /**
+   * Returns the counters of the spans suppressed by the given instrumentation. Callers are expected
+   * to keep the returned instance instead of looking it up for every span.
+   */
+  public SuppressedSpanCounter suppressedSpanCounter(String instrumentationName) {
+    return suppressionCounters.computeIfAbsent(instrumentationName, s -> new KindCounters());
   }
 
   public void recordSuppressedSpan(SpanKind kind, String instrumentationName) {
-    if (!agentDebugEnabled) {
-      return;
-    }
+    suppressedSpanCounter(instrumentationName).increment(kind);
+  }
 
-    suppressionCounters
-        .computeIfAbsent(instrumentationName, s -> new KindCounters())
-        .increment(kind);
+  public void increment(Counter counter) {
+    counters[counter.ordinal()].adder.increment();
   }
 
   public void incrementCounter(String counterName) {
-    if (!agentDebugEnabled) {
+    Counter counter = countersByName.get(counterName);
+    if (counter != null) {
+      increment(counter);
       return;
     }
+    otherCounters.computeIfAbsent(counterName, k -> new ReportedCounter()).adder.increment();
+  }
 
-    counters.computeIfAbsent(counterName, k -> new AtomicLong()).incrementAndGet();
+  /** Returns the current value of the counter. */
+  public long get(Counter counter) {
+    return counters[counter.ordinal()].adder.sum();
   }
 
   // visible for testing
   void report() {
+    if (!agentDebugEnabled) {
+      return;
+    }
     suppressionCounters.forEach(
         (instrumentationName, countsByKind) -> {
           for (SpanKind kind : SpanKind.values()) {
-            long value = countsByKind.getAndReset(kind);
+            long value = countsByKind.counters[kind.ordinal()].getAndMarkReported();
             if (value > 0) {
               reporter.accept(
                   "Suppressed Spans by '" + instrumentationName + "' (" + kind + ") : " + value);
             }
           }
         });
-    counters.forEach(
-        (counterName, counter) -> {
-          long value = counter.getAndSet(0);
-          if (value > 0) {
-            reporter.accept("Counter '" + counterName + "' : " + value);
-          }
-        });
+    for (Counter counter : Counter.values()) {
+      report(counter.name, counters[counter.ordinal()]);
+    }
+    otherCounters.forEach(this::report);
+  }
+
+  private void report(String counterName, ReportedCounter counter) {
+    long value = counter.getAndMarkReported();
+    if (value > 0) {
+      reporter.accept("Counter '" + counterName + "' : " + value);
+    }
+  }
+
+  /**
+   * Registers observable counters that report the {@link Counter}s as {@code otel.javaagent.*}
+   * metrics, and the suppressed spans as {@code otel.javaagent.suppressed_spans} by instrumentation
+   * name and span kind.
+   */
+  public List<AutoCloseable> registerMetrics(OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter(INSTRUMENTATION_NAME);
+    List<AutoCloseable> observables = new ArrayList<>();
+    for (Counter counter : Counter.values()) {
+      LongAdder adder = counters[counter.ordinal()].adder;
+      observables.add(
+          meter
+              .counterBuilder(counter.metricName)
+              .setUnit(counter.unit)
+              .setDescription(counter.description)
+              .buildWithCallback(measurement -> measurement.record(adder.sum())));
+    }
+    observables.add(
+        meter
+            .counterBuilder("otel.javaagent.suppressed_spans")
+            .setUnit("{span}")
+            .setDescription(
+                "The number of spans that were not started because they were suppressed.")
+            .buildWithCallback(
+                measurement ->
+                    suppressionCounters.forEach(
+                        (instrumentationName, countsByKind) -> {
+                          for (SpanKind kind : SpanKind.values()) {
+                            long value = countsByKind.counters[kind.ordinal()].adder.sum();
+                            if (value > 0) {
+                              measurement.record(
+                                  value,
+                                  Attributes.of(
+                                      INSTRUMENTATION_NAME_KEY,
+                                      instrumentationName,
+                                      SPAN_KIND_KEY,
+                                      kind.name()));
+                            }
+                          }
+                        })));
+    return observables;
   }
 
   // this private method is designed for assignment of the return value
@@ -117,6 +211,59 @@ public final class SupportabilityMetrics {
     return java.security.AccessController.doPrivileged(action);
   }
 
+  /**
+   * The well-known agent-internal counters.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public enum Counter {
+    SQL_STATEMENT_SANITIZER_CACHE_HIT(
+        "SqlStatementSanitizer cache hit",
+        "otel.javaagent.sql_sanitizer.cache.hits",
+        "{statement}",
+        "The number of SQL statements whose sanitized form was found in the cache."),
+    SQL_STATEMENT_SANITIZER_CACHE_MISS(
+        CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS,
+        "otel.javaagent.sql_sanitizer.cache.misses",
+        "{statement}",
+        "The number of SQL statements that were sanitized because they were not cached."),
+    SQL_STATEMENT_SANITIZER_CACHE_EVICTION(
+        "SqlStatementSanitizer cache eviction",
+        "otel.javaagent.sql_sanitizer.cache.evictions",
+        "{statement}",
+        "The number of sanitized SQL statements evicted from the cache."),
+    MUZZLE_FAILURE(
+        "Muzzle failure",
+        "otel.javaagent.muzzle.failures",
+        "{instrumentation}",
+        "The number of instrumentations not applied to a class loader because of a muzzle"
+            + " mismatch."),
+    HELPER_INJECTION(
+        "Helper injection",
+        "otel.javaagent.helper.injections",
+        "{injection}",
+        "The number of times helper classes were injected into a class loader."),
+    VIRTUAL_FIELD_FALLBACK(
+        "VirtualField fallback",
+        "otel.javaagent.virtual_field.fallbacks",
+        "{value}",
+        "The number of virtual field values stored in a map because the field could not be added"
+            + " to the class.");
+
+    private final String name;
+    private final String metricName;
+    private final String unit;
+    private final String description;
+
+    Counter(String name, String metricName, String unit, String description) {
+      this.name = name;
+      this.metricName = metricName;
+      this.unit = unit;
+      this.description = description;
+    }
+  }
+
   /**
    * This class is internal and is hence not for public use. Its APIs are unstable and can change at
    * any time.
@@ -128,48 +275,40 @@ public final class SupportabilityMetrics {
     private CounterNames() {}
   }
 
-  // this class is threadsafe.
-  private static class KindCounters {
-    private final AtomicLong server = new AtomicLong();
-    private final AtomicLong client = new AtomicLong();
-    private final AtomicLong internal = new AtomicLong();
-    private final AtomicLong consumer = new AtomicLong();
-    private final AtomicLong producer = new AtomicLong();
-
-    void increment(SpanKind kind) {
-      switch (kind) {
-        case INTERNAL:
-          internal.incrementAndGet();
-          break;
-        case SERVER:
-          server.incrementAndGet();
-          break;
-        case CLIENT:
-          client.incrementAndGet();
-          break;
-        case PRODUCER:
-          producer.incrementAndGet();
-          break;
-        case CONSUMER:
-          consumer.incrementAndGet();
-          break;
-      }
+  /**
+   * This class is internal and is hence not for public use. Its APIs are unstable and can change at
+   * any time.
+   */
+  public interface SuppressedSpanCounter {
+    void increment(SpanKind kind);
+  }
+
+  private static final class ReportedCounter {
+    final LongAdder adder = new LongAdder();
+    // only accessed by the reporting thread
+    private long reported;
+
+    long getAndMarkReported() {
+      long sum = adder.sum();
+      long value = sum - reported;
+      reported = sum;
+      return value;
     }
+  }
 
-    long getAndReset(SpanKind kind) {
-      switch (kind) {
-        case INTERNAL:
-          return internal.getAndSet(0);
-        case SERVER:
-          return server.getAndSet(0);
-        case CLIENT:
-          return client.getAndSet(0);
-        case PRODUCER:
-          return producer.getAndSet(0);
-        case CONSUMER:
-          return consumer.getAndSet(0);
+  private static final class KindCounters implements SuppressedSpanCounter {
+    // indexed by SpanKind ordinal
+    final ReportedCounter[] counters = new ReportedCounter[SpanKind.values().length];
+
+    KindCounters() {
+      for (int i = 0; i < counters.length; i++) {
+        counters[i] = new ReportedCounter();
       }
-      return 0;
+    }
+
+    @Override
+    public void increment(SpanKind kind) {
+      counters[kind.ordinal()].adder.increment();
     }
   }
 }
@@ -17,6 +17,8 @@ import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
+import io.opentelemetry.instrumentation.api.internal.MetricAttributesCache;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -28,7 +30,7 @@ import java.util.logging.Logger;
  *
  * @since 2.0.0
  */
-public final class HttpServerMetrics implements OperationListener {
+public final class HttpServerMetrics implements MergedAttributesOperationListener {
 
   private static final double NANOS_PER_S = TimeUnit.SECONDS.toNanos(1);
 
@@ -48,6 +50,8 @@ public final class HttpServerMetrics implements OperationListener {
   }
 
   private final DoubleHistogram duration;
+  private final MetricAttributesCache durationAttributesCache =
+      MetricAttributesCache.create(HttpMetricsAdvice.SERVER_DURATION_ATTRIBUTES);
 
   private HttpServerMetrics(Meter meter) {
     DoubleHistogramBuilder stableDurationBuilder =
@@ -80,7 +84,13 @@ public final class HttpServerMetrics implements OperationListener {
 
     Attributes attributes = state.startAttributes().toBuilder().putAll(endAttributes).build();
 
-    duration.record((endNanos - state.startTimeNanos()) / NANOS_PER_S, attributes, context);
+    onEnd(context, attributes, state.startTimeNanos(), endNanos);
+  }
+
+  @Override
+  public void onEnd(Context context, Attributes attributes, long startNanos, long endNanos) {
+    duration.record(
+        (endNanos - startNanos) / NANOS_PER_S, durationAttributesCache.get(attributes), context);
   }
 
   @AutoValue
@@ -25,6 +25,8 @@ import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.instrumentation.api.internal.InstrumenterUtil;
+import io.opentelemetry.instrumentation.api.internal.MergedAttributesOperationListener;
 import io.opentelemetry.instrumentation.api.internal.SchemaUrlProvider;
 import io.opentelemetry.instrumentation.api.internal.SpanKey;
 import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
@@ -32,9 +34,13 @@ import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
 import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
 import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.data.StatusData;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -415,6 +421,60 @@ class InstrumenterTest {
                             .hasParentSpanId("090a0b0c0d0e0f00")));
   }
 
+  @Test
+  void upstream_customContextExtractor() {
+    SpanContext remoteContext =
+        SpanContext.createFromRemoteParent(
+            "ff01020304050600ff0a0b0c0d0e0f00",
+            "090a0b0c0d0e0f00",
+            TraceFlags.getSampled(),
+            TraceState.getDefault());
+    AttributeKey<String> parentSpanId = AttributeKey.stringKey("parent.span.id");
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        InstrumenterUtil.buildUpstreamInstrumenter(
+            Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                    otelTesting.getOpenTelemetry(), "test", unused -> "span")
+                .addAttributesExtractor(
+                    new AttributesExtractor<Map<String, String>, Map<String, String>>() {
+                      @Override
+                      public void onStart(
+                          AttributesBuilder attributes,
+                          Context parentContext,
+                          Map<String, String> request) {
+                        // the extracted context is the parent of the attribute extractors too
+                        attributes.put(
+                            parentSpanId,
+                            Span.fromContext(parentContext).getSpanContext().getSpanId());
+                      }
+
+                      @Override
+                      public void onEnd(
+                          AttributesBuilder attributes,
+                          Context context,
+                          Map<String, String> request,
+                          @Nullable Map<String, String> response,
+                          @Nullable Throwable error) {}
+                    }),
+            (parentContext, request) -> parentContext.with(Span.wrap(remoteContext)),
+            SpanKindExtractor.alwaysConsumer());
+
+    Context context = instrumenter.start(Context.root(), emptyMap());
+    instrumenter.end(context, emptyMap(), emptyMap(), null);
+
+    otelTesting
+        .assertTraces()
+        .hasTracesSatisfyingExactly(
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasKind(SpanKind.CONSUMER)
+                            .hasTraceId("ff01020304050600ff0a0b0c0d0e0f00")
+                            .hasParentSpanId("090a0b0c0d0e0f00")
+                            .hasAttributesSatisfyingExactly(
+                                equalTo(parentSpanId, "090a0b0c0d0e0f00"))));
+  }
+
   @Test
   void downstream_customSpanKind() {
     Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
@@ -503,6 +563,62 @@ class InstrumenterTest {
     assertThat(Span.fromContext(endContext.get()).getSpanContext().isValid()).isTrue();
   }
 
+  @Test
+  void mergedAttributesOperationListeners() {
+    AtomicReference<Boolean> startCalled = new AtomicReference<>(false);
+    List<Attributes> endAttributes = new ArrayList<>();
+
+    MergedAttributesOperationListener operationListener =
+        new MergedAttributesOperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes startAttributes, long startNanos) {
+            startCalled.set(true);
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes endAttributes, long endNanos) {
+            throw new AssertionError("should not be called");
+          }
+
+          @Override
+          public void onEnd(
+              Context context, Attributes attributes, long startNanos, long endNanos) {
+            assertThat(startNanos).isEqualTo(TimeUnit.SECONDS.toNanos(100));
+            assertThat(endNanos).isEqualTo(TimeUnit.SECONDS.toNanos(150));
+            endAttributes.add(attributes);
+          }
+        };
+
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(new AttributesExtractor1())
+            .addOperationListener(operationListener)
+            .addOperationListener(operationListener)
+            .buildInstrumenter();
+
+    InstrumenterUtil.startAndEnd(
+        instrumenter,
+        Context.root(),
+        REQUEST,
+        RESPONSE,
+        null,
+        Instant.ofEpochSecond(100),
+        Instant.ofEpochSecond(150));
+
+    assertThat(startCalled.get()).isFalse();
+    assertThat(endAttributes).hasSize(2);
+    // the merged attributes are built once and shared by all listeners
+    assertThat(endAttributes.get(1)).isSameAs(endAttributes.get(0));
+    assertThat(endAttributes.get(0))
+        .containsOnly(
+            entry(AttributeKey.stringKey("req1"), "req1_value"),
+            entry(AttributeKey.stringKey("req2"), "req2_value"),
+            entry(AttributeKey.stringKey("resp1"), "resp1_value"),
+            entry(AttributeKey.stringKey("resp2"), "resp2_value"));
+  }
+
   @Test
   void shouldNotAddInvalidLink() {
     // given
@@ -83,4 +83,39 @@ class UnsafeAttributesTest {
             attributeEntry("lives", 9L),
             attributeEntry("clothes", "fur"));
   }
+
+  @Test
+  void growBeyondExpectedSize() {
+    UnsafeAttributes attributes = new UnsafeAttributes(2);
+    for (int i = 0; i < 100; i++) {
+      attributes.put(AttributeKey.longKey("key" + i), (long) i);
+    }
+    // Overwrites
+    attributes.put(AttributeKey.longKey("key0"), 42L);
+    // Ignored
+    attributes.put(AttributeKey.stringKey("key1"), null);
+
+    assertThat(attributes.size()).isEqualTo(100);
+    assertThat(attributes.get(AttributeKey.longKey("key0"))).isEqualTo(42L);
+    for (int i = 1; i < 100; i++) {
+      assertThat(attributes.get(AttributeKey.longKey("key" + i))).isEqualTo(i);
+    }
+    assertThat(attributes.get(AttributeKey.stringKey("key1"))).isNull();
+    assertThat(attributes.asMap()).hasSize(100);
+  }
+
+  @Test
+  void remove() {
+    UnsafeAttributes attributes = new UnsafeAttributes();
+    attributes.put("animal", "cat");
+    attributes.put("lives", 9);
+    attributes.put("needs_catnip", true);
+
+    attributes.remove(AttributeKey.longKey("lives"));
+    attributes.remove(AttributeKey.stringKey("needs_catnip"));
+    attributes.removeIf(key -> key.getKey().equals("unknown"));
+
+    assertThat((Attributes) attributes)
+        .containsOnly(attributeEntry("animal", "cat"), attributeEntry("needs_catnip", true));
+  }
 }
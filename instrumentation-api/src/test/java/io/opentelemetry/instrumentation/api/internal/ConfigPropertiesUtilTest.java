@@ -55,6 +55,24 @@ class ConfigPropertiesUtilTest {
     assertThat(ConfigPropertiesUtil.getInt("test.property.int", -1)).isEqualTo(-1);
   }
 
+  @SetEnvironmentVariable(key = "TEST_PROPERTY_DOUBLE", value = "0.5")
+  @SetSystemProperty(key = "test.property.double", value = "0.25")
+  @Test
+  void getDouble_systemProperty() {
+    assertThat(ConfigPropertiesUtil.getDouble("test.property.double", -1)).isEqualTo(0.25);
+  }
+
+  @Test
+  void getDouble_none() {
+    assertThat(ConfigPropertiesUtil.getDouble("test.property.double", -1)).isEqualTo(-1);
+  }
+
+  @SetSystemProperty(key = "test.property.double", value = "not a number")
+  @Test
+  void getDouble_invalidNumber() {
+    assertThat(ConfigPropertiesUtil.getDouble("test.property.double", -1)).isEqualTo(-1);
+  }
+
   @SetEnvironmentVariable(key = "TEST_PROPERTY_BOOLEAN", value = "false")
   @SetSystemProperty(key = "test.property.boolean", value = "true")
   @Test
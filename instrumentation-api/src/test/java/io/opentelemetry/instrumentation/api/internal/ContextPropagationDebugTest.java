@@ -0,0 +1,88 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import org.junit.jupiter.api.Test;
+
+class ContextPropagationDebugTest {
+
+  @Test
+  void captureSkipsAndLimitsFrames() {
+    StackTraceElement[] frames = ContextPropagationDebug.StackCapture.capture(0, 2);
+
+    assertThat(frames).hasSize(2);
+    assertThat(frames[0].getClassName()).isEqualTo(ContextPropagationDebugTest.class.getName());
+    assertThat(frames[0].getMethodName()).isEqualTo("captureSkipsAndLimitsFrames");
+  }
+
+  @Test
+  void callSiteIsFirstApplicationFrame() {
+    StackTraceElement[] frames = {
+      new StackTraceElement(
+          "io.opentelemetry.javaagent.bootstrap.executors.ExecutorAdviceHelper",
+          "attachContextToTask",
+          null,
+          1),
+      new StackTraceElement("java.util.concurrent.ThreadPoolExecutor", "execute", null, 2),
+      new StackTraceElement("com.example.Service", "submitWork", null, 42),
+    };
+
+    assertThat(ContextPropagationDebug.callSiteName(frames))
+        .isEqualTo("com.example.Service.submitWork:42");
+    assertThat(ContextPropagationDebug.callSiteName(new StackTraceElement[] {frames[1]}))
+        .isEqualTo("java.util.concurrent.ThreadPoolExecutor.execute:2");
+    assertThat(ContextPropagationDebug.callSiteName(new StackTraceElement[0])).isNull();
+  }
+
+  @Test
+  void keepsMostRecentPropagations() {
+    StackTraceElement[] frames = {
+      new StackTraceElement("com.example.Recorder", "record", null, 7),
+    };
+
+    Context context = Context.root();
+    for (int i = 0; i < 100; i++) {
+      context = ContextPropagationDebug.appendLocations(context, frames, this);
+    }
+
+    assertThat(ContextPropagationDebug.getLocationCount(context)).isEqualTo(32);
+    ContextPropagationDebug.CallSite callSite =
+        ContextPropagationDebug.getCallSite("com.example.Recorder.record:7");
+    assertThat(callSite).isNotNull();
+    assertThat(callSite.propagations.sum()).isEqualTo(100);
+    assertThat(callSite.leaks.sum()).isZero();
+  }
+
+  @Test
+  void countsEveryLeak() {
+    StackTraceElement[] frames = {
+      new StackTraceElement("com.example.Leaker", "leak", null, 11),
+    };
+    Context leaked = Context.root().with(ContextKey.named("leaked"), "value");
+    ContextPropagationDebug.CallSite unknown = ContextPropagationDebug.getCallSite("unknown");
+    assertThat(unknown).isNotNull();
+    long unknownLeaks = unknown.leaks.sum();
+
+    // the propagation of this context was not sampled
+    ContextPropagationDebug.debugContextLeak(leaked);
+    assertThat(unknown.leaks.sum()).isEqualTo(unknownLeaks + 1);
+
+    ContextPropagationDebug.debugContextLeak(
+        ContextPropagationDebug.appendLocations(leaked, frames, this));
+    ContextPropagationDebug.CallSite callSite =
+        ContextPropagationDebug.getCallSite("com.example.Leaker.leak:11");
+    assertThat(callSite).isNotNull();
+    assertThat(callSite.leaks.sum()).isEqualTo(1);
+    assertThat(unknown.leaks.sum()).isEqualTo(unknownLeaks + 1);
+
+    ContextPropagationDebug.debugContextLeak(Context.root());
+    assertThat(unknown.leaks.sum()).isEqualTo(unknownLeaks + 1);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.attributeEntry;
+import static java.util.Arrays.asList;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class MetricAttributesCacheTest {
+
+  private static final AttributeKey<String> METHOD = stringKey("method");
+  private static final AttributeKey<Long> STATUS = longKey("status");
+  private static final AttributeKey<String> PATH = stringKey("path");
+
+  private static final List<AttributeKey<?>> KEYS = asList(METHOD, STATUS);
+
+  @Test
+  void disabled() {
+    MetricAttributesCache cache = MetricAttributesCache.create(KEYS, 0);
+
+    Attributes attributes = Attributes.of(METHOD, "GET", STATUS, 200L, PATH, "/a");
+    assertThat(cache.get(attributes)).isSameAs(attributes);
+  }
+
+  @Test
+  void canonicalInstances() {
+    MetricAttributesCache cache = MetricAttributesCache.create(KEYS, 10);
+
+    Attributes first = cache.get(Attributes.of(METHOD, "GET", STATUS, 200L, PATH, "/a"));
+    Attributes second = cache.get(Attributes.of(METHOD, "GET", STATUS, 200L, PATH, "/b"));
+    Attributes other = cache.get(Attributes.of(METHOD, "POST", PATH, "/a"));
+
+    assertThat(first).containsOnly(attributeEntry("method", "GET"), attributeEntry("status", 200L));
+    assertThat(second).isSameAs(first);
+    assertThat(other).containsOnly(attributeEntry("method", "POST"));
+    assertThat(cache.get(Attributes.of(METHOD, "POST"))).isSameAs(other);
+  }
+
+  @Test
+  void overflow() {
+    MetricAttributesCache cache = MetricAttributesCache.create(KEYS, 2);
+
+    Attributes first = cache.get(Attributes.of(METHOD, "GET", STATUS, 200L));
+    Attributes second = cache.get(Attributes.of(METHOD, "GET", STATUS, 404L));
+    Attributes overflow = Attributes.of(METHOD, "GET", STATUS, 500L, PATH, "/a");
+
+    assertThat(cache.get(overflow)).isSameAs(overflow);
+    assertThat(cache.get(Attributes.of(METHOD, "GET", STATUS, 200L))).isSameAs(first);
+    assertThat(cache.get(Attributes.of(METHOD, "GET", STATUS, 404L))).isSameAs(second);
+  }
+
+  @Test
+  void concurrentInsertsOfSameCombinationCountOnce() throws Exception {
+    MetricAttributesCache cache = MetricAttributesCache.create(KEYS, 2);
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CyclicBarrier barrier = new CyclicBarrier(threads);
+    List<Future<Attributes>> results = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      results.add(
+          executor.submit(
+              () -> {
+                barrier.await();
+                return cache.get(Attributes.of(METHOD, "GET", STATUS, 200L));
+              }));
+    }
+    Attributes first = results.get(0).get();
+    for (Future<Attributes> result : results) {
+      assertThat(result.get()).isSameAs(first);
+    }
+    executor.shutdown();
+
+    // the second slot is still free
+    Attributes second = cache.get(Attributes.of(METHOD, "GET", STATUS, 404L, PATH, "/a"));
+    assertThat(second)
+        .containsOnly(attributeEntry("method", "GET"), attributeEntry("status", 404L));
+    assertThat(cache.get(Attributes.of(METHOD, "GET", STATUS, 404L))).isSameAs(second);
+  }
+}
@@ -5,9 +5,16 @@
 
 package io.opentelemetry.instrumentation.api.internal;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.Counter;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -71,4 +78,63 @@ class SupportabilityMetricsTest {
             "Suppressed Spans by 'favoriteInstrumentation' (CLIENT) : 1",
             "Counter 'some counter' : 1");
   }
+
+  @Test
+  void countsWellKnownCounters() {
+    List<String> reports = new ArrayList<>();
+    SupportabilityMetrics metrics = new SupportabilityMetrics(true, reports::add);
+
+    metrics.increment(Counter.MUZZLE_FAILURE);
+    metrics.increment(Counter.MUZZLE_FAILURE);
+    metrics.incrementCounter(CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS);
+
+    assertThat(metrics.get(Counter.MUZZLE_FAILURE)).isEqualTo(2);
+    assertThat(metrics.get(Counter.SQL_STATEMENT_SANITIZER_CACHE_MISS)).isEqualTo(1);
+    assertThat(metrics.get(Counter.HELPER_INJECTION)).isZero();
+
+    metrics.report();
+
+    assertThat(reports)
+        .containsExactlyInAnyOrder(
+            "Counter 'Muzzle failure' : 2", "Counter 'SqlStatementSanitizer cache miss' : 1");
+  }
+
+  @Test
+  void exportsMetrics() {
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    OpenTelemetrySdk openTelemetry =
+        OpenTelemetrySdk.builder()
+            .setMeterProvider(SdkMeterProvider.builder().registerMetricReader(metricReader).build())
+            .build();
+    SupportabilityMetrics metrics = new SupportabilityMetrics(false, s -> {});
+    metrics.registerMetrics(openTelemetry);
+
+    metrics.increment(Counter.HELPER_INJECTION);
+    metrics.increment(Counter.HELPER_INJECTION);
+    metrics.recordSuppressedSpan(SpanKind.CLIENT, "favoriteInstrumentation");
+
+    assertThat(metricReader.collectAllMetrics())
+        .anySatisfy(
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.javaagent.helper.injections")
+                    .hasLongSumSatisfying(
+                        sum -> sum.isMonotonic().hasPointsSatisfying(point -> point.hasValue(2))))
+        .anySatisfy(
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.javaagent.suppressed_spans")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.hasPointsSatisfying(
+                                point ->
+                                    point
+                                        .hasValue(1)
+                                        .hasAttributesSatisfyingExactly(
+                                            equalTo(
+                                                AttributeKey.stringKey("instrumentation.name"),
+                                                "favoriteInstrumentation"),
+                                            equalTo(
+                                                AttributeKey.stringKey("span.kind"), "CLIENT")))));
+  }
 }
@@ -66,7 +66,8 @@ public class PreparedStatementInstrumentation implements TypeInstrumentation {
         @Advice.Local("otelScope") Scope scope) {
       // skip prepared statements without attached sql, probably a wrapper around the actual
       // prepared statement
-      if (JdbcData.preparedStatement.get(statement) == null) {
+      String sql = JdbcData.preparedStatement.get(statement);
+      if (sql == null) {
         return;
       }
 
@@ -83,7 +84,7 @@ public class PreparedStatementInstrumentation implements TypeInstrumentation {
       }
 
       Context parentContext = currentContext();
-      request = DbRequest.create(statement);
+      request = DbRequest.create(statement, sql, null);
 
       if (request == null || !statementInstrumenter().shouldStart(parentContext, request)) {
         return;
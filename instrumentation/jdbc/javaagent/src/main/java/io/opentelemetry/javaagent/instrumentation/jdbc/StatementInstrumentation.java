@@ -153,19 +153,19 @@ public class StatementInstrumentation implements TypeInstrumentation {
 
       Context parentContext = currentContext();
       if (statement instanceof PreparedStatement) {
-        Long batchSize = JdbcData.getPreparedStatementBatchSize((PreparedStatement) statement);
-        String sql = JdbcData.preparedStatement.get((PreparedStatement) statement);
+        PreparedStatement preparedStatement = (PreparedStatement) statement;
+        Long batchSize = JdbcData.getPreparedStatementBatchSize(preparedStatement);
+        String sql = JdbcData.preparedStatement.get(preparedStatement);
         if (sql == null) {
           return;
         }
-        request = DbRequest.create(statement, sql, batchSize);
+        request = DbRequest.create(preparedStatement, sql, batchSize);
       } else {
         JdbcData.StatementBatchInfo batchInfo = JdbcData.getStatementBatchInfo(statement);
         if (batchInfo == null) {
           request = DbRequest.create(statement, null);
         } else {
-          request =
-              DbRequest.create(statement, batchInfo.getStatements(), batchInfo.getBatchSize());
+          request = DbRequest.create(statement, batchInfo);
         }
       }
 
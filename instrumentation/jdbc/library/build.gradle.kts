@@ -6,6 +6,7 @@
 plugins {
   id("com.gradleup.shadow")
   id("otel.library-instrumentation")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
@@ -0,0 +1,131 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput of {@link JdbcData#intern(DbInfo)} with the synchronized {@link
+ * WeakHashMap} it replaced, when many threads intern the db info of a few connection pools.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Benchmark)
+public class JdbcDataInternBenchmark {
+
+  private static final int DATABASES = 16;
+
+  private final Map<DbInfo, WeakReference<DbInfo>> synchronizedDbInfos = new WeakHashMap<>();
+  // keeps the interned instances reachable
+  private final DbInfo[] canonical = new DbInfo[DATABASES];
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < DATABASES; i++) {
+      canonical[i] = JdbcData.intern(dbInfo(i));
+      synchronizedIntern(dbInfo(i));
+    }
+  }
+
+  private static DbInfo dbInfo(int i) {
+    return DbInfo.builder()
+        .system("postgresql")
+        .subtype("pgsql")
+        .shortUrl("postgresql://db" + i + ".example.com:5432")
+        .user("app")
+        .name("orders")
+        .host("db" + i + ".example.com")
+        .port(5432)
+        .build();
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    // each lookup uses a new instance, like the db info parsed for a new connection
+    final DbInfo[] dbInfos = new DbInfo[DATABASES];
+    int index;
+
+    @Setup
+    public void setup() {
+      for (int i = 0; i < DATABASES; i++) {
+        dbInfos[i] = dbInfo(i);
+      }
+    }
+
+    DbInfo next() {
+      index = (index + 1) & (DATABASES - 1);
+      return dbInfos[index];
+    }
+  }
+
+  private DbInfo synchronizedIntern(DbInfo dbInfo) {
+    synchronized (synchronizedDbInfos) {
+      WeakReference<DbInfo> reference = synchronizedDbInfos.get(dbInfo);
+      if (reference != null) {
+        DbInfo result = reference.get();
+        if (result != null) {
+          return result;
+        }
+      }
+      synchronizedDbInfos.put(dbInfo, new WeakReference<>(dbInfo));
+      return dbInfo;
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public DbInfo intern_1(ThreadState state) {
+    return JdbcData.intern(state.next());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public DbInfo intern_4(ThreadState state) {
+    return JdbcData.intern(state.next());
+  }
+
+  @Benchmark
+  @Threads(16)
+  public DbInfo intern_16(ThreadState state) {
+    return JdbcData.intern(state.next());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public DbInfo synchronized_1(ThreadState state) {
+    return synchronizedIntern(state.next());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public DbInfo synchronized_4(ThreadState state) {
+    return synchronizedIntern(state.next());
+  }
+
+  @Benchmark
+  @Threads(16)
+  public DbInfo synchronized_16(ThreadState state) {
+    return synchronizedIntern(state.next());
+  }
+}
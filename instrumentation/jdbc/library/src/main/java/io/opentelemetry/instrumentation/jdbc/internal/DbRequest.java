@@ -26,7 +26,21 @@ public abstract class DbRequest {
 
   @Nullable
   public static DbRequest create(PreparedStatement statement) {
-    return create(statement, JdbcData.preparedStatement.get(statement));
+    return create(statement, JdbcData.preparedStatement.get(statement), null);
+  }
+
+  @Nullable
+  public static DbRequest create(PreparedStatement statement, String sql, Long batchSize) {
+    Connection connection = connectionFromStatement(statement);
+    if (connection == null) {
+      return null;
+    }
+
+    return create(
+        extractDbInfo(connection),
+        sql,
+        batchSize,
+        sql == null ? null : JdbcData.getSanitizedStatement(statement, sql));
   }
 
   @Nullable
@@ -54,6 +68,16 @@ public abstract class DbRequest {
     return create(extractDbInfo(connection), queryTexts, batchSize);
   }
 
+  @Nullable
+  public static DbRequest create(Statement statement, JdbcData.StatementBatchInfo batchInfo) {
+    Connection connection = connectionFromStatement(statement);
+    if (connection == null) {
+      return null;
+    }
+
+    return create(extractDbInfo(connection), batchInfo);
+  }
+
   public static DbRequest create(DbInfo dbInfo, String queryText) {
     return create(dbInfo, queryText, null);
   }
@@ -62,8 +86,22 @@ public abstract class DbRequest {
     return create(dbInfo, Collections.singletonList(queryText), batchSize);
   }
 
+  public static DbRequest create(
+      DbInfo dbInfo,
+      String queryText,
+      Long batchSize,
+      @Nullable JdbcData.SanitizedStatement sanitizedStatement) {
+    return new AutoValue_DbRequest(
+        dbInfo, Collections.singletonList(queryText), batchSize, sanitizedStatement, null);
+  }
+
   public static DbRequest create(DbInfo dbInfo, Collection<String> queryTexts, Long batchSize) {
-    return new AutoValue_DbRequest(dbInfo, queryTexts, batchSize);
+    return new AutoValue_DbRequest(dbInfo, queryTexts, batchSize, null, null);
+  }
+
+  public static DbRequest create(DbInfo dbInfo, JdbcData.StatementBatchInfo batchInfo) {
+    return new AutoValue_DbRequest(
+        dbInfo, batchInfo.getStatements(), batchInfo.getBatchSize(), null, batchInfo);
   }
 
   public abstract DbInfo getDbInfo();
@@ -72,4 +110,15 @@ public abstract class DbRequest {
 
   @Nullable
   public abstract Long getBatchSize();
+
+  /**
+   * Returns the holder of the sanitized form of the single query text, shared by the executions of
+   * the same prepared statement.
+   */
+  @Nullable
+  public abstract JdbcData.SanitizedStatement getSanitizedStatement();
+
+  /** Returns the tracker of the statements, when a {@link Statement} batch is executed. */
+  @Nullable
+  public abstract JdbcData.StatementBatchInfo getStatementBatchInfo();
 }
@@ -6,16 +6,20 @@
 package io.opentelemetry.instrumentation.jdbc.internal;
 
 import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlClientAttributesGetter;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.internal.SqlStatementInfoGetter;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.List;
 import javax.annotation.Nullable;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
  * any time.
  */
-public final class JdbcAttributesGetter implements SqlClientAttributesGetter<DbRequest, Void> {
+public final class JdbcAttributesGetter
+    implements SqlClientAttributesGetter<DbRequest, Void>, SqlStatementInfoGetter<DbRequest> {
 
   @Nullable
   @Override
@@ -54,6 +58,29 @@ public final class JdbcAttributesGetter implements SqlClientAttributesGetter<DbR
     return request.getBatchSize();
   }
 
+  @Nullable
+  @Override
+  public SqlStatementInfo getSqlStatementInfo(DbRequest request) {
+    // sanitized only when the span is started and its attributes are extracted
+    JdbcData.SanitizedStatement sanitizedStatement = request.getSanitizedStatement();
+    return sanitizedStatement == null ? null : sanitizedStatement.getSqlStatementInfo();
+  }
+
+  @Nullable
+  @Override
+  public List<SqlStatementInfo> getSqlStatementInfos(DbRequest request) {
+    JdbcData.StatementBatchInfo batchInfo = request.getStatementBatchInfo();
+    return batchInfo == null ? null : batchInfo.getSqlStatementInfos();
+  }
+
+  @Nullable
+  @Override
+  public Long getQueryTextCount(DbRequest request) {
+    // only the distinct statements of a batch are kept, but each added statement counts
+    JdbcData.StatementBatchInfo batchInfo = request.getStatementBatchInfo();
+    return batchInfo == null ? null : batchInfo.getBatchSize();
+  }
+
   @Nullable
   @Override
   public String getResponseStatus(@Nullable Void response, @Nullable Throwable error) {
@@ -5,17 +5,21 @@
 
 package io.opentelemetry.instrumentation.jdbc.internal;
 
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementSanitizer;
 import io.opentelemetry.instrumentation.api.util.VirtualField;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
-import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * Holds info associated with JDBC connections and prepared statements.
@@ -25,17 +29,23 @@ import java.util.WeakHashMap;
  */
 public final class JdbcData {
 
-  private static final Map<DbInfo, WeakReference<DbInfo>> dbInfos = new WeakHashMap<>();
+  private static final WeakInterner<DbInfo> dbInfos = new WeakInterner<>();
   public static final VirtualField<Connection, DbInfo> connectionInfo =
       VirtualField.find(Connection.class, DbInfo.class);
   public static final VirtualField<PreparedStatement, String> preparedStatement =
       VirtualField.find(PreparedStatement.class, String.class);
+  private static final VirtualField<PreparedStatement, SanitizedStatement>
+      preparedStatementSanitized =
+          VirtualField.find(PreparedStatement.class, SanitizedStatement.class);
   private static final VirtualField<Statement, StatementBatchInfo> statementBatch =
       VirtualField.find(Statement.class, StatementBatchInfo.class);
   private static final VirtualField<PreparedStatement, PreparedStatementBatchInfo>
       preparedStatementBatch =
           VirtualField.find(PreparedStatement.class, PreparedStatementBatchInfo.class);
 
+  // same configuration as the sanitizer used by SqlClientAttributesExtractor
+  private static final SqlStatementSanitizer sanitizer = SqlStatementSanitizer.create(true);
+
   private JdbcData() {}
 
   /**
@@ -47,17 +57,29 @@ public final class JdbcData {
    *     and a different instance later if the original interned instance was garbage collected.
    */
   public static DbInfo intern(DbInfo dbInfo) {
-    synchronized (dbInfos) {
-      WeakReference<DbInfo> reference = dbInfos.get(dbInfo);
-      if (reference != null) {
-        DbInfo result = reference.get();
-        if (result != null) {
-          return result;
-        }
-      }
-      dbInfos.put(dbInfo, new WeakReference<>(dbInfo));
-      return dbInfo;
+    return dbInfos.intern(dbInfo);
+  }
+
+  /**
+   * Returns the holder of the sanitized form of the SQL the prepared statement was created with.
+   *
+   * <p>The holder is attached to the statement, so that repeated executions of the same prepared
+   * statement sanitize its SQL only once. The SQL is not sanitized until the sanitized form is
+   * first requested, which does not happen for executions that do not start a span.
+   */
+  public static SanitizedStatement getSanitizedStatement(PreparedStatement statement, String sql) {
+    SanitizedStatement sanitized = preparedStatementSanitized.get(statement);
+    // the sql attached to a statement is the same instance on every call, so equals() returns on
+    // its identity check unless the statement was prepared again
+    if (sanitized == null || !sanitized.sql.equals(sql)) {
+      sanitized = new SanitizedStatement(sql);
+      preparedStatementSanitized.set(statement, sanitized);
     }
+    return sanitized;
+  }
+
+  static SqlStatementInfo sanitize(String sql) {
+    return sanitizer.sanitize(sql);
   }
 
   public static void addStatementBatch(Statement statement, String sql) {
@@ -96,22 +118,158 @@ public final class JdbcData {
   }
 
   /**
-   * This class is internal and is hence not for public use. Its APIs are unstable and can change at
-   * any time.
+   * Tracks the statements added to a {@link Statement} batch.
+   *
+   * <p>Statements are deduplicated as they are added, so that a batch repeating the same statement
+   * does not keep every copy alive until the batch is executed. Small batches are not sanitized
+   * until the span of the batch is started, and the span name and the attributes share the result.
+   * Once more than {@link #MAX_STATEMENTS} distinct statements are pending, they are sanitized and
+   * deduplicated by their sanitized form, and statements of a new shape are only kept while there
+   * are fewer than {@link #MAX_STATEMENTS} of them or if they change the operation or the table
+   * reported for the batch. This bounds the memory held by a batch of statements that only differ
+   * in their literals, no matter how many of them are added.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
    */
   public static final class StatementBatchInfo {
-    private final List<String> statements = new ArrayList<>();
+    static final int MAX_STATEMENTS = 32;
+
+    // sanitized statement -> first statement with that shape
+    private final Map<String, Shape> shapes = new LinkedHashMap<>();
+    // distinct statements added since the last compaction, not sanitized yet
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final UniqueValue operation = new UniqueValue();
+    private final UniqueValue mainIdentifier = new UniqueValue();
+    @Nullable private List<String> statements;
+    @Nullable private List<SqlStatementInfo> sqlStatementInfos;
+    private long batchSize;
 
     void add(String sql) {
-      statements.add(sql);
+      batchSize++;
+      if (pending.add(sql)) {
+        statements = null;
+        sqlStatementInfos = null;
+        if (pending.size() > MAX_STATEMENTS) {
+          compact();
+        }
+      }
     }
 
+    private void compact() {
+      for (String sql : pending) {
+        addShape(sql, sanitize(sql));
+      }
+      pending.clear();
+    }
+
+    private void addShape(String sql, SqlStatementInfo sqlStatementInfo) {
+      String shape = sqlStatementInfo.getFullStatement();
+      if (shapes.containsKey(shape)) {
+        return;
+      }
+      // the operation and table reported for the batch are computed from the kept statements, keep
+      // every statement that changes them
+      boolean changesResult = operation.set(sqlStatementInfo.getOperation());
+      changesResult |= mainIdentifier.set(sqlStatementInfo.getMainIdentifier());
+      if (shapes.size() < MAX_STATEMENTS || changesResult) {
+        shapes.put(shape, new Shape(sql, sqlStatementInfo));
+      }
+    }
+
+    /**
+     * Returns the distinct statements kept for the batch, in the order added. When more than {@link
+     * #MAX_STATEMENTS} distinct statements were added, this is the first statement of each kept
+     * sanitized statement, followed by the statements added since.
+     */
     public Collection<String> getStatements() {
-      return statements;
+      List<String> result = statements;
+      if (result == null) {
+        result = new ArrayList<>(shapes.size() + pending.size());
+        for (Shape shape : shapes.values()) {
+          result.add(shape.sql);
+        }
+        result.addAll(pending);
+        statements = result;
+      }
+      return result;
     }
 
+    /** Returns the sanitized form of each of the {@link #getStatements()}. */
+    List<SqlStatementInfo> getSqlStatementInfos() {
+      List<SqlStatementInfo> result = sqlStatementInfos;
+      if (result == null) {
+        result = new ArrayList<>(shapes.size() + pending.size());
+        for (Shape shape : shapes.values()) {
+          result.add(shape.sqlStatementInfo);
+        }
+        for (String sql : pending) {
+          result.add(sanitize(sql));
+        }
+        sqlStatementInfos = result;
+      }
+      return result;
+    }
+
+    /** Returns the number of statements added to the batch, including repeated ones. */
     public long getBatchSize() {
-      return statements.size();
+      return batchSize;
+    }
+  }
+
+  private static final class Shape {
+    final String sql;
+    final SqlStatementInfo sqlStatementInfo;
+
+    Shape(String sql, SqlStatementInfo sqlStatementInfo) {
+      this.sql = sql;
+      this.sqlStatementInfo = sqlStatementInfo;
+    }
+  }
+
+  private static final class UniqueValue {
+    @Nullable private String value;
+    private boolean valid = true;
+
+    /** Returns true if the value changed. */
+    boolean set(@Nullable String value) {
+      if (!valid) {
+        return false;
+      }
+      if (this.value == null) {
+        this.value = value;
+        return value != null;
+      }
+      if (!this.value.equals(value)) {
+        valid = false;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The SQL of a prepared statement, sanitized on first use.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public static final class SanitizedStatement {
+    private final String sql;
+    @Nullable private volatile SqlStatementInfo sqlStatementInfo;
+
+    SanitizedStatement(String sql) {
+      this.sql = sql;
+    }
+
+    public SqlStatementInfo getSqlStatementInfo() {
+      SqlStatementInfo result = sqlStatementInfo;
+      if (result == null) {
+        // racing threads compute the same value
+        result = sanitize(sql);
+        sqlStatementInfo = result;
+      }
+      return result;
     }
   }
 
@@ -42,6 +42,7 @@ import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import javax.annotation.Nullable;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
@@ -50,6 +51,9 @@ import java.util.Calendar;
 public class OpenTelemetryPreparedStatement<S extends PreparedStatement>
     extends OpenTelemetryStatement<S> implements PreparedStatement {
 
+  // sanitized once on first use, the query of a prepared statement never changes
+  @Nullable private final JdbcData.SanitizedStatement sanitizedStatement;
+
   public OpenTelemetryPreparedStatement(
       S delegate,
       OpenTelemetryConnection connection,
@@ -57,21 +61,22 @@ public class OpenTelemetryPreparedStatement<S extends PreparedStatement>
       String query,
       Instrumenter<DbRequest, Void> instrumenter) {
     super(delegate, connection, dbInfo, query, instrumenter);
+    this.sanitizedStatement = query == null ? null : new JdbcData.SanitizedStatement(query);
   }
 
   @Override
   public ResultSet executeQuery() throws SQLException {
-    return wrapCall(query, delegate::executeQuery);
+    return wrapCall(createRequest(null), delegate::executeQuery);
   }
 
   @Override
   public int executeUpdate() throws SQLException {
-    return wrapCall(query, delegate::executeUpdate);
+    return wrapCall(createRequest(null), delegate::executeUpdate);
   }
 
   @Override
   public boolean execute() throws SQLException {
-    return wrapCall(query, delegate::execute);
+    return wrapCall(createRequest(null), delegate::execute);
   }
 
   @SuppressWarnings("UngroupedOverloads")
@@ -371,7 +376,10 @@ public class OpenTelemetryPreparedStatement<S extends PreparedStatement>
   }
 
   private <T, E extends Exception> T wrapBatchCall(ThrowingSupplier<T, E> callable) throws E {
-    DbRequest request = DbRequest.create(dbInfo, query, batchSize);
-    return wrapCall(request, callable);
+    return wrapCall(createRequest(batchSize), callable);
+  }
+
+  private DbRequest createRequest(Long batchSize) {
+    return DbRequest.create(dbInfo, query, batchSize, sanitizedStatement);
   }
 }
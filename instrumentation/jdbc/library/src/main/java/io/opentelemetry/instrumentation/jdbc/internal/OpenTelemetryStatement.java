@@ -29,8 +29,6 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
@@ -44,7 +42,7 @@ public class OpenTelemetryStatement<S extends Statement> implements Statement {
   protected final String query;
   protected final Instrumenter<DbRequest, Void> instrumenter;
 
-  private final List<String> batchCommands = new ArrayList<>();
+  private JdbcData.StatementBatchInfo batchInfo = new JdbcData.StatementBatchInfo();
   protected long batchSize;
 
   OpenTelemetryStatement(
@@ -232,14 +230,14 @@ public class OpenTelemetryStatement<S extends Statement> implements Statement {
   @Override
   public void addBatch(String sql) throws SQLException {
     delegate.addBatch(sql);
-    batchCommands.add(sql);
+    batchInfo.add(sql);
     batchSize++;
   }
 
   @Override
   public void clearBatch() throws SQLException {
     delegate.clearBatch();
-    batchCommands.clear();
+    batchInfo = new JdbcData.StatementBatchInfo();
     batchSize = 0;
   }
 
@@ -320,7 +318,7 @@ public class OpenTelemetryStatement<S extends Statement> implements Statement {
   }
 
   private <T, E extends Exception> T wrapBatchCall(ThrowingSupplier<T, E> callable) throws E {
-    DbRequest request = DbRequest.create(dbInfo, batchCommands, batchSize);
+    DbRequest request = DbRequest.create(dbInfo, batchInfo);
     return wrapCall(request, callable);
   }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+
+/**
+ * Interns values by {@link Object#equals(Object)}, referencing the canonical instances weakly.
+ * Lookups of already interned values don't take any lock. Entries whose value was garbage collected
+ * are removed by the calling threads, so no cleaner thread is needed.
+ */
+final class WeakInterner<T> {
+
+  // keys and values are the same WeakEntry, so that a stale entry can be removed by identity
+  private final ConcurrentMap<Object, WeakEntry<T>> entries = new ConcurrentHashMap<>();
+  private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+  /**
+   * Returns the canonical instance equal to {@code value}, making {@code value} the canonical
+   * instance if there is none.
+   */
+  T intern(T value) {
+    expungeStaleEntries();
+
+    WeakEntry<T> existing = entries.get(new LookupKey<>(value));
+    if (existing != null) {
+      T result = existing.get();
+      if (result != null) {
+        return result;
+      }
+    }
+
+    WeakEntry<T> entry = new WeakEntry<>(value, queue);
+    while (true) {
+      existing = entries.putIfAbsent(entry, entry);
+      if (existing == null) {
+        return value;
+      }
+      T result = existing.get();
+      if (result != null) {
+        return result;
+      }
+      // the canonical instance was collected, but its entry was not expunged yet
+      entries.remove(existing, existing);
+    }
+  }
+
+  // visible for testing
+  int size() {
+    expungeStaleEntries();
+    return entries.size();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void expungeStaleEntries() {
+    Reference<? extends T> reference;
+    while ((reference = queue.poll()) != null) {
+      WeakEntry<T> entry = (WeakEntry<T>) reference;
+      entries.remove(entry, entry);
+    }
+  }
+
+  private static final class WeakEntry<T> extends WeakReference<T> {
+
+    private final int hashCode;
+
+    WeakEntry(T value, ReferenceQueue<T> queue) {
+      super(value, queue);
+      this.hashCode = value.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      // a cleared entry is only equal to itself
+      T value = get();
+      if (value == null) {
+        return false;
+      }
+      if (obj instanceof WeakEntry) {
+        return value.equals(((WeakEntry<?>) obj).get());
+      }
+      if (obj instanceof LookupKey) {
+        return value.equals(((LookupKey<?>) obj).value);
+      }
+      return false;
+    }
+  }
+
+  // avoids allocating a weak reference for lookups that find an interned value
+  private static final class LookupKey<T> {
+
+    private final T value;
+    private final int hashCode;
+
+    LookupKey(T value) {
+      this.value = value;
+      this.hashCode = value.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj instanceof WeakEntry) {
+        return value.equals(((WeakEntry<?>) obj).get());
+      }
+      if (obj instanceof LookupKey) {
+        return value.equals(((LookupKey<?>) obj).value);
+      }
+      return false;
+    }
+  }
+}
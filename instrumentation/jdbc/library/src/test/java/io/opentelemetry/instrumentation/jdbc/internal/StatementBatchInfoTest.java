@@ -0,0 +1,96 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfo;
+import io.opentelemetry.instrumentation.jdbc.internal.JdbcData.StatementBatchInfo;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StatementBatchInfoTest {
+
+  @Test
+  void deduplicatesStatements() {
+    StatementBatchInfo batchInfo = new StatementBatchInfo();
+    for (int i = 0; i < 10_000; i++) {
+      batchInfo.add("INSERT INTO potato VALUES (?)");
+      batchInfo.add("UPDATE tomato SET weight = ?");
+    }
+
+    assertThat(batchInfo.getBatchSize()).isEqualTo(20_000);
+    assertThat(batchInfo.getStatements())
+        .containsExactly("INSERT INTO potato VALUES (?)", "UPDATE tomato SET weight = ?");
+  }
+
+  @Test
+  void keepsDistinctStatementsOfSameShape() {
+    StatementBatchInfo batchInfo = new StatementBatchInfo();
+    batchInfo.add("INSERT INTO potato VALUES (1)");
+    batchInfo.add("INSERT INTO potato VALUES (2)");
+    batchInfo.add("INSERT INTO potato VALUES (1)");
+
+    // the raw statements are reported when sanitization is disabled
+    assertThat(batchInfo.getBatchSize()).isEqualTo(3);
+    assertThat(batchInfo.getStatements())
+        .containsExactly("INSERT INTO potato VALUES (1)", "INSERT INTO potato VALUES (2)");
+  }
+
+  @Test
+  void sanitizesOnceWhenRequested() {
+    StatementBatchInfo batchInfo = new StatementBatchInfo();
+    batchInfo.add("INSERT INTO potato VALUES (1)");
+    batchInfo.add("DELETE FROM tomato WHERE id = 2");
+
+    List<SqlStatementInfo> sqlStatementInfos = batchInfo.getSqlStatementInfos();
+    assertThat(sqlStatementInfos)
+        .extracting(SqlStatementInfo::getFullStatement)
+        .containsExactly("INSERT INTO potato VALUES (?)", "DELETE FROM tomato WHERE id = ?");
+    assertThat(batchInfo.getSqlStatementInfos()).isSameAs(sqlStatementInfos);
+
+    batchInfo.add("DELETE FROM tomato WHERE id = 2");
+    assertThat(batchInfo.getSqlStatementInfos()).isSameAs(sqlStatementInfos);
+    batchInfo.add("DELETE FROM tomato WHERE id = 3");
+    assertThat(batchInfo.getSqlStatementInfos()).hasSize(3);
+  }
+
+  @Test
+  void boundsStatementsOfSameShape() {
+    StatementBatchInfo batchInfo = new StatementBatchInfo();
+    for (int i = 0; i < 10_000; i++) {
+      batchInfo.add("INSERT INTO potato VALUES (" + i + ")");
+    }
+
+    assertThat(batchInfo.getBatchSize()).isEqualTo(10_000);
+    assertThat(batchInfo.getStatements())
+        .hasSizeLessThanOrEqualTo(StatementBatchInfo.MAX_STATEMENTS + 1)
+        .startsWith("INSERT INTO potato VALUES (0)");
+    assertThat(batchInfo.getSqlStatementInfos())
+        .extracting(SqlStatementInfo::getFullStatement)
+        .containsOnly("INSERT INTO potato VALUES (?)");
+  }
+
+  @Test
+  void keepsStatementsThatChangeOperationOrTable() {
+    StatementBatchInfo batchInfo = new StatementBatchInfo();
+    for (int i = 0; i < 100; i++) {
+      batchInfo.add("INSERT INTO potato (c" + i + ") VALUES (" + i + ")");
+    }
+    batchInfo.add("DELETE FROM potato WHERE id = 1");
+    for (int i = 100; i < 200; i++) {
+      batchInfo.add("INSERT INTO potato (c" + i + ") VALUES (" + i + ")");
+    }
+
+    assertThat(batchInfo.getBatchSize()).isEqualTo(201);
+    assertThat(batchInfo.getStatements())
+        .hasSizeLessThanOrEqualTo(2 * StatementBatchInfo.MAX_STATEMENTS + 1)
+        .contains("DELETE FROM potato WHERE id = 1");
+    assertThat(batchInfo.getSqlStatementInfos())
+        .extracting(SqlStatementInfo::getOperation)
+        .contains("INSERT", "DELETE");
+  }
+}
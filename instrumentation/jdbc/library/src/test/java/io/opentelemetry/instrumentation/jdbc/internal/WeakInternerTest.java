@@ -0,0 +1,80 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class WeakInternerTest {
+
+  @Test
+  void canonicalInstance() {
+    WeakInterner<DbInfo> interner = new WeakInterner<>();
+
+    DbInfo first = DbInfo.builder().system("h2").host("localhost").port(5432).build();
+    DbInfo second = DbInfo.builder().system("h2").host("localhost").port(5432).build();
+    DbInfo other = DbInfo.builder().system("h2").host("otherhost").port(5432).build();
+
+    assertThat(interner.intern(first)).isSameAs(first);
+    assertThat(interner.intern(second)).isSameAs(first);
+    assertThat(interner.intern(other)).isSameAs(other);
+    assertThat(interner.size()).isEqualTo(2);
+  }
+
+  @Test
+  void collectedValuesAreRemoved() {
+    WeakInterner<DbInfo> interner = new WeakInterner<>();
+    interner.intern(DbInfo.builder().system("h2").host("localhost").build());
+
+    await()
+        .atMost(10, TimeUnit.SECONDS)
+        .until(
+            () -> {
+              System.gc();
+              return interner.size() == 0;
+            });
+
+    DbInfo dbInfo = DbInfo.builder().system("h2").host("localhost").build();
+    assertThat(interner.intern(dbInfo)).isSameAs(dbInfo);
+  }
+
+  @Test
+  void concurrentIntern() throws Exception {
+    WeakInterner<DbInfo> interner = new WeakInterner<>();
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<DbInfo>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return interner.intern(DbInfo.builder().system("h2").host("localhost").build());
+                }));
+      }
+      start.countDown();
+
+      DbInfo canonical = results.get(0).get();
+      for (Future<DbInfo> result : results) {
+        assertThat(result.get()).isSameAs(canonical);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
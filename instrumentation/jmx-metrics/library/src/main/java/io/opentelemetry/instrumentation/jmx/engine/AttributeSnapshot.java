@@ -0,0 +1,198 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+
+/**
+ * A cache of MBean attribute values for one collection of the metrics. All the attributes that the
+ * metrics need from an MBean are read with a single {@link MBeanServerConnection#getAttributes}
+ * call, instead of one {@link MBeanServerConnection#getAttribute} call per attribute and metric.
+ *
+ * <p>The attributes needed from an MBean are learned when they are first requested, so they are
+ * read one by one during the first collection only. The values read for an MBean are shared by all
+ * metrics until a metric reads the same MBean again, which means that a new collection has started.
+ */
+class AttributeSnapshot {
+
+  private static final ThreadLocal<BeanValues> current = new ThreadLocal<>();
+
+  // guarded by this
+  private final Map<MBeanServerConnection, Map<ObjectName, BeanValues>> beans = new HashMap<>();
+
+  /**
+   * Makes the attribute values of an MBean available to {@link #getAttribute} on the current
+   * thread, until the returned scope is closed.
+   *
+   * @param connection the {@link MBeanServerConnection} to read the attributes from
+   * @param objectName the {@link ObjectName} of the MBean
+   * @param reader the metric reading the attributes, a metric reads every MBean once per collection
+   */
+  Scope open(MBeanServerConnection connection, ObjectName objectName, Object reader) {
+    BeanValues values;
+    Set<String> attributeNames;
+    synchronized (this) {
+      values = beans.computeIfAbsent(connection, c -> new HashMap<>()).get(objectName);
+      if (values != null && values.addReader(reader)) {
+        return makeCurrent(values);
+      }
+      attributeNames = values != null ? values.getAttributeNames() : new LinkedHashSet<>();
+    }
+
+    // do not hold the lock while talking to a possibly remote MBeanServer
+    try {
+      values = read(connection, objectName, attributeNames);
+    } catch (InstanceNotFoundException e) {
+      forget(connection, objectName);
+      return Scope.NOOP;
+    }
+    values.addReader(reader);
+    synchronized (this) {
+      beans.computeIfAbsent(connection, c -> new HashMap<>()).put(objectName, values);
+    }
+    return makeCurrent(values);
+  }
+
+  private static BeanValues read(
+      MBeanServerConnection connection, ObjectName objectName, Set<String> attributeNames)
+      throws InstanceNotFoundException {
+    BeanValues values = new BeanValues(connection, objectName, attributeNames);
+    if (attributeNames.isEmpty()) {
+      return values;
+    }
+    try {
+      AttributeList attributes =
+          connection.getAttributes(objectName, attributeNames.toArray(new String[0]));
+      values.setValues(attributes);
+    } catch (InstanceNotFoundException e) {
+      throw e;
+    } catch (JMException | IOException | RuntimeException e) {
+      // leave the values empty, the attributes will be read one by one
+    }
+    return values;
+  }
+
+  private static Scope makeCurrent(BeanValues values) {
+    BeanValues previous = current.get();
+    current.set(values);
+    return () -> {
+      if (previous == null) {
+        current.remove();
+      } else {
+        current.set(previous);
+      }
+    };
+  }
+
+  /** Drops the values of MBeans that are no longer used by any metric. */
+  synchronized void forget(MBeanServerConnection connection, Collection<ObjectName> objectNames) {
+    Map<ObjectName, BeanValues> values = beans.get(connection);
+    if (values != null) {
+      values.keySet().removeAll(objectNames);
+      if (values.isEmpty()) {
+        beans.remove(connection);
+      }
+    }
+  }
+
+  private synchronized void forget(MBeanServerConnection connection, ObjectName objectName) {
+    Map<ObjectName, BeanValues> values = beans.get(connection);
+    if (values != null) {
+      values.remove(objectName);
+      if (values.isEmpty()) {
+        beans.remove(connection);
+      }
+    }
+  }
+
+  /**
+   * Reads an attribute of an MBean, from the values of the current collection if the MBean has been
+   * opened on the current thread, from the {@link MBeanServerConnection} otherwise.
+   */
+  @Nullable
+  static Object getAttribute(
+      MBeanServerConnection connection, ObjectName objectName, String attributeName)
+      throws JMException, IOException {
+    BeanValues values = current.get();
+    if (values != null && values.connection == connection && values.objectName.equals(objectName)) {
+      return values.get(attributeName);
+    }
+    return connection.getAttribute(objectName, attributeName);
+  }
+
+  /** Restores the attribute values that were current before {@link #open} was called. */
+  interface Scope extends AutoCloseable {
+
+    Scope NOOP = () -> {};
+
+    @Override
+    void close();
+  }
+
+  private static class BeanValues {
+    private final MBeanServerConnection connection;
+    private final ObjectName objectName;
+    // guarded by this
+    private final Set<String> attributeNames;
+    private final Map<String, Object> values = new HashMap<>();
+    private final Set<Object> readers = new HashSet<>();
+    // whether the known attributes were read in bulk
+    private boolean complete;
+
+    BeanValues(
+        MBeanServerConnection connection, ObjectName objectName, Set<String> attributeNames) {
+      this.connection = connection;
+      this.objectName = objectName;
+      this.attributeNames = attributeNames;
+    }
+
+    /** Returns whether the values have not been used by the reader yet. */
+    synchronized boolean addReader(Object reader) {
+      return readers.add(reader);
+    }
+
+    synchronized Set<String> getAttributeNames() {
+      return new LinkedHashSet<>(attributeNames);
+    }
+
+    synchronized void setValues(AttributeList attributes) {
+      for (Attribute attribute : attributes.asList()) {
+        values.put(attribute.getName(), attribute.getValue());
+      }
+      complete = true;
+    }
+
+    @Nullable
+    synchronized Object get(String attributeName) throws JMException, IOException {
+      if (values.containsKey(attributeName)) {
+        return values.get(attributeName);
+      }
+      if (complete && attributeNames.contains(attributeName)) {
+        // getAttributes() skips the attributes that could not be read
+        throw new AttributeNotFoundException(attributeName);
+      }
+      // first use of the attribute, it will be part of the bulk read of the next collection
+      attributeNames.add(attributeName);
+      Object value = connection.getAttribute(objectName, attributeName);
+      values.put(attributeName, value);
+      return value;
+    }
+  }
+}
@@ -217,7 +217,7 @@ public class BeanAttributeExtractor implements MetricAttributeExtractor {
   private Object extractAttributeValue(
       MBeanServerConnection connection, ObjectName objectName, Logger logger) {
     try {
-      Object value = connection.getAttribute(objectName, baseName);
+      Object value = AttributeSnapshot.getAttribute(connection, objectName, baseName);
 
       int k = 0;
       while (k < nameChain.length) {
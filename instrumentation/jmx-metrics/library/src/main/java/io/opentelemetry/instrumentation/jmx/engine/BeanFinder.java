@@ -9,25 +9,43 @@ import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
 import javax.management.ObjectName;
 
 /**
  * A class responsible for finding MBeans that match metric definitions specified by a set of
  * MetricDefs.
+ *
+ * <p>The MBean servers are scanned once, after that MBeans are matched as they are registered and
+ * unregistered, using the notifications of the {@link MBeanServerDelegate}. Servers that don't
+ * support these notifications, e.g. some remote connections, are scanned again on every refresh.
+ * MBeans whose attributes can't be resolved yet, e.g. because they are still starting, are tried
+ * again on every refresh.
  */
 class BeanFinder {
 
   private static final Logger logger = Logger.getLogger(BeanFinder.class.getName());
 
+  // MBeans are often registered in bursts, e.g. when an application is deployed
+  private static final long NOTIFICATION_BATCH_DELAY = 100; // milliseconds
+
   private final MetricRegistrar registrar;
   private MetricConfiguration conf;
   private final ScheduledExecutorService exec =
@@ -41,6 +59,14 @@ class BeanFinder {
   private final long maxDelay;
   private long delay = 1000; // number of milliseconds until first attempt to discover MBeans
 
+  // The fields below are only accessed from the exec thread
+  // Servers found by the last refresh, mapped to whether they send registration notifications
+  private Map<MBeanServerConnection, Boolean> servers = new IdentityHashMap<>();
+  private final Map<MetricDef, ResolvedBeans> resolvedBeans = new IdentityHashMap<>();
+
+  private final Queue<Notification> notifications = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean notificationsScheduled = new AtomicBoolean();
+
   BeanFinder(MetricRegistrar registrar, long discoveryDelay) {
     this.registrar = registrar;
     this.discoveryDelay = Math.max(1000, discoveryDelay); // Enforce sanity
@@ -91,13 +117,163 @@ class BeanFinder {
    * handling. Successive invocations of this method may find matches that were previously
    * unavailable, in such cases MetricRegistrar will extend the coverage for the new MBeans
    *
+   * <p>Once all servers send registration notifications, the matches are kept up to date by {@link
+   * #processNotifications()} and the servers are only scanned again when the set of servers
+   * changes. Until then only the matching MBeans whose attributes could not be resolved are tried
+   * again.
+   *
    * @param connections supplier providing {@link MBeanServerConnection} instances to query
    */
   private void refreshState(Supplier<List<? extends MBeanServerConnection>> connections) {
-    List<? extends MBeanServerConnection> servers = connections.get();
+    List<? extends MBeanServerConnection> connectionList = connections.get();
+
+    Map<MBeanServerConnection, Boolean> currentServers = new IdentityHashMap<>();
+    boolean changed = false;
+    boolean polling = false;
+    for (MBeanServerConnection connection : connectionList) {
+      Boolean subscribed = servers.get(connection);
+      if (subscribed == null) {
+        changed = true;
+        subscribed = subscribe(connection);
+      }
+      currentServers.put(connection, subscribed);
+      polling |= !subscribed;
+    }
+    changed |= currentServers.size() != servers.size();
+    servers = currentServers;
 
+    if (!changed && !polling) {
+      retryUnresolved();
+      return;
+    }
     for (MetricDef metricDef : conf.getMetricDefs()) {
-      resolveBeans(metricDef, servers);
+      resolveBeans(metricDef, connectionList);
+    }
+  }
+
+  /** Tries again to resolve the attributes of the matching MBeans that could not be resolved. */
+  private void retryUnresolved() {
+    for (ResolvedBeans resolved : resolvedBeans.values()) {
+      for (ResolvedExtractor resolvedExtractor : resolved.extractors) {
+        if (resolvedExtractor.retryUnresolved()) {
+          resolvedExtractor.enroll(registrar);
+        }
+      }
+    }
+  }
+
+  /**
+   * Subscribes to MBean registration and unregistration notifications of the server.
+   *
+   * @return whether the server will send notifications
+   */
+  private boolean subscribe(MBeanServerConnection connection) {
+    try {
+      connection.addNotificationListener(
+          MBeanServerDelegate.DELEGATE_NAME,
+          (notification, handback) -> {
+            if (notification instanceof MBeanServerNotification) {
+              onNotification(connection, (MBeanServerNotification) notification);
+            }
+          },
+          // the delegate only sends registration and unregistration notifications
+          null,
+          null);
+      return true;
+    } catch (Exception e) {
+      logger.log(
+          Level.FINE, "MBean notifications not available, falling back to polling the server", e);
+      return false;
+    }
+  }
+
+  private void onNotification(
+      MBeanServerConnection connection, MBeanServerNotification notification) {
+    boolean registered =
+        MBeanServerNotification.REGISTRATION_NOTIFICATION.equals(notification.getType());
+    notifications.add(new Notification(connection, notification.getMBeanName(), registered));
+    if (notificationsScheduled.compareAndSet(false, true)) {
+      exec.schedule(this::processNotifications, NOTIFICATION_BATCH_DELAY, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** Applies the pending registrations and unregistrations to the matching metric definitions. */
+  private void processNotifications() {
+    notificationsScheduled.set(false);
+
+    Set<ResolvedExtractor> changed = new LinkedHashSet<>();
+    Notification notification;
+    while ((notification = notifications.poll()) != null) {
+      // servers that are not known yet are scanned on the next refresh
+      if (servers.containsKey(notification.connection)) {
+        if (notification.registered) {
+          onRegistered(notification.connection, notification.objectName, changed);
+        } else {
+          onUnregistered(notification.connection, notification.objectName, changed);
+        }
+      }
+    }
+
+    for (ResolvedExtractor resolvedExtractor : changed) {
+      resolvedExtractor.enroll(registrar);
+    }
+  }
+
+  private void onRegistered(
+      MBeanServerConnection connection, ObjectName objectName, Set<ResolvedExtractor> changed) {
+    for (MetricDef metricDef : conf.getMetricDefs()) {
+      if (!matches(metricDef.getBeanGroup(), connection, objectName)) {
+        continue;
+      }
+      ResolvedBeans resolved = resolvedBeans.get(metricDef);
+      if (resolved == null) {
+        resolved = new ResolvedBeans(connection, metricDef);
+      } else if (resolved.connection != connection) {
+        // Assuming that only one MBeanServer has the required MBeans
+        continue;
+      }
+      for (ResolvedExtractor resolvedExtractor : resolved.extractors) {
+        if (resolvedExtractor.add(objectName)) {
+          changed.add(resolvedExtractor);
+        }
+      }
+      // also kept when no attribute could be resolved, so that the MBean is tried again later
+      resolvedBeans.put(metricDef, resolved);
+    }
+  }
+
+  private void onUnregistered(
+      MBeanServerConnection connection, ObjectName objectName, Set<ResolvedExtractor> changed) {
+    for (ResolvedBeans resolved : resolvedBeans.values()) {
+      if (resolved.connection != connection) {
+        continue;
+      }
+      for (ResolvedExtractor resolvedExtractor : resolved.extractors) {
+        resolvedExtractor.unresolved.remove(objectName);
+        if (resolvedExtractor.objectNames.remove(objectName)) {
+          changed.add(resolvedExtractor);
+        }
+      }
+    }
+  }
+
+  private static boolean matches(
+      BeanGroup beans, MBeanServerConnection connection, ObjectName objectName) {
+    boolean matchesPattern = false;
+    for (ObjectName pattern : beans.getNamePatterns()) {
+      if (pattern.apply(objectName)) {
+        matchesPattern = true;
+        break;
+      }
+    }
+    if (!matchesPattern || beans.getQueryExp() == null) {
+      return matchesPattern;
+    }
+    try {
+      return !connection.queryNames(objectName, beans.getQueryExp()).isEmpty();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "IO error while resolving mbean", e);
+      return false;
     }
   }
 
@@ -129,9 +305,11 @@ class BeanFinder {
         resolveAttributes(allObjectNames, connection, metricDef);
 
         // Assuming that only one MBeanServer has the required MBeans
-        break;
+        return;
       }
     }
+    // MBeans registered later may be found on any server
+    resolvedBeans.remove(metricDef);
   }
 
   /**
@@ -145,26 +323,103 @@ class BeanFinder {
    */
   private void resolveAttributes(
       Set<ObjectName> objectNames, MBeanServerConnection connection, MetricDef metricDef) {
-    for (MetricExtractor extractor : metricDef.getMetricExtractors()) {
+    ResolvedBeans resolved = new ResolvedBeans(connection, metricDef);
+    for (ResolvedExtractor resolvedExtractor : resolved.extractors) {
       // For each MetricExtractor, find the subset of MBeans that have the required attribute
-      List<ObjectName> validObjectNames = new ArrayList<>();
-      AttributeInfo attributeInfo = null;
       for (ObjectName objectName : objectNames) {
-        AttributeInfo attr =
-            extractor.getMetricValueExtractor().getAttributeInfo(connection, objectName);
-        if (attr != null) {
-          if (attributeInfo == null) {
-            attributeInfo = attr;
-          } else {
-            attributeInfo.updateFrom(attr);
-          }
-          validObjectNames.add(objectName);
-        }
+        resolvedExtractor.add(objectName);
       }
-      if (!validObjectNames.isEmpty()) {
+      if (!resolvedExtractor.objectNames.isEmpty()) {
         // Ready to collect metric values
-        registrar.enrollExtractor(connection, validObjectNames, extractor, attributeInfo);
+        resolvedExtractor.enroll(registrar);
+      }
+    }
+    resolvedBeans.put(metricDef, resolved);
+  }
+
+  /** The MBeans matching a {@link MetricDef}, found on a single MBeanServer. */
+  private static class ResolvedBeans {
+    private final MBeanServerConnection connection;
+    private final List<ResolvedExtractor> extractors = new ArrayList<>();
+
+    ResolvedBeans(MBeanServerConnection connection, MetricDef metricDef) {
+      this.connection = connection;
+      for (MetricExtractor extractor : metricDef.getMetricExtractors()) {
+        extractors.add(new ResolvedExtractor(connection, extractor));
       }
     }
   }
+
+  /** The MBeans that have the attribute required by a {@link MetricExtractor}. */
+  private static class ResolvedExtractor {
+    private final MBeanServerConnection connection;
+    private final MetricExtractor extractor;
+    private final Set<ObjectName> objectNames = new LinkedHashSet<>();
+    // matching MBeans whose attribute could not be resolved yet
+    private final Set<ObjectName> unresolved = new LinkedHashSet<>();
+    @Nullable private AttributeInfo attributeInfo;
+
+    ResolvedExtractor(MBeanServerConnection connection, MetricExtractor extractor) {
+      this.connection = connection;
+      this.extractor = extractor;
+    }
+
+    /**
+     * Adds the MBean if it has the required attribute.
+     *
+     * @return whether the MBean was added
+     */
+    boolean add(ObjectName objectName) {
+      if (objectNames.contains(objectName)) {
+        return false;
+      }
+      AttributeInfo attr =
+          extractor.getMetricValueExtractor().getAttributeInfo(connection, objectName);
+      if (attr == null) {
+        // the attribute is often not available yet while the MBean starts
+        unresolved.add(objectName);
+        return false;
+      }
+      unresolved.remove(objectName);
+      if (attributeInfo == null) {
+        attributeInfo = attr;
+      } else {
+        attributeInfo.updateFrom(attr);
+      }
+      objectNames.add(objectName);
+      return true;
+    }
+
+    /**
+     * Tries again to add the MBeans whose attribute could not be resolved.
+     *
+     * @return whether an MBean was added
+     */
+    boolean retryUnresolved() {
+      boolean added = false;
+      for (ObjectName objectName : new ArrayList<>(unresolved)) {
+        added |= add(objectName);
+      }
+      return added;
+    }
+
+    void enroll(MetricRegistrar registrar) {
+      if (attributeInfo != null) {
+        registrar.enrollExtractor(
+            connection, new ArrayList<>(objectNames), extractor, attributeInfo);
+      }
+    }
+  }
+
+  private static class Notification {
+    private final MBeanServerConnection connection;
+    private final ObjectName objectName;
+    private final boolean registered;
+
+    Notification(MBeanServerConnection connection, ObjectName objectName, boolean registered) {
+      this.connection = connection;
+      this.objectName = objectName;
+      this.registered = registered;
+    }
+  }
 }
@@ -17,6 +17,7 @@ import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
 import io.opentelemetry.api.metrics.ObservableLongMeasurement;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
@@ -30,6 +31,7 @@ class MetricRegistrar {
   private static final Logger logger = Logger.getLogger(MetricRegistrar.class.getName());
 
   private final Meter meter;
+  private final AttributeSnapshot snapshot = new AttributeSnapshot();
 
   MetricRegistrar(OpenTelemetry openTelemetry, String instrumentationScope) {
     meter = openTelemetry.getMeter(instrumentationScope);
@@ -51,14 +53,15 @@ class MetricRegistrar {
       AttributeInfo attributeInfo) {
     // For the first enrollment of the extractor we have to build the corresponding Instrument
     DetectionStatus status = new DetectionStatus(connection, objectNames);
-    boolean firstEnrollment;
+    DetectionStatus previousStatus;
     synchronized (extractor) {
-      firstEnrollment = extractor.getStatus() == null;
+      previousStatus = extractor.getStatus();
       // For successive enrollments, it is sufficient to refresh the status
       extractor.setStatus(status);
     }
 
-    if (!firstEnrollment) {
+    if (previousStatus != null) {
+      forgetRemovedBeans(previousStatus, status);
       return;
     }
 
@@ -88,9 +91,11 @@ class MetricRegistrar {
           builder.setUnit(unit);
 
           if (recordDoubleValue) {
-            builder.ofDoubles().buildWithCallback(doubleTypeCallback(extractor, unitConverter));
+            builder
+                .ofDoubles()
+                .buildWithCallback(doubleTypeCallback(extractor, unitConverter, snapshot));
           } else {
-            builder.buildWithCallback(longTypeCallback(extractor));
+            builder.buildWithCallback(longTypeCallback(extractor, snapshot));
           }
           logger.log(INFO, "Created Counter for {0}", metricName);
         }
@@ -105,9 +110,11 @@ class MetricRegistrar {
           builder.setUnit(unit);
 
           if (recordDoubleValue) {
-            builder.ofDoubles().buildWithCallback(doubleTypeCallback(extractor, unitConverter));
+            builder
+                .ofDoubles()
+                .buildWithCallback(doubleTypeCallback(extractor, unitConverter, snapshot));
           } else {
-            builder.buildWithCallback(longTypeCallback(extractor));
+            builder.buildWithCallback(longTypeCallback(extractor, snapshot));
           }
           logger.log(INFO, "Created UpDownCounter for {0}", metricName);
         }
@@ -122,9 +129,9 @@ class MetricRegistrar {
           builder.setUnit(unit);
 
           if (recordDoubleValue) {
-            builder.buildWithCallback(doubleTypeCallback(extractor, unitConverter));
+            builder.buildWithCallback(doubleTypeCallback(extractor, unitConverter, snapshot));
           } else {
-            builder.ofLongs().buildWithCallback(longTypeCallback(extractor));
+            builder.ofLongs().buildWithCallback(longTypeCallback(extractor, snapshot));
           }
           logger.log(INFO, "Created Gauge for {0}", metricName);
         }
@@ -138,28 +145,51 @@ class MetricRegistrar {
     }
   }
 
+  /*
+   * Drops the cached attribute values of the MBeans that the extractor no longer uses,
+   * they are read again if another extractor still uses them.
+   */
+  private void forgetRemovedBeans(DetectionStatus previousStatus, DetectionStatus status) {
+    Collection<ObjectName> removed;
+    if (previousStatus.getConnection() != status.getConnection()) {
+      removed = previousStatus.getObjectNames();
+    } else {
+      removed = new HashSet<>(previousStatus.getObjectNames());
+      removed.removeAll(status.getObjectNames());
+    }
+    if (!removed.isEmpty()) {
+      snapshot.forget(previousStatus.getConnection(), removed);
+    }
+  }
+
   /*
    * A method generating metric collection callback for asynchronous Measurement
    * of Double type.
    * If unit converter is provided then conversion is applied before metric is recorded.
    */
   static Consumer<ObservableDoubleMeasurement> doubleTypeCallback(
-      MetricExtractor extractor, @Nullable UnitConverter unitConverter) {
+      MetricExtractor extractor,
+      @Nullable UnitConverter unitConverter,
+      AttributeSnapshot snapshot) {
     return measurement -> {
       DetectionStatus status = extractor.getStatus();
       if (status != null) {
         MBeanServerConnection connection = status.getConnection();
         for (ObjectName objectName : status.getObjectNames()) {
-          Number metricValue =
-              extractor.getMetricValueExtractor().extractNumericalAttribute(connection, objectName);
-          if (metricValue != null) {
-            // get the metric attributes
-            Attributes attr = createMetricAttributes(connection, objectName, extractor);
-
-            if (unitConverter != null) {
-              metricValue = unitConverter.convert(metricValue);
+          try (AttributeSnapshot.Scope ignored = snapshot.open(connection, objectName, extractor)) {
+            Number metricValue =
+                extractor
+                    .getMetricValueExtractor()
+                    .extractNumericalAttribute(connection, objectName);
+            if (metricValue != null) {
+              // get the metric attributes
+              Attributes attr = createMetricAttributes(connection, objectName, extractor);
+
+              if (unitConverter != null) {
+                metricValue = unitConverter.convert(metricValue);
+              }
+              measurement.record(metricValue.doubleValue(), attr);
             }
-            measurement.record(metricValue.doubleValue(), attr);
           }
         }
       }
@@ -170,18 +200,23 @@ class MetricRegistrar {
    * A method generating metric collection callback for asynchronous Measurement
    * of Long type.
    */
-  static Consumer<ObservableLongMeasurement> longTypeCallback(MetricExtractor extractor) {
+  static Consumer<ObservableLongMeasurement> longTypeCallback(
+      MetricExtractor extractor, AttributeSnapshot snapshot) {
     return measurement -> {
       DetectionStatus status = extractor.getStatus();
       if (status != null) {
         MBeanServerConnection connection = status.getConnection();
         for (ObjectName objectName : status.getObjectNames()) {
-          Number metricValue =
-              extractor.getMetricValueExtractor().extractNumericalAttribute(connection, objectName);
-          if (metricValue != null) {
-            // get the metric attributes
-            Attributes attr = createMetricAttributes(connection, objectName, extractor);
-            measurement.record(metricValue.longValue(), attr);
+          try (AttributeSnapshot.Scope ignored = snapshot.open(connection, objectName, extractor)) {
+            Number metricValue =
+                extractor
+                    .getMetricValueExtractor()
+                    .extractNumericalAttribute(connection, objectName);
+            if (metricValue != null) {
+              // get the metric attributes
+              Attributes attr = createMetricAttributes(connection, objectName, extractor);
+              measurement.record(metricValue.longValue(), attr);
+            }
           }
         }
       }
@@ -0,0 +1,124 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttributeSnapshotTest {
+
+  // An MBean used for this test
+  @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+  public interface SampleMBean {
+
+    long getCount();
+
+    String getName();
+  }
+
+  private static class Sample implements SampleMBean {
+    private long count;
+
+    @Override
+    public long getCount() {
+      return count;
+    }
+
+    @Override
+    public String getName() {
+      return "sample";
+    }
+  }
+
+  private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+  private final Sample sample = new Sample();
+  private MBeanServerConnection connection;
+  private ObjectName objectName;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    MBeanServer server = MBeanServerFactory.newMBeanServer("otel.jmx.test");
+    objectName = new ObjectName("otel.jmx.test:type=Sample");
+    server.registerMBean(sample, objectName);
+
+    // count the calls made to the MBeanServer
+    connection =
+        (MBeanServerConnection)
+            Proxy.newProxyInstance(
+                MBeanServerConnection.class.getClassLoader(),
+                new Class<?>[] {MBeanServerConnection.class},
+                (proxy, method, args) -> {
+                  calls
+                      .computeIfAbsent(method.getName(), name -> new AtomicInteger())
+                      .incrementAndGet();
+                  try {
+                    return method.invoke(server, args);
+                  } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                  }
+                });
+  }
+
+  @Test
+  void readsAllAttributesOfBeanOnce() {
+    AttributeSnapshot snapshot = new AttributeSnapshot();
+    BeanAttributeExtractor count = BeanAttributeExtractor.fromName("Count");
+    BeanAttributeExtractor name = BeanAttributeExtractor.fromName("Name");
+    Object firstMetric = new Object();
+    Object secondMetric = new Object();
+
+    for (int collection = 1; collection <= 3; collection++) {
+      sample.count = collection;
+      for (Object metric : new Object[] {firstMetric, secondMetric}) {
+        try (AttributeSnapshot.Scope ignored = snapshot.open(connection, objectName, metric)) {
+          assertThat(count.extractNumericalAttribute(connection, objectName))
+              .isEqualTo((long) collection);
+          assertThat(name.extractValue(connection, objectName)).isEqualTo("sample");
+          // the value of the collection is kept even if the MBean changes
+          sample.count = collection + 10;
+          assertThat(count.extractNumericalAttribute(connection, objectName))
+              .isEqualTo((long) collection);
+          sample.count = collection;
+        }
+      }
+    }
+
+    // the attributes are learned from the first collection and read in bulk afterwards
+    assertThat(calls.get("getAttribute")).hasValue(2);
+    assertThat(calls.get("getAttributes")).hasValue(2);
+
+    // outside of a scope the MBeanServer is queried directly
+    assertThat(count.extractNumericalAttribute(connection, objectName)).isEqualTo(3L);
+    assertThat(calls.get("getAttribute")).hasValue(3);
+  }
+
+  @Test
+  void forgetsUnregisteredBean() throws Exception {
+    AttributeSnapshot snapshot = new AttributeSnapshot();
+    BeanAttributeExtractor count = BeanAttributeExtractor.fromName("Count");
+    Object metric = new Object();
+
+    try (AttributeSnapshot.Scope ignored = snapshot.open(connection, objectName, metric)) {
+      assertThat(count.extractNumericalAttribute(connection, objectName)).isEqualTo(0L);
+    }
+
+    connection.unregisterMBean(objectName);
+    try (AttributeSnapshot.Scope ignored = snapshot.open(connection, objectName, metric)) {
+      assertThat(count.extractNumericalAttribute(connection, objectName)).isNull();
+    }
+  }
+}
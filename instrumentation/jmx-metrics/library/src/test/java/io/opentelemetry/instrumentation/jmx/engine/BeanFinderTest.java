@@ -0,0 +1,148 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.opentelemetry.api.OpenTelemetry;
+import java.time.Duration;
+import java.util.Collections;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BeanFinderTest {
+
+  // An MBean used for this test
+  @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+  public interface CounterMBean {
+
+    long getCount();
+  }
+
+  private static class Counter implements CounterMBean {
+
+    @Override
+    public long getCount() {
+      return 42;
+    }
+  }
+
+  // An MBean whose attribute is not available until it is started
+  @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+  public interface StartingCounterMBean {
+
+    Long getCount();
+  }
+
+  private static class StartingCounter implements StartingCounterMBean {
+    private volatile boolean started;
+
+    @Override
+    public Long getCount() {
+      return started ? 42L : null;
+    }
+  }
+
+  private MBeanServer server;
+
+  @BeforeEach
+  void setUp() {
+    server = MBeanServerFactory.createMBeanServer("otel.jmx.test");
+  }
+
+  @AfterEach
+  void tearDown() {
+    MBeanServerFactory.releaseMBeanServer(server);
+  }
+
+  @Test
+  void findsBeansRegisteredAfterDiscovery() throws Exception {
+    ObjectName first = new ObjectName("otel.jmx.test:type=Counter,name=first");
+    ObjectName second = new ObjectName("otel.jmx.test:type=Counter,name=second");
+    ObjectName other = new ObjectName("otel.jmx.test:type=Other");
+    server.registerMBean(new Counter(), first);
+
+    MetricExtractor extractor = newExtractor();
+    discoverBeans(extractor);
+
+    await()
+        .untilAsserted(
+            () -> {
+              assertThat(extractor.getStatus()).isNotNull();
+              assertThat(extractor.getStatus().getObjectNames()).containsExactly(first);
+            });
+
+    // the server is not scanned again, new MBeans are found from the registration notifications
+    server.registerMBean(new Counter(), second);
+    server.registerMBean(new Counter(), other);
+    await()
+        .atMost(Duration.ofSeconds(1))
+        .untilAsserted(
+            () ->
+                assertThat(extractor.getStatus().getObjectNames())
+                    .containsExactlyInAnyOrder(first, second));
+
+    server.unregisterMBean(first);
+    await()
+        .atMost(Duration.ofSeconds(1))
+        .untilAsserted(
+            () -> assertThat(extractor.getStatus().getObjectNames()).containsExactly(second));
+  }
+
+  @Test
+  void findsBeansWhoseAttributesBecomeAvailableLater() throws Exception {
+    ObjectName first = new ObjectName("otel.jmx.test:type=Counter,name=first");
+    ObjectName starting = new ObjectName("otel.jmx.test:type=Counter,name=starting");
+    server.registerMBean(new Counter(), first);
+
+    MetricExtractor extractor = newExtractor();
+    discoverBeans(extractor);
+
+    await()
+        .untilAsserted(
+            () -> {
+              assertThat(extractor.getStatus()).isNotNull();
+              assertThat(extractor.getStatus().getObjectNames()).containsExactly(first);
+            });
+
+    StartingCounter startingCounter = new StartingCounter();
+    server.registerMBean(startingCounter, starting);
+    // wait for the registration notification to be processed
+    Thread.sleep(500);
+    assertThat(extractor.getStatus().getObjectNames()).containsExactly(first);
+
+    startingCounter.started = true;
+    await()
+        .untilAsserted(
+            () ->
+                assertThat(extractor.getStatus().getObjectNames())
+                    .containsExactlyInAnyOrder(first, starting));
+  }
+
+  private static MetricExtractor newExtractor() {
+    return new MetricExtractor(
+        BeanAttributeExtractor.fromName("Count"),
+        new MetricInfo("test.count", null, null, "1", MetricInfo.Type.GAUGE),
+        Collections.emptyList());
+  }
+
+  private void discoverBeans(MetricExtractor extractor) throws Exception {
+    MetricConfiguration conf = new MetricConfiguration();
+    conf.addMetricDef(
+        new MetricDef(
+            BeanGroup.forSingleBean("otel.jmx.test:type=Counter,*"),
+            Collections.singletonList(extractor)));
+
+    BeanFinder finder =
+        new BeanFinder(new MetricRegistrar(OpenTelemetry.noop(), "test"), /* discoveryDelay= */ 0);
+    finder.discoverBeans(conf, () -> Collections.singletonList(server));
+  }
+}
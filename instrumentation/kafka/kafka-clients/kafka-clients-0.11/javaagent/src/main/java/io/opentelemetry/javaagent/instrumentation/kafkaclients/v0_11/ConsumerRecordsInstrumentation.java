@@ -6,6 +6,7 @@
 package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
 
 import static io.opentelemetry.javaagent.bootstrap.kafka.KafkaClientsConsumerProcessTracing.wrappingEnabledSupplier;
+import static io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11.KafkaSingletons.batchProcessTracing;
 import static io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11.KafkaSingletons.consumerProcessInstrumenter;
 import static net.bytebuddy.matcher.ElementMatchers.isMethod;
 import static net.bytebuddy.matcher.ElementMatchers.isPublic;
@@ -14,6 +15,7 @@ import static net.bytebuddy.matcher.ElementMatchers.returns;
 import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
 import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
 
+import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaBatchProcessTracing;
 import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaConsumerContext;
 import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaConsumerContextUtil;
 import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.TracingIterable;
@@ -115,9 +117,18 @@ public class ConsumerRecordsInstrumentation implements TypeInstrumentation {
       // case it's important to overwrite the leaked span instead of suppressing the correct span
       // (https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/1947)
       KafkaConsumerContext consumerContext = KafkaConsumerContextUtil.get(records);
-      iterator =
-          TracingIterator.wrap(
-              iterator, consumerProcessInstrumenter(), wrappingEnabledSupplier(), consumerContext);
+      KafkaBatchProcessTracing batchProcessTracing = batchProcessTracing();
+      if (batchProcessTracing != null) {
+        iterator =
+            batchProcessTracing.wrap(iterator, records, wrappingEnabledSupplier(), consumerContext);
+      } else {
+        iterator =
+            TracingIterator.wrap(
+                iterator,
+                consumerProcessInstrumenter(),
+                wrappingEnabledSupplier(),
+                consumerContext);
+      }
     }
   }
 }
@@ -7,12 +7,14 @@ package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaBatchProcessTracing;
 import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaInstrumenterFactory;
 import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaProcessRequest;
 import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaProducerRequest;
 import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaReceiveRequest;
 import io.opentelemetry.javaagent.bootstrap.internal.AgentInstrumentationConfig;
 import io.opentelemetry.javaagent.bootstrap.internal.ExperimentalConfig;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.producer.RecordMetadata;
 
 public final class KafkaSingletons {
@@ -25,6 +27,7 @@ public final class KafkaSingletons {
   private static final Instrumenter<KafkaProducerRequest, RecordMetadata> PRODUCER_INSTRUMENTER;
   private static final Instrumenter<KafkaReceiveRequest, Void> CONSUMER_RECEIVE_INSTRUMENTER;
   private static final Instrumenter<KafkaProcessRequest, Void> CONSUMER_PROCESS_INSTRUMENTER;
+  @Nullable private static final KafkaBatchProcessTracing BATCH_PROCESS_TRACING;
 
   static {
     KafkaInstrumenterFactory instrumenterFactory =
@@ -38,6 +41,15 @@ public final class KafkaSingletons {
     PRODUCER_INSTRUMENTER = instrumenterFactory.createProducerInstrumenter();
     CONSUMER_RECEIVE_INSTRUMENTER = instrumenterFactory.createConsumerReceiveInstrumenter();
     CONSUMER_PROCESS_INSTRUMENTER = instrumenterFactory.createConsumerProcessInstrumenter();
+    if (AgentInstrumentationConfig.get()
+        .getBoolean("otel.instrumentation.kafka.experimental-batch-process.enabled", false)) {
+      BATCH_PROCESS_TRACING =
+          instrumenterFactory.createBatchProcessTracing(
+              AgentInstrumentationConfig.get()
+                  .getInt("otel.instrumentation.kafka.experimental-batch-process.max-links", 128));
+    } else {
+      BATCH_PROCESS_TRACING = null;
+    }
   }
 
   public static boolean isProducerPropagationEnabled() {
@@ -56,5 +68,14 @@ public final class KafkaSingletons {
     return CONSUMER_PROCESS_INSTRUMENTER;
   }
 
+  /**
+   * Returns the tracing that creates one process span per iteration over the records of a poll, or
+   * {@code null} when every record gets its own process span.
+   */
+  @Nullable
+  public static KafkaBatchProcessTracing batchProcessTracing() {
+    return BATCH_PROCESS_TRACING;
+  }
+
   private KafkaSingletons() {}
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
+
+import static io.opentelemetry.instrumentation.testing.util.TelemetryDataUtil.orderByRootSpanKind;
+import static io.opentelemetry.instrumentation.testing.util.TelemetryDataUtil.orderByRootSpanName;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal.KafkaClientPropagationBaseTest;
+import io.opentelemetry.instrumentation.testing.junit.AgentInstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import io.opentelemetry.sdk.testing.assertj.TraceAssert;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class KafkaClientBatchProcessTest extends KafkaClientPropagationBaseTest {
+
+  // matches otel.instrumentation.kafka.experimental-batch-process.max-links in build.gradle.kts
+  private static final int MAX_LINKS = 3;
+
+  @RegisterExtension
+  static final InstrumentationExtension testing = AgentInstrumentationExtension.create();
+
+  @Test
+  void testKafkaProduceAndConsume() throws Exception {
+    String greeting = "Hello Kafka!";
+    testing.runWithSpan(
+        "parent",
+        () -> {
+          producer.send(new ProducerRecord<>(SHARED_TOPIC, 10, greeting)).get();
+        });
+
+    awaitUntilConsumerIsReady();
+    ConsumerRecords<?, ?> records = poll(Duration.ofSeconds(5));
+    assertThat(records.count()).isEqualTo(1);
+
+    for (ConsumerRecord<?, ?> record : records) {
+      testing.runWithSpan(
+          "processing",
+          () -> {
+            assertThat(record.key()).isEqualTo(10);
+            assertThat(record.value()).isEqualTo(greeting);
+          });
+    }
+
+    AtomicReference<SpanData> producerSpan = new AtomicReference<>();
+    testing.waitAndAssertSortedTraces(
+        orderByRootSpanKind(SpanKind.INTERNAL, SpanKind.CONSUMER),
+        trace -> {
+          trace.hasSpansSatisfyingExactly(
+              span -> span.hasName("parent").hasKind(SpanKind.INTERNAL).hasNoParent(),
+              span ->
+                  span.hasName(SHARED_TOPIC + " publish")
+                      .hasKind(SpanKind.PRODUCER)
+                      .hasParent(trace.getSpan(0))
+                      .hasAttributesSatisfyingExactly(sendAttributes("10", greeting, false)),
+              // work done for a record of a sampled trace continues that trace
+              span ->
+                  span.hasName("processing")
+                      .hasKind(SpanKind.INTERNAL)
+                      .hasParent(trace.getSpan(1)));
+          producerSpan.set(trace.getSpan(1));
+        },
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasName(SHARED_TOPIC + " process")
+                        .hasKind(SpanKind.CONSUMER)
+                        .hasNoParent()
+                        .hasLinks(LinkData.create(producerSpan.get().getSpanContext()))));
+  }
+
+  @Test
+  void testLinksAreLimited() throws Exception {
+    int recordCount = MAX_LINKS + 2;
+    for (int i = 0; i < recordCount; i++) {
+      int key = i;
+      testing.runWithSpan(
+          "parent " + i,
+          () -> {
+            producer.send(new ProducerRecord<>(SHARED_TOPIC, key, "record " + key)).get();
+          });
+    }
+
+    awaitUntilConsumerIsReady();
+    ConsumerRecords<?, ?> records = poll(Duration.ofSeconds(5));
+    assertThat(records.count()).isEqualTo(recordCount);
+
+    for (ConsumerRecord<?, ?> record : records) {
+      testing.runWithSpan("processing " + record.key(), () -> {});
+    }
+
+    List<String> rootSpanNames = new ArrayList<>();
+    List<Consumer<TraceAssert>> assertions = new ArrayList<>();
+    SpanData[] producerSpans = new SpanData[recordCount];
+    for (int i = 0; i < recordCount; i++) {
+      int index = i;
+      rootSpanNames.add("parent " + i);
+      assertions.add(
+          trace -> {
+            trace.hasSpansSatisfyingExactly(
+                span -> span.hasName("parent " + index).hasNoParent(),
+                span ->
+                    span.hasName(SHARED_TOPIC + " publish")
+                        .hasKind(SpanKind.PRODUCER)
+                        .hasParent(trace.getSpan(0)),
+                span -> span.hasName("processing " + index).hasParent(trace.getSpan(1)));
+            producerSpans[index] = trace.getSpan(1);
+          });
+    }
+    rootSpanNames.add(SHARED_TOPIC + " process");
+    assertions.add(
+        trace -> {
+          // only the first records of the batch are linked
+          List<LinkData> expectedLinks = new ArrayList<>();
+          for (int i = 0; i < MAX_LINKS; i++) {
+            expectedLinks.add(LinkData.create(producerSpans[i].getSpanContext()));
+          }
+          trace.hasSpansSatisfyingExactly(
+              span ->
+                  span.hasName(SHARED_TOPIC + " process")
+                      .hasKind(SpanKind.CONSUMER)
+                      .hasNoParent()
+                      .hasLinks(expectedLinks));
+        });
+
+    testing.waitAndAssertSortedTraces(
+        orderByRootSpanName(rootSpanNames.toArray(new String[0])), assertions);
+  }
+
+  @Test
+  void testUnsampledParentIsNotLinked() throws Exception {
+    SpanContext unsampledParent =
+        SpanContext.create(
+            "ff000000000000000000000000000041",
+            "ff00000000000041",
+            TraceFlags.getDefault(),
+            TraceState.getDefault());
+    try (Scope ignored = Context.root().with(Span.wrap(unsampledParent)).makeCurrent()) {
+      producer.send(new ProducerRecord<>(SHARED_TOPIC, 1, "unsampled")).get();
+    }
+    testing.runWithSpan(
+        "parent",
+        () -> {
+          producer.send(new ProducerRecord<>(SHARED_TOPIC, 2, "sampled")).get();
+        });
+
+    awaitUntilConsumerIsReady();
+    ConsumerRecords<?, ?> records = poll(Duration.ofSeconds(5));
+    assertThat(records.count()).isEqualTo(2);
+
+    for (ConsumerRecord<?, ?> record : records) {
+      testing.runWithSpan("processing " + record.value(), () -> {});
+    }
+
+    AtomicReference<SpanData> producerSpan = new AtomicReference<>();
+    testing.waitAndAssertSortedTraces(
+        orderByRootSpanKind(SpanKind.INTERNAL, SpanKind.CONSUMER),
+        trace -> {
+          trace.hasSpansSatisfyingExactly(
+              span -> span.hasName("parent").hasKind(SpanKind.INTERNAL).hasNoParent(),
+              span ->
+                  span.hasName(SHARED_TOPIC + " publish")
+                      .hasKind(SpanKind.PRODUCER)
+                      .hasParent(trace.getSpan(0)),
+              span ->
+                  span.hasName("processing sampled")
+                      .hasKind(SpanKind.INTERNAL)
+                      .hasParent(trace.getSpan(1)));
+          producerSpan.set(trace.getSpan(1));
+        },
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasName(SHARED_TOPIC + " process")
+                        .hasKind(SpanKind.CONSUMER)
+                        .hasNoParent()
+                        .hasLinks(LinkData.create(producerSpan.get().getSpanContext())),
+                // work done for a record of an unsampled trace stays in the batch span
+                span ->
+                    span.hasName("processing unsampled")
+                        .hasKind(SpanKind.INTERNAL)
+                        .hasParent(trace.getSpan(0))));
+  }
+}
@@ -6,6 +6,7 @@
 package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
 
 import static io.opentelemetry.instrumentation.testing.util.TelemetryDataUtil.orderByRootSpanKind;
+import static io.opentelemetry.instrumentation.testing.util.TelemetryDataUtil.orderByRootSpanName;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.opentelemetry.api.trace.SpanKind;
@@ -111,6 +112,68 @@ class KafkaClientDefaultTest extends KafkaClientPropagationBaseTest {
                 span -> span.hasName("processing").hasParent(trace.getSpan(1))));
   }
 
+  @Test
+  void testRecordsOfOnePollAreProcessedSeparately() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      int key = i;
+      testing.runWithSpan(
+          "parent " + i,
+          () -> {
+            producer.send(new ProducerRecord<>(SHARED_TOPIC, key, "record " + key)).get();
+          });
+    }
+
+    awaitUntilConsumerIsReady();
+    ConsumerRecords<?, ?> records = poll(Duration.ofSeconds(5));
+    assertThat(records.count()).isEqualTo(2);
+
+    for (ConsumerRecord<?, ?> record : records) {
+      testing.runWithSpan("processing " + record.key(), () -> {});
+    }
+
+    // without experimental batch processing every record gets its own process span
+    AtomicReference<SpanData> producerSpan0 = new AtomicReference<>();
+    AtomicReference<SpanData> producerSpan1 = new AtomicReference<>();
+    testing.waitAndAssertSortedTraces(
+        orderByRootSpanName("parent 0", "parent 1", SHARED_TOPIC + " receive"),
+        trace -> {
+          trace.hasSpansSatisfyingExactly(
+              span -> span.hasName("parent 0").hasNoParent(),
+              span ->
+                  span.hasName(SHARED_TOPIC + " publish")
+                      .hasKind(SpanKind.PRODUCER)
+                      .hasParent(trace.getSpan(0)));
+          producerSpan0.set(trace.getSpan(1));
+        },
+        trace -> {
+          trace.hasSpansSatisfyingExactly(
+              span -> span.hasName("parent 1").hasNoParent(),
+              span ->
+                  span.hasName(SHARED_TOPIC + " publish")
+                      .hasKind(SpanKind.PRODUCER)
+                      .hasParent(trace.getSpan(0)));
+          producerSpan1.set(trace.getSpan(1));
+        },
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasName(SHARED_TOPIC + " receive")
+                        .hasKind(SpanKind.CONSUMER)
+                        .hasNoParent(),
+                span ->
+                    span.hasName(SHARED_TOPIC + " process")
+                        .hasKind(SpanKind.CONSUMER)
+                        .hasParent(trace.getSpan(0))
+                        .hasLinks(LinkData.create(producerSpan0.get().getSpanContext())),
+                span -> span.hasName("processing 0").hasParent(trace.getSpan(1)),
+                span ->
+                    span.hasName(SHARED_TOPIC + " process")
+                        .hasKind(SpanKind.CONSUMER)
+                        .hasParent(trace.getSpan(0))
+                        .hasLinks(LinkData.create(producerSpan1.get().getSpanContext())),
+                span -> span.hasName("processing 1").hasParent(trace.getSpan(3))));
+  }
+
   @DisplayName("test pass through tombstone")
   @Test
   void testPassThroughTombstone()
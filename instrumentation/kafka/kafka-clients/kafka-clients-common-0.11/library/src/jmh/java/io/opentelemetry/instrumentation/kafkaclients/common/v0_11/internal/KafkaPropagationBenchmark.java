@@ -0,0 +1,112 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal;
+
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares extracting the parent context of the records of one poll through the propagator with
+ * reading the {@code traceparent} header bytes directly, for the W3C trace context propagator alone
+ * and combined with the W3C baggage propagator as it is by default. The records carry the headers
+ * that a Spring Kafka producer typically adds next to the trace context, a few of them also carry
+ * trace state or baggage.
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class KafkaPropagationBenchmark {
+
+  private static final int RECORDS_PER_POLL = 500;
+
+  @Param({"tracecontext", "tracecontext,baggage"})
+  public String propagators;
+
+  private TextMapPropagator propagator;
+  private BiFunction<Context, KafkaProcessRequest, Context> headerBytesExtractor;
+  private final KafkaProcessRequest[] requests = new KafkaProcessRequest[RECORDS_PER_POLL];
+
+  @Setup
+  public void setup() {
+    propagator =
+        propagators.equals("tracecontext")
+            ? W3CTraceContextPropagator.getInstance()
+            : TextMapPropagator.composite(
+                W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance());
+    headerBytesExtractor = KafkaPropagation.headerBytesExtractor(propagator);
+
+    Random random = new Random(0);
+    for (int i = 0; i < RECORDS_PER_POLL; i++) {
+      ConsumerRecord<String, String> record =
+          new ConsumerRecord<>("orders", i % 12, 1_000_000L + i, "key-" + i, "{}");
+      Headers headers = record.headers();
+      add(headers, "__TypeId__", "com.example.orders.OrderCreated");
+      add(headers, "contentType", "application/json");
+      add(headers, "correlationId", UUID.randomUUID().toString());
+      add(
+          headers,
+          "traceparent",
+          String.format(
+              Locale.ROOT,
+              "00-%016x%016x-%016x-01",
+              random.nextLong(),
+              random.nextLong(),
+              random.nextLong()));
+      if (i % 50 == 0) {
+        add(headers, "tracestate", "vendor=t61rcWkgMzE");
+      }
+      if (i % 10 == 0) {
+        add(headers, "baggage", "tenant=acme,region=eu-west-1");
+      }
+      add(headers, "sentAt", Long.toString(1_700_000_000_000L + i));
+      requests[i] = KafkaProcessRequest.create(record, "order-processor", "consumer-1");
+    }
+  }
+
+  private static void add(Headers headers, String key, String value) {
+    headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public void propagator(Blackhole blackhole) {
+    for (KafkaProcessRequest request : requests) {
+      blackhole.consume(
+          propagator.extract(Context.root(), request, KafkaConsumerRecordGetter.INSTANCE));
+    }
+  }
+
+  @Benchmark
+  public void headerBytes(Blackhole blackhole) {
+    for (KafkaProcessRequest request : requests) {
+      blackhole.consume(headerBytesExtractor.apply(Context.root(), request));
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.instrumentation.api.instrumenter.ContextCustomizer;
+import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+final class BatchProcessTracingIterator<K, V> implements Iterator<ConsumerRecord<K, V>> {
+
+  private final Iterator<ConsumerRecord<K, V>> delegateIterator;
+  private final Instrumenter<KafkaReceiveRequest, Void> instrumenter;
+  private final ContextCustomizer<KafkaProcessRequest> contextExtractor;
+  private final BooleanSupplier wrappingEnabled;
+  private final Context parentContext;
+  private final KafkaReceiveRequest batchRequest;
+  private final KafkaConsumerContext consumerContext;
+
+  // like TracingIterator this assumes that the iterator is used from a single thread
+  @Nullable private Context batchContext;
+  @Nullable private Scope batchScope;
+  @Nullable private Scope recordScope;
+
+  BatchProcessTracingIterator(
+      Iterator<ConsumerRecord<K, V>> delegateIterator,
+      Instrumenter<KafkaReceiveRequest, Void> instrumenter,
+      ContextCustomizer<KafkaProcessRequest> contextExtractor,
+      BooleanSupplier wrappingEnabled,
+      KafkaReceiveRequest batchRequest,
+      KafkaConsumerContext consumerContext) {
+    this.delegateIterator = delegateIterator;
+    this.instrumenter = instrumenter;
+    this.contextExtractor = contextExtractor;
+    this.wrappingEnabled = wrappingEnabled;
+    this.batchRequest = batchRequest;
+    this.consumerContext = consumerContext;
+
+    Context receiveContext = consumerContext.getContext();
+    // use the receive CONSUMER as parent if it's available
+    this.parentContext = receiveContext != null ? receiveContext : Context.current();
+  }
+
+  @Override
+  public boolean hasNext() {
+    closeRecordScope();
+    boolean hasNext = delegateIterator.hasNext();
+    if (!hasNext) {
+      closeScopeAndEndSpan();
+    }
+    return hasNext;
+  }
+
+  @Override
+  public ConsumerRecord<K, V> next() {
+    // in case they didn't call hasNext()...
+    closeRecordScope();
+
+    ConsumerRecord<K, V> next = delegateIterator.next();
+    if (next != null && wrappingEnabled.getAsBoolean()) {
+      Context context = batchContext;
+      if (context == null) {
+        // see TracingIterator for why this does not check Instrumenter.shouldStart()
+        context = instrumenter.start(parentContext, batchRequest);
+        batchContext = context;
+        batchScope = context.makeCurrent();
+      }
+      // only switch the context for records that continue a sampled trace, all other records are
+      // processed in the context of the batch span
+      Context recordContext =
+          contextExtractor.onStart(
+              context, KafkaProcessRequest.create(consumerContext, next), Attributes.empty());
+      SpanContext upstreamSpanContext = Span.fromContext(recordContext).getSpanContext();
+      if (upstreamSpanContext.isRemote() && upstreamSpanContext.isSampled()) {
+        recordScope = recordContext.makeCurrent();
+      }
+    }
+    return next;
+  }
+
+  private void closeRecordScope() {
+    if (recordScope != null) {
+      recordScope.close();
+      recordScope = null;
+    }
+  }
+
+  private void closeScopeAndEndSpan() {
+    if (batchScope != null) {
+      batchScope.close();
+      instrumenter.end(batchContext, batchRequest, null, null);
+      batchScope = null;
+      batchContext = null;
+    }
+  }
+
+  @Override
+  public void remove() {
+    delegateIterator.remove();
+  }
+}
@@ -5,33 +5,94 @@
 
 package io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanLinksBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanLinksExtractor;
-import io.opentelemetry.instrumentation.api.internal.PropagatorBasedSpanLinksExtractor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
 final class KafkaBatchProcessSpanLinksExtractor implements SpanLinksExtractor<KafkaReceiveRequest> {
 
   private final SpanLinksExtractor<KafkaProcessRequest> singleRecordLinkExtractor;
+  private final int maxLinks;
+  private final boolean sampledOnly;
 
   KafkaBatchProcessSpanLinksExtractor(TextMapPropagator propagator) {
-    this.singleRecordLinkExtractor =
-        new PropagatorBasedSpanLinksExtractor<>(propagator, KafkaConsumerRecordGetter.INSTANCE);
+    this(propagator, Integer.MAX_VALUE, false);
+  }
+
+  /**
+   * Links at most {@code maxLinks} records, and when {@code sampledOnly} is set only records whose
+   * upstream span was sampled.
+   */
+  KafkaBatchProcessSpanLinksExtractor(
+      TextMapPropagator propagator, int maxLinks, boolean sampledOnly) {
+    this.singleRecordLinkExtractor = KafkaPropagation.spanLinksExtractor(propagator);
+    this.maxLinks = maxLinks;
+    this.sampledOnly = sampledOnly;
   }
 
   @Override
   public void extract(
       SpanLinksBuilder spanLinks, Context parentContext, KafkaReceiveRequest request) {
 
+    LimitingSpanLinksBuilder links = new LimitingSpanLinksBuilder(spanLinks, maxLinks, sampledOnly);
     for (ConsumerRecord<?, ?> record : request.getRecords()) {
+      if (links.isFull()) {
+        return;
+      }
       // explicitly passing root to avoid situation where context propagation is turned off and the
       // parent (CONSUMER receive) span is linked
       singleRecordLinkExtractor.extract(
-          spanLinks,
+          links,
           Context.root(),
           KafkaProcessRequest.create(record, request.getConsumerGroup(), request.getClientId()));
     }
   }
+
+  private static final class LimitingSpanLinksBuilder implements SpanLinksBuilder {
+
+    private final SpanLinksBuilder delegate;
+    private final boolean sampledOnly;
+    private int remaining;
+
+    LimitingSpanLinksBuilder(SpanLinksBuilder delegate, int maxLinks, boolean sampledOnly) {
+      this.delegate = delegate;
+      this.remaining = maxLinks;
+      this.sampledOnly = sampledOnly;
+    }
+
+    boolean isFull() {
+      return remaining <= 0;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public SpanLinksBuilder addLink(SpanContext spanContext) {
+      if (shouldLink(spanContext)) {
+        delegate.addLink(spanContext);
+      }
+      return this;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public SpanLinksBuilder addLink(SpanContext spanContext, Attributes attributes) {
+      if (shouldLink(spanContext)) {
+        delegate.addLink(spanContext, attributes);
+      }
+      return this;
+    }
+
+    private boolean shouldLink(SpanContext spanContext) {
+      if (isFull() || !spanContext.isValid() || (sampledOnly && !spanContext.isSampled())) {
+        return false;
+      }
+      remaining--;
+      return true;
+    }
+  }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal;
+
+import io.opentelemetry.instrumentation.api.instrumenter.ContextCustomizer;
+import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+
+/**
+ * Traces the processing of the records returned by a poll with a single process span, instead of
+ * starting and ending a span for every record like {@link TracingIterator} does. The span links the
+ * sampled upstream spans of the records. While a record with a sampled upstream span is processed
+ * its upstream context is made current, so that the spans created for it continue its trace.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class KafkaBatchProcessTracing {
+
+  private final Instrumenter<KafkaReceiveRequest, Void> instrumenter;
+  private final ContextCustomizer<KafkaProcessRequest> contextExtractor;
+
+  KafkaBatchProcessTracing(
+      Instrumenter<KafkaReceiveRequest, Void> instrumenter,
+      ContextCustomizer<KafkaProcessRequest> contextExtractor) {
+    this.instrumenter = instrumenter;
+    this.contextExtractor = contextExtractor;
+  }
+
+  public <K, V> Iterator<ConsumerRecord<K, V>> wrap(
+      Iterator<ConsumerRecord<K, V>> delegateIterator,
+      ConsumerRecords<?, ?> records,
+      BooleanSupplier wrappingEnabled,
+      KafkaConsumerContext consumerContext) {
+    if (wrappingEnabled.getAsBoolean()) {
+      return new BatchProcessTracingIterator<>(
+          delegateIterator,
+          instrumenter,
+          contextExtractor,
+          wrappingEnabled,
+          KafkaReceiveRequest.create(consumerContext, records),
+          consumerContext);
+    }
+    return delegateIterator;
+  }
+}
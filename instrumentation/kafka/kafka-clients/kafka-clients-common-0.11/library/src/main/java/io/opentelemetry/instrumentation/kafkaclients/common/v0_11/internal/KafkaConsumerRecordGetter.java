@@ -7,8 +7,9 @@ package io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal;
 
 import io.opentelemetry.context.propagation.internal.ExtendedTextMapGetter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.stream.Collectors;
+import java.util.List;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import org.apache.kafka.common.header.Header;
@@ -18,9 +19,11 @@ enum KafkaConsumerRecordGetter implements ExtendedTextMapGetter<KafkaProcessRequ
 
   @Override
   public Iterable<String> keys(KafkaProcessRequest carrier) {
-    return StreamSupport.stream(carrier.getRecord().headers().spliterator(), false)
-        .map(Header::key)
-        .collect(Collectors.toList());
+    List<String> keys = new ArrayList<>();
+    for (Header header : carrier.getRecord().headers()) {
+      keys.add(header.key());
+    }
+    return keys;
   }
 
   @Nullable
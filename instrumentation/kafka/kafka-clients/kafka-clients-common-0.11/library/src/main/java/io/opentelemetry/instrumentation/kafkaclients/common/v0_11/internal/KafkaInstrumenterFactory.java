@@ -9,6 +9,8 @@ import static java.util.Collections.emptyList;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.instrumentation.api.incubator.semconv.messaging.MessageOperation;
 import io.opentelemetry.instrumentation.api.incubator.semconv.messaging.MessagingAttributesExtractor;
 import io.opentelemetry.instrumentation.api.incubator.semconv.messaging.MessagingAttributesGetter;
@@ -18,11 +20,12 @@ import io.opentelemetry.instrumentation.api.instrumenter.ErrorCauseExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanKindExtractor;
-import io.opentelemetry.instrumentation.api.internal.PropagatorBasedSpanLinksExtractor;
+import io.opentelemetry.instrumentation.api.internal.InstrumenterUtil;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiFunction;
 import org.apache.kafka.clients.producer.RecordMetadata;
 
 /**
@@ -136,18 +139,41 @@ public final class KafkaInstrumenterFactory {
       builder.addAttributesExtractor(new KafkaConsumerExperimentalAttributesExtractor());
     }
 
+    TextMapPropagator propagator = openTelemetry.getPropagators().getTextMapPropagator();
     if (messagingReceiveInstrumentationEnabled) {
-      builder.addSpanLinksExtractor(
-          new PropagatorBasedSpanLinksExtractor<>(
-              openTelemetry.getPropagators().getTextMapPropagator(),
-              KafkaConsumerRecordGetter.INSTANCE));
+      builder.addSpanLinksExtractor(KafkaPropagation.spanLinksExtractor(propagator));
       return builder.buildInstrumenter(SpanKindExtractor.alwaysConsumer());
-    } else {
-      return builder.buildConsumerInstrumenter(KafkaConsumerRecordGetter.INSTANCE);
     }
+    BiFunction<Context, KafkaProcessRequest, Context> headerBytesExtractor =
+        KafkaPropagation.headerBytesExtractor(propagator);
+    if (headerBytesExtractor != null) {
+      // like the getter, the context is extracted before the span is started
+      return InstrumenterUtil.buildUpstreamInstrumenter(
+          builder, headerBytesExtractor, SpanKindExtractor.alwaysConsumer());
+    }
+    return builder.buildConsumerInstrumenter(KafkaConsumerRecordGetter.INSTANCE);
   }
 
   public Instrumenter<KafkaReceiveRequest, Void> createBatchProcessInstrumenter() {
+    return createBatchProcessInstrumenter(
+        new KafkaBatchProcessSpanLinksExtractor(
+            openTelemetry.getPropagators().getTextMapPropagator()));
+  }
+
+  /**
+   * Returns a {@link KafkaBatchProcessTracing} that creates one process span per iteration over the
+   * records of a poll, linked to at most {@code maxLinks} sampled upstream spans.
+   */
+  public KafkaBatchProcessTracing createBatchProcessTracing(int maxLinks) {
+    TextMapPropagator propagator = openTelemetry.getPropagators().getTextMapPropagator();
+    return new KafkaBatchProcessTracing(
+        createBatchProcessInstrumenter(
+            new KafkaBatchProcessSpanLinksExtractor(propagator, maxLinks, true)),
+        KafkaPropagation.contextExtractor(propagator));
+  }
+
+  private Instrumenter<KafkaReceiveRequest, Void> createBatchProcessInstrumenter(
+      KafkaBatchProcessSpanLinksExtractor spanLinksExtractor) {
     KafkaReceiveAttributesGetter getter = KafkaReceiveAttributesGetter.INSTANCE;
     MessageOperation operation = MessageOperation.PROCESS;
 
@@ -158,9 +184,7 @@ public final class KafkaInstrumenterFactory {
         .addAttributesExtractor(
             buildMessagingAttributesExtractor(getter, operation, capturedHeaders))
         .addAttributesExtractor(KafkaReceiveAttributesExtractor.INSTANCE)
-        .addSpanLinksExtractor(
-            new KafkaBatchProcessSpanLinksExtractor(
-                openTelemetry.getPropagators().getTextMapPropagator()))
+        .addSpanLinksExtractor(spanLinksExtractor)
         .setErrorCauseExtractor(errorCauseExtractor)
         .buildInstrumenter(SpanKindExtractor.alwaysConsumer());
   }
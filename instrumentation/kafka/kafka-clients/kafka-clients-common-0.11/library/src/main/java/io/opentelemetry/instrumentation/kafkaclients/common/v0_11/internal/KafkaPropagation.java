@@ -6,10 +6,25 @@
 package io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.instrumentation.api.instrumenter.ContextCustomizer;
+import io.opentelemetry.instrumentation.api.instrumenter.SpanLinksExtractor;
+import io.opentelemetry.instrumentation.api.internal.PropagatorBasedSpanLinksExtractor;
 import io.opentelemetry.javaagent.tooling.muzzle.NoMuzzle;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.ApiVersions;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.record.RecordBatch;
 
 /**
@@ -19,6 +34,24 @@ import org.apache.kafka.common.record.RecordBatch;
 public final class KafkaPropagation {
 
   private static final KafkaHeadersSetter SETTER = KafkaHeadersSetter.INSTANCE;
+  private static final KafkaConsumerRecordGetter GETTER = KafkaConsumerRecordGetter.INSTANCE;
+
+  private static final String TRACE_PARENT = "traceparent";
+  private static final String TRACE_STATE = "tracestate";
+
+  // 00-<32 hex trace id>-<16 hex span id>-<2 hex trace flags>
+  private static final int TRACE_PARENT_LENGTH = 55;
+  private static final int TRACE_ID_OFFSET = 3;
+  private static final int SPAN_ID_OFFSET = 36;
+  private static final int TRACE_FLAGS_OFFSET = 53;
+  private static final String TRACE_CONTEXT_AND_BAGGAGE =
+      TextMapPropagator.composite(
+              W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance())
+          .toString();
+  private static final String BAGGAGE_AND_TRACE_CONTEXT =
+      TextMapPropagator.composite(
+              W3CBaggagePropagator.getInstance(), W3CTraceContextPropagator.getInstance())
+          .toString();
   private static final boolean hasMaxUsableProduceMagic = hasMaxUsableProduceMagic();
 
   // Do not inject headers for batch versions below 2
@@ -74,5 +107,143 @@ public final class KafkaPropagation {
         .inject(context, record.headers(), SETTER);
   }
 
+  /**
+   * Returns whether the span context of records can be extracted with {@link #extract(Context,
+   * KafkaProcessRequest)}, which reads the {@code traceparent} header bytes directly instead of
+   * decoding the headers into strings for the propagator. This is the case for the W3C trace
+   * context propagator, alone or combined with the W3C baggage propagator as it is by default.
+   * Other propagators may read other headers and always go through the propagator.
+   */
+  static boolean canExtractFromHeaderBytes(TextMapPropagator propagator) {
+    return headerBytesExtractor(propagator) != null;
+  }
+
+  /**
+   * Returns a function that extracts the context of a record on top of the given context like the
+   * given propagator does, reading the trace context from the header bytes, or {@code null} if the
+   * propagator may read other headers than the W3C trace context and baggage.
+   */
+  @Nullable
+  static BiFunction<Context, KafkaProcessRequest, Context> headerBytesExtractor(
+      TextMapPropagator propagator) {
+    if (propagator == W3CTraceContextPropagator.getInstance()) {
+      return KafkaPropagation::extract;
+    }
+    // the composite propagator does not expose its propagators, but its description lists them
+    String description = propagator.toString();
+    if (TRACE_CONTEXT_AND_BAGGAGE.equals(description)
+        || BAGGAGE_AND_TRACE_CONTEXT.equals(description)) {
+      return KafkaPropagation::extractWithBaggage;
+    }
+    return null;
+  }
+
+  /**
+   * Returns a {@link ContextCustomizer} that extracts the context of a record on top of the given
+   * context, reading the trace context from the header bytes when possible.
+   */
+  static ContextCustomizer<KafkaProcessRequest> contextExtractor(TextMapPropagator propagator) {
+    BiFunction<Context, KafkaProcessRequest, Context> headerBytesExtractor =
+        headerBytesExtractor(propagator);
+    if (headerBytesExtractor != null) {
+      return (parentContext, request, startAttributes) ->
+          headerBytesExtractor.apply(parentContext, request);
+    }
+    return (parentContext, request, startAttributes) ->
+        propagator.extract(parentContext, request, GETTER);
+  }
+
+  /**
+   * Returns a {@link SpanLinksExtractor} that links the span context of a record, using {@link
+   * #extract(Context, KafkaProcessRequest)} when possible.
+   */
+  static SpanLinksExtractor<KafkaProcessRequest> spanLinksExtractor(TextMapPropagator propagator) {
+    if (canExtractFromHeaderBytes(propagator)) {
+      // links only carry the span context, baggage is not needed
+      return (spanLinks, parentContext, request) ->
+          spanLinks.addLink(Span.fromContext(extract(parentContext, request)).getSpanContext());
+    }
+    return new PropagatorBasedSpanLinksExtractor<>(propagator, GETTER);
+  }
+
+  // equivalent to the default composite of the W3C trace context and baggage propagators
+  static Context extractWithBaggage(Context context, KafkaProcessRequest request) {
+    return W3CBaggagePropagator.getInstance().extract(extract(context, request), request, GETTER);
+  }
+
+  // equivalent to W3CTraceContextPropagator.getInstance().extract(context, request, GETTER)
+  static Context extract(Context context, KafkaProcessRequest request) {
+    Headers headers = request.getRecord().headers();
+    Header traceParentHeader = headers.lastHeader(TRACE_PARENT);
+    if (traceParentHeader == null) {
+      return context;
+    }
+    byte[] traceParent = traceParentHeader.value();
+    if (traceParent == null) {
+      return context;
+    }
+    SpanContext spanContext = parseTraceParent(traceParent);
+    if (!spanContext.isValid()) {
+      return context;
+    }
+    Header traceStateHeader = headers.lastHeader(TRACE_STATE);
+    if (traceStateHeader != null
+        && traceStateHeader.value() != null
+        && traceStateHeader.value().length != 0) {
+      // trace state is rare, leave parsing it to the propagator
+      return W3CTraceContextPropagator.getInstance().extract(context, request, GETTER);
+    }
+    return context.with(Span.wrap(spanContext));
+  }
+
+  // visible for testing
+  static SpanContext parseTraceParent(byte[] traceParent) {
+    // future versions may append fields after another delimiter
+    boolean valid =
+        (traceParent.length == TRACE_PARENT_LENGTH
+                || (traceParent.length > TRACE_PARENT_LENGTH
+                    && traceParent[TRACE_PARENT_LENGTH] == '-'))
+            && traceParent[TRACE_ID_OFFSET - 1] == '-'
+            && traceParent[SPAN_ID_OFFSET - 1] == '-'
+            && traceParent[TRACE_FLAGS_OFFSET - 1] == '-';
+    if (!valid) {
+      return SpanContext.getInvalid();
+    }
+    int version = hexByte(traceParent, 0);
+    if (version < 0
+        || version == 0xff
+        || (version == 0 && traceParent.length > TRACE_PARENT_LENGTH)) {
+      return SpanContext.getInvalid();
+    }
+    int traceFlags = hexByte(traceParent, TRACE_FLAGS_OFFSET);
+    if (traceFlags < 0) {
+      return SpanContext.getInvalid();
+    }
+    // the ids are validated by createFromRemoteParent(), ISO_8859_1 maps each byte to one char
+    // without a decoding step
+    return SpanContext.createFromRemoteParent(
+        new String(traceParent, TRACE_ID_OFFSET, 32, StandardCharsets.ISO_8859_1),
+        new String(traceParent, SPAN_ID_OFFSET, 16, StandardCharsets.ISO_8859_1),
+        TraceFlags.fromByte((byte) traceFlags),
+        TraceState.getDefault());
+  }
+
+  // returns the value of the two lower case hex digits at offset, or -1 if they aren't valid
+  static int hexByte(byte[] bytes, int offset) {
+    int high = hexDigit(bytes[offset]);
+    int low = hexDigit(bytes[offset + 1]);
+    return high < 0 || low < 0 ? -1 : high << 4 | low;
+  }
+
+  private static int hexDigit(byte b) {
+    if (b >= '0' && b <= '9') {
+      return b - '0';
+    }
+    if (b >= 'a' && b <= 'f') {
+      return b - 'a' + 10;
+    }
+    return -1;
+  }
+
   private KafkaPropagation() {}
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafkaclients.common.v0_11.internal;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class KafkaPropagationTest {
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        // valid
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-ff",
+        // future versions may be longer
+        "01-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "cc-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01-what-the-future-will-be-like",
+        "cc-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01-",
+        "cc-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01.future",
+        // invalid version
+        "ff-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "0g-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01-extra",
+        // invalid ids and flags
+        "00-00000000000000000000000000000000-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-0000000000000000-01",
+        "00-0af7651916cd43dd8448eb211c80319g-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b716920333x-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-0x",
+        // mixed case
+        "00-0AF7651916CD43DD8448EB211C80319C-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-B7AD6B7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-0A",
+        "0A-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        // invalid length and delimiters
+        "",
+        "00",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-1",
+        "00-0af7651916cd43dd8448eb211c80319-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b716920333-01",
+        "00_0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c_b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331_01",
+        " 00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+      })
+  void parsesTraceParentLikePropagator(String traceParent) {
+    SpanContext expected =
+        Span.fromContext(
+                W3CTraceContextPropagator.getInstance()
+                    .extract(
+                        Context.root(),
+                        singletonMap("traceparent", traceParent),
+                        MapGetter.INSTANCE))
+            .getSpanContext();
+
+    SpanContext parsed = KafkaPropagation.parseTraceParent(traceParent.getBytes(ISO_8859_1));
+
+    // the caller only uses valid span contexts
+    if (expected.isValid()) {
+      assertThat(parsed).isEqualTo(expected);
+    } else {
+      assertThat(parsed.isValid()).isFalse();
+    }
+  }
+
+  @Test
+  void parsesOnlyLowerCaseHexBytes() {
+    String digits = "0123456789abcdef";
+    byte[] bytes = new byte[2];
+    for (int high = 0; high < 256; high++) {
+      for (int low = 0; low < 256; low++) {
+        bytes[0] = (byte) high;
+        bytes[1] = (byte) low;
+        int expected =
+            digits.indexOf(high) < 0 || digits.indexOf(low) < 0
+                ? -1
+                : digits.indexOf(high) << 4 | digits.indexOf(low);
+        assertThat(KafkaPropagation.hexByte(bytes, 0)).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void recognizesDefaultPropagators() {
+    TextMapPropagator traceContext = W3CTraceContextPropagator.getInstance();
+    TextMapPropagator baggage = W3CBaggagePropagator.getInstance();
+
+    assertThat(KafkaPropagation.canExtractFromHeaderBytes(traceContext)).isTrue();
+    assertThat(
+            KafkaPropagation.canExtractFromHeaderBytes(
+                TextMapPropagator.composite(traceContext, baggage)))
+        .isTrue();
+    assertThat(
+            KafkaPropagation.canExtractFromHeaderBytes(
+                TextMapPropagator.composite(baggage, traceContext)))
+        .isTrue();
+
+    assertThat(KafkaPropagation.canExtractFromHeaderBytes(baggage)).isFalse();
+    assertThat(KafkaPropagation.canExtractFromHeaderBytes(TextMapPropagator.noop())).isFalse();
+    assertThat(
+            KafkaPropagation.canExtractFromHeaderBytes(
+                TextMapPropagator.composite(traceContext, baggage, TextMapPropagator.noop())))
+        .isFalse();
+  }
+
+  @ParameterizedTest
+  @CsvSource(
+      value = {
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01,,",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01,,tenant=acme",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01,vendor=t61rcWkgMzE,tenant=acme",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00,,tenant=acme;tier=gold",
+        "00-00000000000000000000000000000000-b7ad6b7169203331-01,,tenant=acme",
+        ",,tenant=acme",
+        ",,",
+      })
+  void extractsLikeDefaultPropagators(
+      @Nullable String traceParent, @Nullable String traceState, @Nullable String baggage) {
+    ConsumerRecord<String, String> record = new ConsumerRecord<>("potatoes", 0, 0L, "key", "v");
+    addHeader(record, "traceparent", traceParent);
+    addHeader(record, "tracestate", traceState);
+    addHeader(record, "baggage", baggage);
+    KafkaProcessRequest request = KafkaProcessRequest.create(record, "group", "client");
+    ContextKey<String> parentKey = ContextKey.named("parent");
+    Context parent = Context.root().with(parentKey, "parent");
+    TextMapPropagator propagator =
+        TextMapPropagator.composite(
+            W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance());
+
+    Context expected = propagator.extract(parent, request, KafkaConsumerRecordGetter.INSTANCE);
+    Context extracted = KafkaPropagation.headerBytesExtractor(propagator).apply(parent, request);
+
+    assertThat(Span.fromContext(extracted).getSpanContext())
+        .isEqualTo(Span.fromContext(expected).getSpanContext());
+    assertThat(Baggage.fromContext(extracted)).isEqualTo(Baggage.fromContext(expected));
+    assertThat(extracted.get(parentKey)).isEqualTo("parent");
+  }
+
+  private static void addHeader(ConsumerRecord<?, ?> record, String key, @Nullable String value) {
+    if (value != null) {
+      record.headers().add(key, value.getBytes(UTF_8));
+    }
+  }
+
+  private enum MapGetter implements TextMapGetter<Map<String, String>> {
+    INSTANCE;
+
+    @Override
+    public Iterable<String> keys(Map<String, String> carrier) {
+      return carrier.keySet();
+    }
+
+    @Nullable
+    @Override
+    public String get(@Nullable Map<String, String> carrier, String key) {
+      return carrier == null ? null : carrier.get(key);
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.log4j.contextdata.v2_7;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.baggage.BaggageEntry;
+import io.opentelemetry.api.trace.SpanContext;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.util.BiConsumer;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * A frozen {@link StringMap} that shows the context data of an event with the static context data,
+ * the span context and the baggage on top. Looking up a single key does not copy the context data,
+ * the merged map is only built once the map is iterated.
+ */
+final class SpanDecoratedContextData implements StringMap {
+  private static final long serialVersionUID = 1L;
+
+  private static final String BAGGAGE_PREFIX = "baggage.";
+
+  private final ReadOnlyStringMap contextData;
+  private final ReadOnlyStringMap staticContextData;
+  private final String traceIdKey;
+  private final String spanIdKey;
+  private final String traceFlagsKey;
+  @Nullable private final SpanContext spanContext;
+  @Nullable private final Baggage baggage;
+
+  @Nullable private volatile StringMap merged;
+
+  SpanDecoratedContextData(
+      ReadOnlyStringMap contextData,
+      ReadOnlyStringMap staticContextData,
+      String traceIdKey,
+      String spanIdKey,
+      String traceFlagsKey,
+      @Nullable SpanContext spanContext,
+      @Nullable Baggage baggage) {
+    this.contextData = contextData;
+    this.staticContextData = staticContextData;
+    this.traceIdKey = traceIdKey;
+    this.spanIdKey = spanIdKey;
+    this.traceFlagsKey = traceFlagsKey;
+    this.spanContext = spanContext;
+    this.baggage = baggage;
+  }
+
+  /** Adds the values this map puts on top of its context data to the given map. */
+  void decorate(StringMap map) {
+    map.putAll(staticContextData);
+    if (spanContext != null) {
+      map.putValue(traceIdKey, spanContext.getTraceId());
+      map.putValue(spanIdKey, spanContext.getSpanId());
+      map.putValue(traceFlagsKey, spanContext.getTraceFlags().asHex());
+    }
+    if (baggage != null) {
+      for (Map.Entry<String, BaggageEntry> entry : baggage.asMap().entrySet()) {
+        // prefix all baggage values to avoid clashes with existing context
+        map.putValue(BAGGAGE_PREFIX + entry.getKey(), entry.getValue().getValue());
+      }
+    }
+  }
+
+  @Override
+  @Nullable
+  @SuppressWarnings("unchecked") // all values added on top are strings
+  public <V> V getValue(String key) {
+    // same precedence as decorate(): baggage, span context, static context data, context data
+    if (baggage != null && key.startsWith(BAGGAGE_PREFIX)) {
+      String value = baggage.getEntryValue(key.substring(BAGGAGE_PREFIX.length()));
+      if (value != null) {
+        return (V) value;
+      }
+    }
+    String value = getSpanContextValue(key);
+    if (value != null) {
+      return (V) value;
+    }
+    if (staticContextData.containsKey(key)) {
+      return staticContextData.getValue(key);
+    }
+    return contextData.getValue(key);
+  }
+
+  @Override
+  public boolean containsKey(String key) {
+    return (baggage != null
+            && key.startsWith(BAGGAGE_PREFIX)
+            && baggage.getEntryValue(key.substring(BAGGAGE_PREFIX.length())) != null)
+        || getSpanContextValue(key) != null
+        || staticContextData.containsKey(key)
+        || contextData.containsKey(key);
+  }
+
+  @Nullable
+  private String getSpanContextValue(String key) {
+    if (spanContext == null) {
+      return null;
+    }
+    if (key.equals(traceIdKey)) {
+      return spanContext.getTraceId();
+    }
+    if (key.equals(spanIdKey)) {
+      return spanContext.getSpanId();
+    }
+    if (key.equals(traceFlagsKey)) {
+      return spanContext.getTraceFlags().asHex();
+    }
+    return null;
+  }
+
+  private StringMap merged() {
+    StringMap result = merged;
+    if (result == null) {
+      result = new SortedArrayStringMap(contextData);
+      decorate(result);
+      result.freeze();
+      merged = result;
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, String> toMap() {
+    return merged().toMap();
+  }
+
+  @Override
+  public <V> void forEach(BiConsumer<String, ? super V> action) {
+    merged().forEach(action);
+  }
+
+  @Override
+  public <V, S> void forEach(TriConsumer<String, ? super V, S> action, S state) {
+    merged().forEach(action, state);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return merged().isEmpty();
+  }
+
+  @Override
+  public int size() {
+    return merged().size();
+  }
+
+  @Override
+  public boolean isFrozen() {
+    return true;
+  }
+
+  @Override
+  public void freeze() {}
+
+  @Override
+  public void clear() {
+    throw frozen();
+  }
+
+  @Override
+  public void putAll(ReadOnlyStringMap source) {
+    throw frozen();
+  }
+
+  @Override
+  public void putValue(String key, Object value) {
+    throw frozen();
+  }
+
+  @Override
+  public void remove(String key) {
+    throw frozen();
+  }
+
+  private static UnsupportedOperationException frozen() {
+    return new UnsupportedOperationException("Context data is frozen");
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    // like SortedArrayStringMap, only equal to maps of the same class, which keeps equality
+    // symmetric, the contents are compared as maps
+    if (!(obj instanceof SpanDecoratedContextData)) {
+      return false;
+    }
+    return toMap().equals(((SpanDecoratedContextData) obj).toMap());
+  }
+
+  @Override
+  public int hashCode() {
+    return toMap().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return merged().toString();
+  }
+
+  // serialized events carry a plain copy of the context data
+  private Object writeReplace() {
+    return merged();
+  }
+}
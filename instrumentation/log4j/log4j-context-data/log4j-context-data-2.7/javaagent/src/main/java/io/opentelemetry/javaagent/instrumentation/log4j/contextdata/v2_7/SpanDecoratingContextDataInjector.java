@@ -6,7 +6,6 @@
 package io.opentelemetry.javaagent.instrumentation.log4j.contextdata.v2_7;
 
 import io.opentelemetry.api.baggage.Baggage;
-import io.opentelemetry.api.baggage.BaggageEntry;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.context.Context;
@@ -41,31 +40,37 @@ public final class SpanDecoratingContextDataInjector implements ContextDataInjec
   public StringMap injectContextData(List<Property> list, StringMap stringMap) {
     StringMap contextData = delegate.injectContextData(list, stringMap);
 
-    if (contextData.containsKey(TRACE_ID_KEY)) {
-      // Assume already instrumented event if traceId is present.
-      return staticContextData.isEmpty() ? contextData : newContextData(contextData);
+    SpanContext spanContext = null;
+    Baggage baggage = null;
+    // Assume already instrumented event if traceId is present.
+    if (!contextData.containsKey(TRACE_ID_KEY)) {
+      Context context = Context.current();
+      SpanContext currentContext = Span.fromContext(context).getSpanContext();
+      if (currentContext.isValid()) {
+        spanContext = currentContext;
+        baggage = BAGGAGE_ENABLED ? Baggage.fromContext(context) : null;
+      }
     }
-
-    Context context = Context.current();
-    Span span = Span.fromContext(context);
-    SpanContext currentContext = span.getSpanContext();
-    if (!currentContext.isValid()) {
-      return staticContextData.isEmpty() ? contextData : newContextData(contextData);
+    if (spanContext == null && staticContextData.isEmpty()) {
+      return contextData;
     }
 
-    StringMap newContextData = newContextData(contextData);
-    newContextData.putValue(TRACE_ID_KEY, currentContext.getTraceId());
-    newContextData.putValue(SPAN_ID_KEY, currentContext.getSpanId());
-    newContextData.putValue(TRACE_FLAGS_KEY, currentContext.getTraceFlags().asHex());
-
-    if (BAGGAGE_ENABLED) {
-      Baggage baggage = Baggage.fromContext(context);
-      for (Map.Entry<String, BaggageEntry> entry : baggage.asMap().entrySet()) {
-        // prefix all baggage values to avoid clashes with existing context
-        newContextData.putValue("baggage." + entry.getKey(), entry.getValue().getValue());
-      }
+    SpanDecoratedContextData decoratedContextData =
+        new SpanDecoratedContextData(
+            contextData,
+            staticContextData,
+            TRACE_ID_KEY,
+            SPAN_ID_KEY,
+            TRACE_FLAGS_KEY,
+            spanContext,
+            baggage);
+    if (contextData == stringMap && !contextData.isFrozen()) {
+      // the delegate filled the map that the event passed in for reuse (e.g. with the garbage-free
+      // thread context map), so it can be decorated in place without allocating a new map
+      decoratedContextData.decorate(contextData);
+      return contextData;
     }
-    return newContextData;
+    return decoratedContextData;
   }
 
   @Override
@@ -73,12 +78,6 @@ public final class SpanDecoratingContextDataInjector implements ContextDataInjec
     return delegate.rawContextData();
   }
 
-  private static StringMap newContextData(StringMap contextData) {
-    StringMap newContextData = new SortedArrayStringMap(contextData);
-    newContextData.putAll(staticContextData);
-    return newContextData;
-  }
-
   private static StringMap getStaticContextData() {
     StringMap map = new SortedArrayStringMap();
     for (Map.Entry<String, String> entry :
@@ -0,0 +1,260 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.log4j.contextdata.v2_7;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.instrumentation.testing.junit.AgentInstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class SpanDecoratedContextDataTest {
+  @RegisterExtension
+  static final InstrumentationExtension testing = AgentInstrumentationExtension.create();
+
+  private static final SpanContext SPAN_CONTEXT =
+      SpanContext.create(
+          "ff01020304050600ff0a0b0c0d0e0f00",
+          "090a0b0c0d0e0f00",
+          TraceFlags.getSampled(),
+          TraceState.getDefault());
+
+  @Test
+  void injectsInPlaceIntoReusableMap() {
+    StringMap reusable = new SortedArrayStringMap();
+    ContextDataInjector injector =
+        new SpanDecoratingContextDataInjector(
+            new TestContextDataInjector(
+                map -> {
+                  map.putValue("key", "value");
+                  return map;
+                }));
+
+    Span span =
+        testing.runWithSpan(
+            "test",
+            () -> {
+              assertThat(injector.injectContextData(Collections.emptyList(), reusable))
+                  .isSameAs(reusable);
+              return Span.current();
+            });
+
+    assertThat(reusable.isFrozen()).isFalse();
+    assertThat(reusable.toMap())
+        .containsEntry("key", "value")
+        .containsEntry("trace_id", span.getSpanContext().getTraceId())
+        .containsEntry("span_id", span.getSpanContext().getSpanId())
+        .containsEntry("trace_flags", "01")
+        .containsEntry("service.name", "unknown_service:java");
+  }
+
+  @Test
+  void returnsFrozenViewOfFrozenContextData() {
+    StringMap reusable = new SortedArrayStringMap();
+    StringMap frozen = new SortedArrayStringMap();
+    frozen.putValue("key", "value");
+    frozen.freeze();
+    ContextDataInjector injector =
+        new SpanDecoratingContextDataInjector(new TestContextDataInjector(map -> frozen));
+
+    testing.runWithSpan(
+        "test",
+        () -> {
+          StringMap contextData = injector.injectContextData(Collections.emptyList(), reusable);
+
+          assertThat(contextData).isInstanceOf(SpanDecoratedContextData.class);
+          assertThat(contextData.isFrozen()).isTrue();
+          assertThat(contextData.<String>getValue("key")).isEqualTo("value");
+          assertThat(contextData.<String>getValue("span_id"))
+              .isEqualTo(Span.current().getSpanContext().getSpanId());
+          assertThat(contextData.toMap())
+              .containsEntry("trace_flags", "01")
+              .containsEntry("service.name", "unknown_service:java");
+          assertThatThrownBy(() -> contextData.putValue("key", "other"))
+              .isInstanceOf(UnsupportedOperationException.class);
+        });
+
+    // neither the map of the event nor the context data of the delegate are modified
+    assertThat(reusable.isEmpty()).isTrue();
+    assertThat(frozen.toMap()).containsOnlyKeys("key");
+  }
+
+  @Test
+  void keepsContextDataOfAlreadyInstrumentedEvent() {
+    StringMap frozen = new SortedArrayStringMap();
+    frozen.putValue("trace_id", "mdc_trace_id");
+    frozen.freeze();
+    ContextDataInjector injector =
+        new SpanDecoratingContextDataInjector(new TestContextDataInjector(map -> frozen));
+
+    testing.runWithSpan(
+        "test",
+        () -> {
+          StringMap contextData =
+              injector.injectContextData(Collections.emptyList(), new SortedArrayStringMap());
+
+          assertThat(contextData.<String>getValue("trace_id")).isEqualTo("mdc_trace_id");
+          assertThat(contextData.containsKey("span_id")).isFalse();
+          assertThat(contextData.<String>getValue("service.name"))
+              .isEqualTo("unknown_service:java");
+        });
+  }
+
+  @Test
+  void spanKeysTakePrecedenceOverContextData() {
+    StringMap contextData = new SortedArrayStringMap();
+    contextData.putValue("key", "value");
+    contextData.putValue("span_id", "mdc_span_id");
+    contextData.putValue("service.name", "mdc_service");
+    contextData.putValue("baggage.baggage_key", "mdc_baggage");
+    contextData.freeze();
+    StringMap staticContextData = new SortedArrayStringMap();
+    staticContextData.putValue("service.name", "resource_service");
+    Baggage baggage = Baggage.builder().put("baggage_key", "baggage_value").build();
+
+    SpanDecoratedContextData view = newView(contextData, staticContextData, baggage);
+
+    Map<String, String> expected = new HashMap<>();
+    expected.put("key", "value");
+    expected.put("trace_id", SPAN_CONTEXT.getTraceId());
+    expected.put("span_id", SPAN_CONTEXT.getSpanId());
+    expected.put("trace_flags", "01");
+    expected.put("service.name", "resource_service");
+    expected.put("baggage.baggage_key", "baggage_value");
+
+    // single key lookups don't build the merged map, they must agree with it
+    expected.forEach(
+        (key, value) -> {
+          assertThat(view.containsKey(key)).isTrue();
+          assertThat(view.<String>getValue(key)).isEqualTo(value);
+        });
+    assertThat(view.containsKey("missing")).isFalse();
+    assertThat(view.<String>getValue("missing")).isNull();
+    assertThat(view.toMap()).isEqualTo(expected);
+    assertThat(view.size()).isEqualTo(expected.size());
+
+    // decorating in place gives the same result
+    StringMap reusable = new SortedArrayStringMap(contextData);
+    view.decorate(reusable);
+    assertThat(reusable.toMap()).isEqualTo(expected);
+  }
+
+  @Test
+  void equalityIsSymmetric() {
+    StringMap contextData = new SortedArrayStringMap();
+    contextData.putValue("key", "value");
+    StringMap staticContextData = new SortedArrayStringMap();
+    staticContextData.putValue("service.name", "resource_service");
+    SpanDecoratedContextData view = newView(contextData, staticContextData, null);
+
+    // the same entries, with the span context in the context data instead of on top of it
+    StringMap sameEntries = new SortedArrayStringMap(contextData);
+    sameEntries.putValue("trace_id", SPAN_CONTEXT.getTraceId());
+    sameEntries.putValue("span_id", SPAN_CONTEXT.getSpanId());
+    sameEntries.putValue("trace_flags", "01");
+    SpanDecoratedContextData other = newView(sameEntries, staticContextData, null);
+
+    assertThat(view).isEqualTo(other).hasSameHashCodeAs(other);
+    assertThat(other).isEqualTo(view);
+    assertThat(view).isNotEqualTo(newView(contextData, new SortedArrayStringMap(), null));
+
+    StringMap merged = new SortedArrayStringMap(contextData);
+    view.decorate(merged);
+    assertThat(merged.toMap()).isEqualTo(view.toMap());
+    assertThat(view).isNotEqualTo(merged);
+    assertThat(merged).isNotEqualTo(view);
+  }
+
+  @Test
+  void contextDataWithoutSpan() {
+    StringMap contextData = new SortedArrayStringMap();
+    contextData.putValue("key", "value");
+    StringMap staticContextData = new SortedArrayStringMap();
+    staticContextData.putValue("service.name", "resource_service");
+
+    SpanDecoratedContextData view =
+        new SpanDecoratedContextData(
+            contextData, staticContextData, "trace_id", "span_id", "trace_flags", null, null);
+
+    assertThat(view.containsKey("trace_id")).isFalse();
+    assertThat(view.<String>getValue("trace_id")).isNull();
+    assertThat(view.toMap())
+        .containsOnly(entry("key", "value"), entry("service.name", "resource_service"));
+  }
+
+  @Test
+  void serializesAsPlainCopy() throws Exception {
+    StringMap contextData = new SortedArrayStringMap();
+    contextData.putValue("key", "value");
+    SpanDecoratedContextData view = newView(contextData, new SortedArrayStringMap(), null);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(view);
+    }
+    Object copy;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = in.readObject();
+    }
+
+    assertThat(copy).isInstanceOf(SortedArrayStringMap.class);
+    assertThat(((StringMap) copy).toMap()).isEqualTo(view.toMap());
+  }
+
+  private static SpanDecoratedContextData newView(
+      StringMap contextData, StringMap staticContextData, @Nullable Baggage baggage) {
+    return new SpanDecoratedContextData(
+        contextData,
+        staticContextData,
+        "trace_id",
+        "span_id",
+        "trace_flags",
+        SPAN_CONTEXT,
+        baggage);
+  }
+
+  private static class TestContextDataInjector implements ContextDataInjector {
+    private final Function<StringMap, StringMap> inject;
+
+    TestContextDataInjector(Function<StringMap, StringMap> inject) {
+      this.inject = inject;
+    }
+
+    @Override
+    public StringMap injectContextData(List<Property> properties, StringMap reusable) {
+      return inject.apply(reusable);
+    }
+
+    @Override
+    public ReadOnlyStringMap rawContextData() {
+      return new SortedArrayStringMap();
+    }
+  }
+}
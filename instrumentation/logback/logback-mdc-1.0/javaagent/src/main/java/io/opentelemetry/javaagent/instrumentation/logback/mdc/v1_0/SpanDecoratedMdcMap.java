@@ -0,0 +1,159 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.logback.mdc.v1_0;
+
+import static io.opentelemetry.javaagent.instrumentation.logback.mdc.v1_0.LogbackSingletons.spanIdKey;
+import static io.opentelemetry.javaagent.instrumentation.logback.mdc.v1_0.LogbackSingletons.traceFlagsKey;
+import static io.opentelemetry.javaagent.instrumentation.logback.mdc.v1_0.LogbackSingletons.traceIdKey;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.baggage.BaggageEntry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.javaagent.bootstrap.Java8BytecodeBridge;
+import io.opentelemetry.javaagent.bootstrap.internal.ConfiguredResourceAttributesHolder;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable view of the MDC of a logging event with the span context, the configured resource
+ * attributes and, when enabled, the baggage of the event's {@link Context} on top. Looking up a
+ * single key does not copy the MDC, the merged map is only built once the view is iterated.
+ */
+public final class SpanDecoratedMdcMap extends AbstractMap<String, String> implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private static final String BAGGAGE_PREFIX = "baggage.";
+
+  @Nullable private final Map<String, String> mdc;
+  @Nullable private final SpanContext spanContext;
+  private final Map<String, String> resourceAttributes;
+  @Nullable private final Baggage baggage;
+
+  @Nullable private volatile Map<String, String> merged;
+
+  public static SpanDecoratedMdcMap create(@Nullable Map<String, String> mdc, Context context) {
+    SpanContext spanContext = Java8BytecodeBridge.spanFromContext(context).getSpanContext();
+    return new SpanDecoratedMdcMap(
+        mdc,
+        spanContext.isValid() ? spanContext : null,
+        ConfiguredResourceAttributesHolder.getResourceAttributes(),
+        LogbackSingletons.addBaggage() ? Java8BytecodeBridge.baggageFromContext(context) : null);
+  }
+
+  private SpanDecoratedMdcMap(
+      @Nullable Map<String, String> mdc,
+      @Nullable SpanContext spanContext,
+      Map<String, String> resourceAttributes,
+      @Nullable Baggage baggage) {
+    this.mdc = mdc;
+    this.spanContext = spanContext;
+    this.resourceAttributes = resourceAttributes;
+    this.baggage = baggage;
+  }
+
+  /** Returns whether this map was created for the given MDC. */
+  public boolean decorates(@Nullable Map<String, String> mdc) {
+    return this.mdc == mdc;
+  }
+
+  @Override
+  @Nullable
+  public String get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    String name = (String) key;
+    // same precedence as when the maps are merged: baggage, resource, span context, MDC
+    if (baggage != null && name.startsWith(BAGGAGE_PREFIX)) {
+      String value = baggage.getEntryValue(name.substring(BAGGAGE_PREFIX.length()));
+      if (value != null) {
+        return value;
+      }
+    }
+    String value = resourceAttributes.get(name);
+    if (value != null) {
+      return value;
+    }
+    value = getSpanContextValue(name);
+    if (value != null) {
+      return value;
+    }
+    return mdc != null ? mdc.get(name) : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null || (mdc != null && mdc.containsKey(key));
+  }
+
+  @Override
+  public int size() {
+    return merged().size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return merged().isEmpty();
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return merged().entrySet();
+  }
+
+  @Nullable
+  private String getSpanContextValue(String name) {
+    if (spanContext == null) {
+      return null;
+    }
+    if (name.equals(traceIdKey())) {
+      return spanContext.getTraceId();
+    }
+    if (name.equals(spanIdKey())) {
+      return spanContext.getSpanId();
+    }
+    if (name.equals(traceFlagsKey())) {
+      return spanContext.getTraceFlags().asHex();
+    }
+    return null;
+  }
+
+  private Map<String, String> merged() {
+    Map<String, String> result = merged;
+    if (result == null) {
+      Map<String, String> map = new HashMap<>();
+      if (mdc != null) {
+        map.putAll(mdc);
+      }
+      if (spanContext != null) {
+        map.put(traceIdKey(), spanContext.getTraceId());
+        map.put(spanIdKey(), spanContext.getSpanId());
+        map.put(traceFlagsKey(), spanContext.getTraceFlags().asHex());
+      }
+      map.putAll(resourceAttributes);
+      if (baggage != null) {
+        for (Map.Entry<String, BaggageEntry> entry : baggage.asMap().entrySet()) {
+          // prefix all baggage values to avoid clashes with existing context
+          map.put(BAGGAGE_PREFIX + entry.getKey(), entry.getValue().getValue());
+        }
+      }
+      result = Collections.unmodifiableMap(map);
+      merged = result;
+    }
+    return result;
+  }
+
+  // serialized events, e.g. those sent by the socket appender, carry a plain copy of the map
+  private Object writeReplace() {
+    return new HashMap<>(merged());
+  }
+}
@@ -6,14 +6,18 @@
 package io.opentelemetry.javaagent.instrumentation.logback.v1_0;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.instrumentation.logback.mdc.v1_0.AbstractLogbackTest;
 import io.opentelemetry.instrumentation.testing.junit.AgentInstrumentationExtension;
 import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.MDC;
 
 class LogbackTest extends AbstractLogbackTest {
 
@@ -40,4 +44,34 @@ class LogbackTest extends AbstractLogbackTest {
         .isEqualTo("unknown_service:java");
     assertThat(events.get(0).getMDCPropertyMap().get("telemetry.sdk.language")).isEqualTo("java");
   }
+
+  @Test
+  void mdcViewIsReusedPerEvent() {
+    MDC.put("key", "value");
+    try {
+      Span span =
+          agentTesting.runWithSpan(
+              "test",
+              () -> {
+                logger.info("log message 1");
+                return Span.current();
+              });
+
+      List<ILoggingEvent> events = listAppender.list;
+
+      assertThat(events.size()).isEqualTo(1);
+      Map<String, String> mdc = events.get(0).getMDCPropertyMap();
+      assertThat(events.get(0).getMDCPropertyMap()).isSameAs(mdc);
+      assertThat(mdc)
+          .containsEntry("key", "value")
+          .containsEntry("trace_id", span.getSpanContext().getTraceId())
+          .containsEntry("span_id", span.getSpanContext().getSpanId())
+          .containsEntry("trace_flags", "01")
+          .containsEntry("service.name", "unknown_service:java");
+      assertThatThrownBy(() -> mdc.put("key", "other"))
+          .isInstanceOf(UnsupportedOperationException.class);
+    } finally {
+      MDC.remove("key");
+    }
+  }
 }
@@ -21,6 +21,7 @@ import io.opentelemetry.instrumentation.api.annotation.support.async.AsyncOperat
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
 import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
+import io.opentelemetry.javaagent.extension.instrumentation.internal.OriginMethod;
 import java.lang.reflect.Method;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.description.annotation.AnnotationSource;
@@ -81,14 +82,9 @@ class WithSpanInstrumentation implements TypeInstrumentation {
 
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static void onEnter(
-        @Advice.Origin Method originMethod,
-        @Advice.Local("otelMethod") Method method,
+        @OriginMethod Method method,
         @Advice.Local("otelContext") Context context,
         @Advice.Local("otelScope") Scope scope) {
-      // Every usage of @Advice.Origin Method is replaced with a call to Class.getMethod, copy it
-      // to local variable so that there would be only one call to Class.getMethod.
-      method = originMethod;
-
       Instrumenter<Method, Object> instrumenter = instrumenter();
       Context current = AnnotationSingletons.getContextForMethod(method);
 
@@ -100,7 +96,7 @@ class WithSpanInstrumentation implements TypeInstrumentation {
 
     @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
     public static void stopSpan(
-        @Advice.Local("otelMethod") Method method,
+        @OriginMethod Method method,
         @Advice.Local("otelContext") Context context,
         @Advice.Local("otelScope") Scope scope,
         @Advice.Return(typing = Assigner.Typing.DYNAMIC, readOnly = false) Object returnValue,
@@ -121,17 +117,11 @@ class WithSpanInstrumentation implements TypeInstrumentation {
 
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static void onEnter(
-        @Advice.Origin Method originMethod,
-        @Advice.Local("otelMethod") Method method,
+        @OriginMethod Method method,
         @Advice.AllArguments(typing = Assigner.Typing.DYNAMIC) Object[] args,
         @Advice.Local("otelRequest") MethodRequest request,
         @Advice.Local("otelContext") Context context,
         @Advice.Local("otelScope") Scope scope) {
-
-      // Every usage of @Advice.Origin Method is replaced with a call to Class.getMethod, copy it
-      // to local variable so that there would be only one call to Class.getMethod.
-      method = originMethod;
-
       Instrumenter<MethodRequest, Object> instrumenter = instrumenterWithAttributes();
       Context current = AnnotationSingletons.getContextForMethod(method);
       request = new MethodRequest(method, args);
@@ -144,7 +134,7 @@ class WithSpanInstrumentation implements TypeInstrumentation {
 
     @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
     public static void stopSpan(
-        @Advice.Local("otelMethod") Method method,
+        @OriginMethod Method method,
         @Advice.Local("otelRequest") MethodRequest request,
         @Advice.Local("otelContext") Context context,
         @Advice.Local("otelScope") Scope scope,
@@ -9,10 +9,13 @@ import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.MeterBuilder;
 import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.AbstractThreadDispatchingHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.ThreadGrouper;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.buffer.DirectBufferStatisticsHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.classes.ClassesLoadedHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.compilation.CompilationHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.compilation.DeoptimizationHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.container.ContainerConfigurationHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.cpu.ContextSwitchRateHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.cpu.LongLockHandler;
@@ -21,6 +24,7 @@ import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.garbageco
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.garbagecollection.OldGarbageCollectionHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.garbagecollection.YoungGarbageCollectionHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory.CodeCacheConfigurationHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory.CodeCacheFullHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory.G1HeapSummaryHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory.MetaspaceSummaryHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory.ObjectAllocationInNewTlabHandler;
@@ -28,7 +32,12 @@ import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory.Ob
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory.ParallelHeapSummaryHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.network.NetworkReadHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.network.NetworkWriteHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.safepoint.SafepointBeginHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.safepoint.SafepointEndHandler;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.threads.ThreadCountHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.threads.ThreadEndHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.threads.VirtualThreadEventCountHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.threads.VirtualThreadPinnedHandler;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
@@ -47,7 +56,7 @@ final class HandlerRegistry {
   private HandlerRegistry() {}
 
   static List<RecordedEventHandler> getHandlers(
-      OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate) {
+      OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate, int maxThreadGroups) {
 
     MeterBuilder meterBuilder = openTelemetry.meterBuilder(SCOPE_NAME);
     if (SCOPE_VERSION != null) {
@@ -84,7 +93,8 @@ final class HandlerRegistry {
       }
     }
 
-    ThreadGrouper grouper = new ThreadGrouper();
+    ThreadGrouper grouper = new ThreadGrouper(maxThreadGroups);
+    SafepointBeginHandler safepointBeginHandler = new SafepointBeginHandler(meter);
     List<RecordedEventHandler> basicHandlers =
         List.of(
             new ObjectAllocationInNewTlabHandler(meter, grouper),
@@ -99,7 +109,16 @@ final class HandlerRegistry {
             new ClassesLoadedHandler(meter),
             new MetaspaceSummaryHandler(meter),
             new CodeCacheConfigurationHandler(meter),
-            new DirectBufferStatisticsHandler(meter));
+            new DirectBufferStatisticsHandler(meter),
+            new VirtualThreadPinnedHandler(meter),
+            VirtualThreadEventCountHandler.submitFailed(meter),
+            VirtualThreadEventCountHandler.started(meter),
+            VirtualThreadEventCountHandler.ended(meter),
+            safepointBeginHandler,
+            new SafepointEndHandler(meter, safepointBeginHandler),
+            new CompilationHandler(meter),
+            new DeoptimizationHandler(meter),
+            new CodeCacheFullHandler(meter));
     handlers.addAll(basicHandlers);
 
     // Filter and close disabled handlers
@@ -112,6 +131,12 @@ final class HandlerRegistry {
       }
     }
 
+    // Let the grouper forget the threads that have ended
+    handlers.stream()
+        .filter(handler -> handler instanceof AbstractThreadDispatchingHandler)
+        .findFirst()
+        .ifPresent(handler -> handlers.add(new ThreadEndHandler(grouper, handler.getFeature())));
+
     return handlers;
   }
 }
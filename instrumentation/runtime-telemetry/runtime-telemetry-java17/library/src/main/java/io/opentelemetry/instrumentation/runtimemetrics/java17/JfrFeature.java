@@ -15,6 +15,7 @@ package io.opentelemetry.instrumentation.runtimemetrics.java17;
 public enum JfrFeature {
   BUFFER_METRICS(/* defaultEnabled= */ false),
   CLASS_LOAD_METRICS(/* defaultEnabled= */ false),
+  COMPILATION_METRICS(/* defaultEnabled= */ false),
   CONTEXT_SWITCH_METRICS(/* defaultEnabled= */ true),
   CPU_COUNT_METRICS(/* defaultEnabled= */ true),
   CPU_UTILIZATION_METRICS(/* defaultEnabled= */ false),
@@ -23,7 +24,9 @@ public enum JfrFeature {
   MEMORY_ALLOCATION_METRICS(/* defaultEnabled= */ true),
   MEMORY_POOL_METRICS(/* defaultEnabled= */ false),
   NETWORK_IO_METRICS(/* defaultEnabled= */ true),
+  SAFEPOINT_METRICS(/* defaultEnabled= */ false),
   THREAD_METRICS(/* defaultEnabled= */ false),
+  VIRTUAL_THREAD_METRICS(/* defaultEnabled= */ false),
   ;
 
   private final boolean defaultEnabled;
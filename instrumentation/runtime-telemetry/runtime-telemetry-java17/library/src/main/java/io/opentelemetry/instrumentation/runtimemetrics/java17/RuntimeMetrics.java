@@ -90,14 +90,26 @@ public final class RuntimeMetrics implements AutoCloseable {
     private final RecordingStream recordingStream;
     private final CountDownLatch startUpLatch = new CountDownLatch(1);
 
-    private JfrRuntimeMetrics(OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate) {
-      this.recordedEventHandlers = HandlerRegistry.getHandlers(openTelemetry, featurePredicate);
+    private JfrRuntimeMetrics(
+        OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate, int maxThreadGroups) {
+      this.recordedEventHandlers =
+          HandlerRegistry.getHandlers(openTelemetry, featurePredicate, maxThreadGroups);
       recordingStream = new RecordingStream();
       recordedEventHandlers.forEach(
           handler -> {
             EventSettings eventSettings = recordingStream.enable(handler.getEventName());
             handler.getPollingDuration().ifPresent(eventSettings::withPeriod);
             handler.getThreshold().ifPresent(eventSettings::withThreshold);
+            handler
+                .getStackTrace()
+                .ifPresent(
+                    stackTrace -> {
+                      if (stackTrace) {
+                        eventSettings.withStackTrace();
+                      } else {
+                        eventSettings.withoutStackTrace();
+                      }
+                    });
             recordingStream.onEvent(handler.getEventName(), handler);
           });
       recordingStream.onMetadata(event -> startUpLatch.countDown());
@@ -107,11 +119,11 @@ public final class RuntimeMetrics implements AutoCloseable {
     }
 
     static JfrRuntimeMetrics build(
-        OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate) {
+        OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate, int maxThreadGroups) {
       if (!isJfrAvailable()) {
         return null;
       }
-      return new JfrRuntimeMetrics(openTelemetry, featurePredicate);
+      return new JfrRuntimeMetrics(openTelemetry, featurePredicate, maxThreadGroups);
     }
 
     @Override
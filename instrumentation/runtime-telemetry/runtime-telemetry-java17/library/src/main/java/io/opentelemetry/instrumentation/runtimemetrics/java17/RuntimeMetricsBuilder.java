@@ -7,6 +7,8 @@ package io.opentelemetry.instrumentation.runtimemetrics.java17;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Experimental;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.ThreadGrouper;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.internal.JmxRuntimeMetricsFactory;
 import java.util.Arrays;
 import java.util.EnumMap;
@@ -22,6 +24,12 @@ public final class RuntimeMetricsBuilder {
 
   private boolean disableJmx = false;
   private boolean enableExperimentalJmxTelemetry = false;
+  private int maxThreadGroups = ThreadGrouper.DEFAULT_MAX_GROUPS;
+
+  static {
+    Experimental.internalSetMaxThreadGroups(
+        (builder, maxThreadGroups) -> builder.maxThreadGroups = maxThreadGroups);
+  }
 
   RuntimeMetricsBuilder(OpenTelemetry openTelemetry) {
     this.openTelemetry = openTelemetry;
@@ -97,6 +105,7 @@ public final class RuntimeMetricsBuilder {
     if (enabledFeatureMap.values().stream().noneMatch(isEnabled -> isEnabled)) {
       return null;
     }
-    return RuntimeMetrics.JfrRuntimeMetrics.build(openTelemetry, enabledFeatureMap::get);
+    return RuntimeMetrics.JfrRuntimeMetrics.build(
+        openTelemetry, enabledFeatureMap::get, maxThreadGroups);
   }
 }
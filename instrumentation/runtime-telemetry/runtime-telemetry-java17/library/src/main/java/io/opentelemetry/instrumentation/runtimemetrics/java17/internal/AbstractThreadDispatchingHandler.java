@@ -5,7 +5,8 @@
 
 package io.opentelemetry.instrumentation.runtimemetrics.java17.internal;
 
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Consumer;
 import jdk.jfr.consumer.RecordedEvent;
@@ -15,8 +16,9 @@ import jdk.jfr.consumer.RecordedEvent;
  * any time.
  */
 public abstract class AbstractThreadDispatchingHandler implements RecordedEventHandler {
-  // Will need pruning code for fast-cycling thread frameworks to prevent memory leaks
-  private final Map<String, Consumer<RecordedEvent>> perThread = new HashMap<>();
+  // access ordered, the eldest summarizer is the least recently used one
+  private final Map<String, Consumer<RecordedEvent>> perThread =
+      new LinkedHashMap<>(16, 0.75f, true);
   private final ThreadGrouper grouper;
 
   protected AbstractThreadDispatchingHandler(ThreadGrouper grouper) {
@@ -31,8 +33,28 @@ public abstract class AbstractThreadDispatchingHandler implements RecordedEventH
   @Override
   public void accept(RecordedEvent ev) {
     String groupedName = grouper.groupedName(ev);
-    if (groupedName != null) {
-      perThread.computeIfAbsent(groupedName, this::createPerThreadSummarizer).accept(ev);
+    if (groupedName == null) {
+      return;
+    }
+    Consumer<RecordedEvent> summarizer = perThread.get(groupedName);
+    if (summarizer == null) {
+      summarizer = createPerThreadSummarizer(groupedName);
+      perThread.put(groupedName, summarizer);
+      // one more than the max groups for the overflow group
+      if (perThread.size() > grouper.getMaxGroups() + 1) {
+        evictSummarizers();
+      }
+    }
+    summarizer.accept(ev);
+  }
+
+  private void evictSummarizers() {
+    // drop the summarizers of groups whose threads have ended, otherwise the least recently used
+    perThread.keySet().removeIf(grouper::isEvicted);
+    Iterator<String> i = perThread.keySet().iterator();
+    while (perThread.size() > grouper.getMaxGroups() + 1 && i.hasNext()) {
+      i.next();
+      i.remove();
     }
   }
 }
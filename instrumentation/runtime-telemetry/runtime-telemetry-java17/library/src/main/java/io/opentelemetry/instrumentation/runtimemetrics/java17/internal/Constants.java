@@ -68,6 +68,12 @@ public final class Constants {
   public static final AttributeKey<String> ATTR_GC_ACTION = AttributeKey.stringKey("jvm.gc.action");
   public static final AttributeKey<Boolean> ATTR_DAEMON =
       AttributeKey.booleanKey("jvm.thread.daemon");
+  public static final AttributeKey<String> ATTR_CODE_FUNCTION =
+      AttributeKey.stringKey("code.function.name");
+  public static final AttributeKey<Long> ATTR_COMPILATION_TIER =
+      AttributeKey.longKey("jvm.compilation.tier");
+  public static final AttributeKey<String> ATTR_DEOPTIMIZATION_REASON =
+      AttributeKey.stringKey("jvm.deoptimization.reason");
   public static final Attributes ATTR_PS_EDEN_SPACE =
       Attributes.of(ATTR_MEMORY_TYPE, HEAP, ATTR_MEMORY_POOL, "PS Eden Space");
   public static final Attributes ATTR_PS_SURVIVOR_SPACE =
@@ -88,5 +94,8 @@ public final class Constants {
   public static final String UNIT_CLASSES = "{class}";
   public static final String UNIT_THREADS = "{thread}";
   public static final String UNIT_BUFFERS = "{buffer}";
+  public static final String UNIT_FAILURES = "{failure}";
+  public static final String UNIT_DEOPTIMIZATIONS = "{deoptimization}";
+  public static final String UNIT_EVENTS = "{event}";
   public static final String UNIT_UTILIZATION = "1";
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal;
+
+import io.opentelemetry.instrumentation.runtimemetrics.java17.RuntimeMetricsBuilder;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * This class is internal and experimental. Its APIs are unstable and can change at any time. Its
+ * APIs (or a version of them) may be promoted to the public stable API in the future, but no
+ * guarantees are made.
+ */
+public final class Experimental {
+
+  @Nullable private static volatile BiConsumer<RuntimeMetricsBuilder, Integer> setMaxThreadGroups;
+
+  /**
+   * Sets the maximum number of thread groups that the per thread JFR metrics are reported for.
+   * Threads of further groups are reported with the thread name {@code other}.
+   */
+  public static void setMaxThreadGroups(RuntimeMetricsBuilder builder, int maxThreadGroups) {
+    if (setMaxThreadGroups != null) {
+      setMaxThreadGroups.accept(builder, maxThreadGroups);
+    }
+  }
+
+  public static void internalSetMaxThreadGroups(
+      BiConsumer<RuntimeMetricsBuilder, Integer> setMaxThreadGroups) {
+    Experimental.setMaxThreadGroups = setMaxThreadGroups;
+  }
+
+  private Experimental() {}
+}
@@ -63,6 +63,16 @@ public interface RecordedEventHandler
     return Optional.empty();
   }
 
+  /**
+   * Optionally returns whether JFR events should be recorded with a stack trace, if present
+   *
+   * @return {@link Optional} of {@link Boolean} representing whether a stack trace is recorded;
+   *     empty {@link Optional} to keep the default of the event
+   */
+  default Optional<Boolean> getStackTrace() {
+    return Optional.empty();
+  }
+
   static void closeObservables(List<AutoCloseable> observables) {
     observables.forEach(
         observable -> {
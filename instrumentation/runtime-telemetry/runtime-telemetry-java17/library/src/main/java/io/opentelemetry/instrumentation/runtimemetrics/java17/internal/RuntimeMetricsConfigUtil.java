@@ -43,6 +43,14 @@ public final class RuntimeMetricsConfigUtil {
       builder.enableExperimentalJmxTelemetry();
     }
 
+    int maxThreadGroups =
+        config.getInt(
+            "otel.instrumentation.runtime-telemetry-java17.experimental-max-thread-groups",
+            ThreadGrouper.DEFAULT_MAX_GROUPS);
+    if (maxThreadGroups > 0) {
+      Experimental.setMaxThreadGroups(builder, maxThreadGroups);
+    }
+
     return builder.build();
   }
 }
@@ -5,23 +5,228 @@
 
 package io.opentelemetry.instrumentation.runtimemetrics.java17.internal;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.annotation.Nullable;
 import jdk.jfr.consumer.RecordedEvent;
 import jdk.jfr.consumer.RecordedThread;
 
 /**
- * This class is internal and is hence not for public use. Its APIs are unstable and can change at
- * any time.
+ * Maps the thread of a JFR event to the name of its group, so that the threads of a pool share
+ * their metrics. Thread names are normalized by dropping the numbers that pools append to them, at
+ * most {@code maxGroups} groups are tracked at a time and threads of further groups are reported in
+ * the {@link #OVERFLOW_GROUP}. A group is forgotten after all of its threads have ended.
+ *
+ * <p>At most {@code maxThreads} threads are tracked. Threads that are not tracked, either because
+ * too many threads are live or because they are unnamed virtual threads, which don't emit an end
+ * event, keep their group from being forgotten since their end can't be observed.
+ *
+ * <p>Not thread safe, JFR events are dispatched from a single thread.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
  */
 public final class ThreadGrouper {
+  public static final int DEFAULT_MAX_GROUPS = 100;
+  public static final String OVERFLOW_GROUP = "other";
+  // unnamed virtual threads have an empty name
+  static final String VIRTUAL_GROUP = "virtual";
+
+  private static final String EVENT_THREAD = "eventThread";
+  private static final String THREAD = "thread";
+  private static final int DEFAULT_MAX_THREADS = 1024;
+
+  private final int maxGroups;
+  private final int maxThreads;
+  private final Group overflowGroup = new Group(OVERFLOW_GROUP);
+  // access ordered, the eldest group is the least recently used one
+  private final Map<String, Group> groups = new LinkedHashMap<>(16, 0.75f, true);
+  // only removed when the thread ends or is renamed, never to make room for other threads
+  private final Map<Long, ThreadEntry> threads = new HashMap<>();
+
+  public ThreadGrouper() {
+    this(DEFAULT_MAX_GROUPS);
+  }
+
+  public ThreadGrouper(int maxGroups) {
+    this(maxGroups, DEFAULT_MAX_THREADS);
+  }
+
+  // Visible for testing
+  ThreadGrouper(int maxGroups, int maxThreads) {
+    this.maxGroups = maxGroups;
+    this.maxThreads = maxThreads;
+  }
+
+  public int getMaxGroups() {
+    return maxGroups;
+  }
 
-  // FIXME doesn't actually do any grouping, but should be safe for now
   @Nullable
   public String groupedName(RecordedEvent ev) {
-    Object thisField = ev.getValue("eventThread");
-    if (thisField instanceof RecordedThread thread) {
-      return thread.getJavaName();
+    RecordedThread thread = getThread(ev, EVENT_THREAD);
+    if (thread == null) {
+      return null;
+    }
+    String name = thread.getJavaName();
+    if (name == null) {
+      return null;
+    }
+    return groupedName(thread.getJavaThreadId(), name);
+  }
+
+  // Visible for testing
+  String groupedName(long threadId, String name) {
+    ThreadEntry entry = threads.get(threadId);
+    if (entry != null) {
+      if (entry.name.equals(name)) {
+        return entry.group.name;
+      }
+      // the thread was renamed
+      threads.remove(threadId);
+      entry.group.liveThreads--;
+    }
+
+    Group group = findGroup(normalize(name));
+    if (name.isEmpty() || threads.size() >= maxThreads) {
+      // the end of the thread can't be observed, keep its group for good
+      group.untracked = true;
+    } else {
+      group.liveThreads++;
+      threads.put(threadId, new ThreadEntry(name, group));
+    }
+    return group.name;
+  }
+
+  /** Forgets the thread of a {@code jdk.ThreadEnd} event. */
+  public void threadEnded(RecordedEvent ev) {
+    RecordedThread thread = getThread(ev, THREAD);
+    if (thread == null) {
+      return;
+    }
+    threadEnded(thread.getJavaThreadId());
+  }
+
+  // Visible for testing
+  void threadEnded(long threadId) {
+    ThreadEntry entry = threads.remove(threadId);
+    if (entry != null) {
+      entry.group.liveThreads--;
+    }
+  }
+
+  /** Returns whether the group has been forgotten and may not be reported again. */
+  public boolean isEvicted(String groupName) {
+    return !OVERFLOW_GROUP.equals(groupName) && !groups.containsKey(groupName);
+  }
+
+  private Group findGroup(String groupName) {
+    Group group = groups.get(groupName);
+    if (group != null) {
+      return group;
+    }
+    if (groups.size() >= maxGroups && !evictEndedGroup()) {
+      return overflowGroup;
+    }
+    group = new Group(groupName);
+    groups.put(groupName, group);
+    return group;
+  }
+
+  /** Removes the least recently used group whose threads have all ended. */
+  private boolean evictEndedGroup() {
+    for (Iterator<Group> i = groups.values().iterator(); i.hasNext(); ) {
+      Group group = i.next();
+      if (group.liveThreads <= 0 && !group.untracked) {
+        i.remove();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nullable
+  private static RecordedThread getThread(RecordedEvent ev, String field) {
+    if (!ev.hasField(field)) {
+      return null;
+    }
+    Object thread = ev.getValue(field);
+    return thread instanceof RecordedThread ? (RecordedThread) thread : null;
+  }
+
+  /**
+   * Removes the numbers that thread factories add to the names of their threads, e.g. {@code
+   * pool-7-thread-123} becomes {@code pool-thread}, {@code http-nio-8080-exec-4} becomes {@code
+   * http-nio-8080-exec} and {@code ForkJoinPool.commonPool-worker-3} becomes {@code
+   * ForkJoinPool.commonPool-worker}.
+   */
+  static String normalize(String name) {
+    if (name.isEmpty()) {
+      return VIRTUAL_GROUP;
+    }
+
+    // drop trailing numbers together with their separators, e.g. nioEventLoopGroup-2-1
+    int end = name.length();
+    while (true) {
+      int i = end;
+      while (i > 0 && isDigit(name.charAt(i - 1))) {
+        i--;
+      }
+      if (i == end) {
+        break;
+      }
+      while (i > 0 && isSeparator(name.charAt(i - 1))) {
+        i--;
+      }
+      if (i == 0) {
+        break;
+      }
+      end = i;
+    }
+
+    // drop the pool number of schemes like pool-1-thread and ForkJoinPool-1-worker
+    int firstDash = name.indexOf('-');
+    if (firstDash > 0 && firstDash + 1 < end) {
+      int i = firstDash + 1;
+      while (i < end && isDigit(name.charAt(i))) {
+        i++;
+      }
+      if (i > firstDash + 1 && i < end && name.charAt(i) == '-') {
+        return name.substring(0, firstDash) + name.substring(i, end);
+      }
+    }
+
+    return end == name.length() ? name : name.substring(0, end);
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == '-' || c == '_' || c == ' ' || c == '#' || c == '.';
+  }
+
+  private static final class Group {
+    private final String name;
+    private int liveThreads;
+    // whether the group has threads whose end can't be observed
+    private boolean untracked;
+
+    private Group(String name) {
+      this.name = name;
+    }
+  }
+
+  private static final class ThreadEntry {
+    private final String name;
+    private final Group group;
+
+    private ThreadEntry(String name, Group group) {
+      this.name = name;
+      this.group = group;
     }
-    return null;
   }
 }
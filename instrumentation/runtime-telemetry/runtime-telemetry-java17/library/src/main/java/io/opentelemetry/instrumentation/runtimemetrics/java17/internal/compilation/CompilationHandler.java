@@ -0,0 +1,77 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.compilation;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.DurationUtil;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.time.Duration;
+import java.util.Optional;
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * Records the duration of JIT compilations that took longer than the threshold, by compilation
+ * tier.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class CompilationHandler implements RecordedEventHandler {
+  private static final String METRIC_NAME = "jvm.compilation.duration";
+  private static final String METRIC_DESCRIPTION = "Duration of JIT compilations.";
+  private static final String EVENT_NAME = "jdk.Compilation";
+  private static final String COMPILE_LEVEL = "compileLevel";
+  // same as the threshold of the profile JFR configuration
+  private static final Duration THRESHOLD = Duration.ofMillis(100);
+  // tiers 0 (interpreter) to 4 (C2)
+  private static final Attributes[] TIER_ATTRIBUTES = new Attributes[5];
+
+  static {
+    for (int tier = 0; tier < TIER_ATTRIBUTES.length; tier++) {
+      TIER_ATTRIBUTES[tier] = Attributes.of(Constants.ATTR_COMPILATION_TIER, (long) tier);
+    }
+  }
+
+  private final DoubleHistogram histogram;
+
+  public CompilationHandler(Meter meter) {
+    histogram =
+        meter
+            .histogramBuilder(METRIC_NAME)
+            .setDescription(METRIC_DESCRIPTION)
+            .setUnit(Constants.SECONDS)
+            .build();
+  }
+
+  @Override
+  public void accept(RecordedEvent ev) {
+    long tier = ev.getLong(COMPILE_LEVEL);
+    Attributes attributes =
+        tier >= 0 && tier < TIER_ATTRIBUTES.length
+            ? TIER_ATTRIBUTES[(int) tier]
+            : Attributes.of(Constants.ATTR_COMPILATION_TIER, tier);
+    histogram.record(DurationUtil.toSeconds(ev.getDuration()), attributes);
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public JfrFeature getFeature() {
+    return JfrFeature.COMPILATION_METRICS;
+  }
+
+  @Override
+  public Optional<Duration> getThreshold() {
+    return Optional.of(THRESHOLD);
+  }
+}
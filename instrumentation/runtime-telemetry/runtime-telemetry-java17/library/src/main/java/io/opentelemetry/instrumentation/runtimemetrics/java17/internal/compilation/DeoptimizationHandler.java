@@ -0,0 +1,71 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.compilation;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * Counts deoptimizations of compiled code by reason. The reasons are a small fixed set defined by
+ * the JVM.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class DeoptimizationHandler implements RecordedEventHandler {
+  private static final String METRIC_NAME = "jvm.compilation.deoptimization";
+  private static final String METRIC_DESCRIPTION = "Number of deoptimizations of compiled code.";
+  private static final String EVENT_NAME = "jdk.Deoptimization";
+  private static final String REASON = "reason";
+
+  private final LongCounter counter;
+  // JFR events are dispatched from a single thread
+  private final Map<String, Attributes> reasonAttributes = new HashMap<>();
+
+  public DeoptimizationHandler(Meter meter) {
+    counter =
+        meter
+            .counterBuilder(METRIC_NAME)
+            .setDescription(METRIC_DESCRIPTION)
+            .setUnit(Constants.UNIT_DEOPTIMIZATIONS)
+            .build();
+  }
+
+  @Override
+  public void accept(RecordedEvent ev) {
+    String reason = ev.getString(REASON);
+    Attributes attributes =
+        reason == null
+            ? Attributes.empty()
+            : reasonAttributes.computeIfAbsent(
+                reason, key -> Attributes.of(Constants.ATTR_DEOPTIMIZATION_REASON, key));
+    counter.add(1, attributes);
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public JfrFeature getFeature() {
+    return JfrFeature.COMPILATION_METRICS;
+  }
+
+  @Override
+  public Optional<Boolean> getStackTrace() {
+    // the profile JFR configuration records a stack trace, which is expensive in a deopt storm
+    return Optional.of(false);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * Counts the times a code heap was full, after which the JIT compiler stops compiling. The code
+ * heap is reported with the same pool name as the JMX memory pool, e.g. {@code CodeHeap
+ * 'non-profiled nmethods'}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class CodeCacheFullHandler implements RecordedEventHandler {
+  private static final String METRIC_NAME = "jvm.code_cache.full";
+  private static final String METRIC_DESCRIPTION = "Number of times the code cache was full.";
+  private static final String EVENT_NAME = "jdk.CodeCacheFull";
+  private static final String CODE_BLOB_TYPE = "codeBlobType";
+
+  private final LongCounter counter;
+  // JFR events are dispatched from a single thread
+  private final Map<String, Attributes> poolAttributes = new HashMap<>();
+
+  public CodeCacheFullHandler(Meter meter) {
+    counter =
+        meter
+            .counterBuilder(METRIC_NAME)
+            .setDescription(METRIC_DESCRIPTION)
+            .setUnit(Constants.UNIT_EVENTS)
+            .build();
+  }
+
+  @Override
+  public void accept(RecordedEvent ev) {
+    String codeBlobType = ev.getString(CODE_BLOB_TYPE);
+    Attributes attributes =
+        codeBlobType == null
+            ? Attributes.empty()
+            : poolAttributes.computeIfAbsent(
+                codeBlobType,
+                key ->
+                    Attributes.of(
+                        Constants.ATTR_MEMORY_TYPE,
+                        Constants.NON_HEAP,
+                        Constants.ATTR_MEMORY_POOL,
+                        key));
+    counter.add(1, attributes);
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public JfrFeature getFeature() {
+    return JfrFeature.COMPILATION_METRICS;
+  }
+}
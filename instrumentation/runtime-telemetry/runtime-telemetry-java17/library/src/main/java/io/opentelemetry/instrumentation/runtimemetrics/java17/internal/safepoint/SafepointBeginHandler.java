@@ -0,0 +1,82 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.safepoint;
+
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.DurationUtil;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * Records the time it took to bring all threads to a safepoint. The {@code jdk.SafepointBegin}
+ * event lasts from the start of the safepoint until all threads have stopped.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class SafepointBeginHandler implements RecordedEventHandler {
+  private static final String METRIC_NAME = "jvm.safepoint.time_to_safepoint";
+  private static final String METRIC_DESCRIPTION =
+      "Time it took to bring all threads to a safepoint.";
+  private static final String EVENT_NAME = "jdk.SafepointBegin";
+  private static final String SAFEPOINT_ID = "safepointId";
+  // safepoints that haven't ended yet, there is at most one unless events are lost
+  private static final int MAX_PENDING_SAFEPOINTS = 16;
+
+  private final DoubleHistogram histogram;
+  // JFR events are dispatched from a single thread
+  private final Map<Long, Instant> pendingSafepoints =
+      new LinkedHashMap<Long, Instant>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Instant> eldest) {
+          return size() > MAX_PENDING_SAFEPOINTS;
+        }
+      };
+
+  public SafepointBeginHandler(Meter meter) {
+    histogram =
+        meter
+            .histogramBuilder(METRIC_NAME)
+            .setDescription(METRIC_DESCRIPTION)
+            .setUnit(Constants.SECONDS)
+            .build();
+  }
+
+  @Override
+  public void accept(RecordedEvent ev) {
+    histogram.record(DurationUtil.toSeconds(ev.getDuration()));
+    pendingSafepoints.put(ev.getLong(SAFEPOINT_ID), ev.getStartTime());
+  }
+
+  /** Returns the start time of the safepoint and forgets it. */
+  @Nullable
+  Instant removeStartTime(long safepointId) {
+    return pendingSafepoints.remove(safepointId);
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public JfrFeature getFeature() {
+    return JfrFeature.SAFEPOINT_METRICS;
+  }
+
+  @Override
+  public Optional<Boolean> getStackTrace() {
+    return Optional.of(false);
+  }
+}
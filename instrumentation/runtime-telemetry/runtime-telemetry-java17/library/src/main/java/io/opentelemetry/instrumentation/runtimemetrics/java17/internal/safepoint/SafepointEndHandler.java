@@ -0,0 +1,67 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.safepoint;
+
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.DurationUtil;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * Records how long threads were stopped at a safepoint, from the start of the matching {@code
+ * jdk.SafepointBegin} event to the end of the {@code jdk.SafepointEnd} event.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class SafepointEndHandler implements RecordedEventHandler {
+  private static final String METRIC_NAME = "jvm.safepoint.duration";
+  private static final String METRIC_DESCRIPTION = "Duration of safepoints.";
+  private static final String EVENT_NAME = "jdk.SafepointEnd";
+  private static final String SAFEPOINT_ID = "safepointId";
+
+  private final DoubleHistogram histogram;
+  private final SafepointBeginHandler beginHandler;
+
+  public SafepointEndHandler(Meter meter, SafepointBeginHandler beginHandler) {
+    this.beginHandler = beginHandler;
+    histogram =
+        meter
+            .histogramBuilder(METRIC_NAME)
+            .setDescription(METRIC_DESCRIPTION)
+            .setUnit(Constants.SECONDS)
+            .build();
+  }
+
+  @Override
+  public void accept(RecordedEvent ev) {
+    Instant startTime = beginHandler.removeStartTime(ev.getLong(SAFEPOINT_ID));
+    if (startTime != null) {
+      histogram.record(DurationUtil.toSeconds(Duration.between(startTime, ev.getEndTime())));
+    }
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public JfrFeature getFeature() {
+    return JfrFeature.SAFEPOINT_METRICS;
+  }
+
+  @Override
+  public Optional<Boolean> getStackTrace() {
+    return Optional.of(false);
+  }
+}
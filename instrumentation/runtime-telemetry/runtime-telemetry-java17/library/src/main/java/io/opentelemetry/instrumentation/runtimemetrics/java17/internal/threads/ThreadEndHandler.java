@@ -0,0 +1,45 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.threads;
+
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.ThreadGrouper;
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * Lets the {@link ThreadGrouper} forget threads that have ended. Doesn't record any metrics, it is
+ * registered for the feature of the handlers that use the grouper.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class ThreadEndHandler implements RecordedEventHandler {
+  private static final String EVENT_NAME = "jdk.ThreadEnd";
+
+  private final ThreadGrouper grouper;
+  private final JfrFeature feature;
+
+  public ThreadEndHandler(ThreadGrouper grouper, JfrFeature feature) {
+    this.grouper = grouper;
+    this.feature = feature;
+  }
+
+  @Override
+  public void accept(RecordedEvent ev) {
+    grouper.threadEnded(ev);
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public JfrFeature getFeature() {
+    return feature;
+  }
+}
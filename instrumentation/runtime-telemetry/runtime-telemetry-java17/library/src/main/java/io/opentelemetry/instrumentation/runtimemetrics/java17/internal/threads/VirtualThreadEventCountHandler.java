@@ -0,0 +1,84 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.threads;
+
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.util.Optional;
+import jdk.jfr.consumer.RecordedEvent;
+
+/**
+ * Counts the occurrences of a virtual thread event.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class VirtualThreadEventCountHandler implements RecordedEventHandler {
+
+  private final String eventName;
+  private final LongCounter counter;
+
+  /** Counts the virtual threads started. */
+  public static VirtualThreadEventCountHandler started(Meter meter) {
+    return new VirtualThreadEventCountHandler(
+        meter,
+        "jdk.VirtualThreadStart",
+        "jvm.virtual_thread.started",
+        "Number of virtual threads started.",
+        Constants.UNIT_THREADS);
+  }
+
+  /** Counts the virtual threads ended. */
+  public static VirtualThreadEventCountHandler ended(Meter meter) {
+    return new VirtualThreadEventCountHandler(
+        meter,
+        "jdk.VirtualThreadEnd",
+        "jvm.virtual_thread.ended",
+        "Number of virtual threads ended.",
+        Constants.UNIT_THREADS);
+  }
+
+  /** Counts the failures to start or unpark a virtual thread. */
+  public static VirtualThreadEventCountHandler submitFailed(Meter meter) {
+    return new VirtualThreadEventCountHandler(
+        meter,
+        "jdk.VirtualThreadSubmitFailed",
+        "jvm.virtual_thread.submit_failed",
+        "Number of times starting or unparking a virtual thread failed.",
+        Constants.UNIT_FAILURES);
+  }
+
+  private VirtualThreadEventCountHandler(
+      Meter meter, String eventName, String metricName, String metricDescription, String unit) {
+    this.eventName = eventName;
+    counter =
+        meter.counterBuilder(metricName).setDescription(metricDescription).setUnit(unit).build();
+  }
+
+  @Override
+  public void accept(RecordedEvent ev) {
+    counter.add(1);
+  }
+
+  @Override
+  public String getEventName() {
+    return eventName;
+  }
+
+  @Override
+  public JfrFeature getFeature() {
+    return JfrFeature.VIRTUAL_THREAD_METRICS;
+  }
+
+  @Override
+  public Optional<Boolean> getStackTrace() {
+    // recorded for every virtual thread, keep the event cheap
+    return Optional.of(false);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.threads;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.DurationUtil;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+
+/**
+ * Records how long virtual threads were pinned to their carrier thread, grouped by the top
+ * application frame of the pinned thread.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class VirtualThreadPinnedHandler implements RecordedEventHandler {
+  private static final String METRIC_NAME = "jvm.virtual_thread.pinned.duration";
+  private static final String METRIC_DESCRIPTION =
+      "Duration of virtual threads pinned to their carrier thread.";
+  private static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+  // same as the threshold of the default JFR configuration
+  private static final Duration THRESHOLD = Duration.ofMillis(20);
+  private static final int MAX_FRAMES = 100;
+  private static final Attributes OTHER_FRAMES =
+      Attributes.of(Constants.ATTR_CODE_FUNCTION, "other");
+
+  private final DoubleHistogram histogram;
+  // JFR events are dispatched from a single thread
+  private final Map<String, Attributes> frameAttributes = new HashMap<>();
+
+  public VirtualThreadPinnedHandler(Meter meter) {
+    histogram =
+        meter
+            .histogramBuilder(METRIC_NAME)
+            .setDescription(METRIC_DESCRIPTION)
+            .setUnit(Constants.SECONDS)
+            .build();
+  }
+
+  @Override
+  public void accept(RecordedEvent ev) {
+    histogram.record(DurationUtil.toSeconds(ev.getDuration()), attributes(ev.getStackTrace()));
+  }
+
+  private Attributes attributes(@Nullable RecordedStackTrace stackTrace) {
+    String function = stackTrace == null ? null : topApplicationFunction(stackTrace.getFrames());
+    if (function == null) {
+      return Attributes.empty();
+    }
+    Attributes attributes = frameAttributes.get(function);
+    if (attributes == null) {
+      if (frameAttributes.size() >= MAX_FRAMES) {
+        return OTHER_FRAMES;
+      }
+      attributes = Attributes.of(Constants.ATTR_CODE_FUNCTION, function);
+      frameAttributes.put(function, attributes);
+    }
+    return attributes;
+  }
+
+  /** Returns the first frame outside the JDK, or the top frame when all frames are in the JDK. */
+  @Nullable
+  static String topApplicationFunction(List<RecordedFrame> frames) {
+    String topFunction = null;
+    for (RecordedFrame frame : frames) {
+      RecordedMethod method = frame.getMethod();
+      if (method == null) {
+        continue;
+      }
+      String className = method.getType().getName();
+      String function = className + "." + method.getName();
+      if (!isJdkClass(className)) {
+        return function;
+      }
+      if (topFunction == null) {
+        topFunction = function;
+      }
+    }
+    return topFunction;
+  }
+
+  private static boolean isJdkClass(String className) {
+    return className.startsWith("java.")
+        || className.startsWith("jdk.")
+        || className.startsWith("sun.")
+        || className.startsWith("com.sun.");
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public JfrFeature getFeature() {
+    return JfrFeature.VIRTUAL_THREAD_METRICS;
+  }
+
+  @Override
+  public Optional<Duration> getThreshold() {
+    return Optional.of(THRESHOLD);
+  }
+
+  @Override
+  public Optional<Boolean> getStackTrace() {
+    return Optional.of(true);
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.ATTR_COMPILATION_TIER;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.ATTR_DEOPTIMIZATION_REASON;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.ATTR_MEMORY_POOL;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.ATTR_MEMORY_TYPE;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.NON_HEAP;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.SECONDS;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.UNIT_DEOPTIMIZATIONS;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.UNIT_EVENTS;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
+import static java.util.Arrays.asList;
+
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.compilation.CompilationHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.compilation.DeoptimizationHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.memory.CodeCacheFullHandler;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The JVM can't be made to emit slow compilations, deoptimizations or a full code cache on demand,
+ * so the handlers are fed events of the same shape that are recorded by the test.
+ */
+class JfrCompilationTest {
+
+  @Name("otel.test.Compilation")
+  static class CompilationEvent extends Event {
+    short compileLevel;
+  }
+
+  @Name("otel.test.Deoptimization")
+  static class DeoptimizationEvent extends Event {
+    String reason;
+  }
+
+  @Name("otel.test.CodeCacheFull")
+  static class CodeCacheFullEvent extends Event {
+    String codeBlobType;
+  }
+
+  @TempDir Path tempDir;
+
+  private SdkMeterProvider meterProvider;
+  private InMemoryMetricReader metricReader;
+  private Meter meter;
+
+  @BeforeEach
+  void setUp() {
+    Assumptions.assumeTrue(FlightRecorder.isAvailable(), "JFR not available");
+
+    metricReader = InMemoryMetricReader.create();
+    meterProvider = SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+    meter = meterProvider.get("test");
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (meterProvider != null) {
+      meterProvider.close();
+    }
+  }
+
+  @Test
+  void shouldRecordCompilationDurationByTier() throws Exception {
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              CompilationEvent c1 = new CompilationEvent();
+              c1.begin();
+              TimeUnit.MILLISECONDS.sleep(10);
+              c1.compileLevel = 3;
+              c1.commit();
+
+              CompilationEvent c2 = new CompilationEvent();
+              c2.compileLevel = 4;
+              c2.commit();
+            });
+
+    Collection<MetricData> metrics = dispatch(new CompilationHandler(meter), events);
+
+    assertThat(metrics)
+        .satisfiesExactly(
+            metric ->
+                assertThat(metric)
+                    .hasName("jvm.compilation.duration")
+                    .hasUnit(SECONDS)
+                    .hasHistogramSatisfying(
+                        histogram ->
+                            histogram.hasPointsSatisfying(
+                                point ->
+                                    point
+                                        .hasCount(1)
+                                        .hasAttributesSatisfyingExactly(
+                                            equalTo(ATTR_COMPILATION_TIER, 3L))
+                                        .satisfies(
+                                            data ->
+                                                assertThat(data.getSum())
+                                                    .isGreaterThanOrEqualTo(0.01)),
+                                point ->
+                                    point
+                                        .hasCount(1)
+                                        .hasAttributesSatisfyingExactly(
+                                            equalTo(ATTR_COMPILATION_TIER, 4L)))));
+  }
+
+  @Test
+  void shouldCountDeoptimizationsByReason() throws Exception {
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              for (String reason : new String[] {"class_check", "class_check", "unstable_if"}) {
+                DeoptimizationEvent event = new DeoptimizationEvent();
+                event.reason = reason;
+                event.commit();
+              }
+            });
+
+    Collection<MetricData> metrics = dispatch(new DeoptimizationHandler(meter), events);
+
+    assertThat(metrics)
+        .satisfiesExactly(
+            metric ->
+                assertThat(metric)
+                    .hasName("jvm.compilation.deoptimization")
+                    .hasUnit(UNIT_DEOPTIMIZATIONS)
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(2)
+                                            .hasAttributesSatisfyingExactly(
+                                                equalTo(ATTR_DEOPTIMIZATION_REASON, "class_check")),
+                                    point ->
+                                        point
+                                            .hasValue(1)
+                                            .hasAttributesSatisfyingExactly(
+                                                equalTo(
+                                                    ATTR_DEOPTIMIZATION_REASON, "unstable_if")))));
+  }
+
+  @Test
+  void shouldCountFullCodeCacheByPool() throws Exception {
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              CodeCacheFullEvent event = new CodeCacheFullEvent();
+              event.codeBlobType = "CodeHeap 'non-profiled nmethods'";
+              event.commit();
+            });
+
+    Collection<MetricData> metrics = dispatch(new CodeCacheFullHandler(meter), events);
+
+    assertThat(metrics)
+        .satisfiesExactly(
+            metric ->
+                assertThat(metric)
+                    .hasName("jvm.code_cache.full")
+                    .hasUnit(UNIT_EVENTS)
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(1)
+                                            .hasAttributesSatisfyingExactly(
+                                                equalTo(ATTR_MEMORY_TYPE, NON_HEAP),
+                                                equalTo(
+                                                    ATTR_MEMORY_POOL,
+                                                    "CodeHeap 'non-profiled nmethods'")))));
+  }
+
+  @Test
+  void shouldHandleJdkCompilationEvents() {
+    List<RecordedEventHandler> handlers =
+        asList(
+            new CompilationHandler(meter),
+            new DeoptimizationHandler(meter),
+            new CodeCacheFullHandler(meter));
+
+    assertThat(handlers)
+        .extracting(RecordedEventHandler::getEventName)
+        .containsExactly("jdk.Compilation", "jdk.Deoptimization", "jdk.CodeCacheFull");
+    assertThat(handlers)
+        .extracting(RecordedEventHandler::getFeature)
+        .containsOnly(JfrFeature.COMPILATION_METRICS);
+  }
+
+  private List<RecordedEvent> record(EventEmitter emitter) throws Exception {
+    Path file = Files.createTempFile(tempDir, "compilation", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(CompilationEvent.class).withoutThreshold();
+      recording.enable(DeoptimizationEvent.class).withoutThreshold();
+      recording.enable(CodeCacheFullEvent.class).withoutThreshold();
+      recording.start();
+      emitter.emit();
+      recording.stop();
+      recording.dump(file);
+    }
+    return RecordingFile.readAllEvents(file);
+  }
+
+  private Collection<MetricData> dispatch(
+      RecordedEventHandler handler, List<RecordedEvent> events) {
+    events.forEach(handler);
+    return metricReader.collectAllMetrics();
+  }
+
+  private interface EventEmitter {
+    void emit() throws Exception;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class JfrSafepointTest {
+
+  @RegisterExtension
+  JfrExtension jfrExtension =
+      new JfrExtension(
+          builder -> builder.disableAllFeatures().enableFeature(JfrFeature.SAFEPOINT_METRICS));
+
+  @Test
+  void shouldHaveSafepointEvents() {
+    // a full gc runs at a safepoint
+    System.gc();
+
+    jfrExtension.waitAndAssertMetrics(
+        metric ->
+            metric
+                .hasName("jvm.safepoint.time_to_safepoint")
+                .hasUnit(SECONDS)
+                .hasHistogramSatisfying(
+                    histogram ->
+                        histogram.hasPointsSatisfying(
+                            point ->
+                                point
+                                    .hasAttributes(Attributes.empty())
+                                    .satisfies(JfrSafepointTest::hasRecordedSafepoint))),
+        metric ->
+            metric
+                .hasName("jvm.safepoint.duration")
+                .hasUnit(SECONDS)
+                .hasHistogramSatisfying(
+                    histogram ->
+                        histogram.hasPointsSatisfying(
+                            point ->
+                                point
+                                    .hasAttributes(Attributes.empty())
+                                    .satisfies(JfrSafepointTest::hasRecordedSafepoint))));
+  }
+
+  private static void hasRecordedSafepoint(HistogramPointData point) {
+    assertThat(point.getCount()).isPositive();
+    assertThat(point.getMin()).isNotNegative();
+    assertThat(point.getMax()).isLessThan(60);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.ATTR_CODE_FUNCTION;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.SECONDS;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.UNIT_THREADS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class JfrVirtualThreadTest {
+
+  @RegisterExtension
+  JfrExtension jfrExtension =
+      new JfrExtension(
+          builder -> builder.disableAllFeatures().enableFeature(JfrFeature.VIRTUAL_THREAD_METRICS));
+
+  @BeforeEach
+  void setUp() {
+    Assumptions.assumeTrue(Runtime.version().feature() >= 21, "virtual threads not available");
+  }
+
+  @Test
+  void shouldHaveVirtualThreadStartAndEndEvents() throws Exception {
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    for (int i = 0; i < 10; i++) {
+      executor.execute(() -> {});
+    }
+    shutdown(executor);
+
+    jfrExtension.waitAndAssertMetrics(
+        metric ->
+            metric
+                .hasName("jvm.virtual_thread.started")
+                .hasUnit(UNIT_THREADS)
+                .satisfies(
+                    data ->
+                        assertThat(data.getLongSumData().getPoints())
+                            .anyMatch(point -> point.getValue() >= 10)),
+        metric ->
+            metric
+                .hasName("jvm.virtual_thread.ended")
+                .hasUnit(UNIT_THREADS)
+                .satisfies(
+                    data ->
+                        assertThat(data.getLongSumData().getPoints())
+                            .anyMatch(point -> point.getValue() >= 10)));
+  }
+
+  @Test
+  void shouldHaveVirtualThreadPinnedEvents() throws Exception {
+    // since jdk 24 virtual threads are no longer pinned inside synchronized blocks
+    Assumptions.assumeTrue(Runtime.version().feature() < 24);
+
+    Object lock = new Object();
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    executor.execute(
+        () -> {
+          synchronized (lock) {
+            sleep();
+          }
+        });
+    shutdown(executor);
+
+    jfrExtension.waitAndAssertMetrics(
+        metric ->
+            metric
+                .hasName("jvm.virtual_thread.pinned.duration")
+                .hasUnit(SECONDS)
+                .satisfies(
+                    data ->
+                        assertThat(data.getHistogramData().getPoints())
+                            .anyMatch(
+                                point ->
+                                    point
+                                        .getAttributes()
+                                        .get(ATTR_CODE_FUNCTION)
+                                        .startsWith(JfrVirtualThreadTest.class.getName()))));
+  }
+
+  private static void sleep() {
+    try {
+      TimeUnit.MILLISECONDS.sleep(100);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void shutdown(ExecutorService executor) throws InterruptedException {
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  // this module is compiled for java 17
+  private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+    return (ExecutorService)
+        Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+  }
+}
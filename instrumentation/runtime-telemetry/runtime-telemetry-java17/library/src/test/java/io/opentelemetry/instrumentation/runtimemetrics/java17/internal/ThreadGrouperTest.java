@@ -0,0 +1,96 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ThreadGrouperTest {
+
+  @Test
+  void normalizePoolThreadNames() {
+    assertThat(ThreadGrouper.normalize("main")).isEqualTo("main");
+    assertThat(ThreadGrouper.normalize("pool-7-thread-123456")).isEqualTo("pool-thread");
+    assertThat(ThreadGrouper.normalize("ForkJoinPool-1-worker-3")).isEqualTo("ForkJoinPool-worker");
+    assertThat(ThreadGrouper.normalize("ForkJoinPool.commonPool-worker-12"))
+        .isEqualTo("ForkJoinPool.commonPool-worker");
+    assertThat(ThreadGrouper.normalize("http-nio-8080-exec-10")).isEqualTo("http-nio-8080-exec");
+    assertThat(ThreadGrouper.normalize("nioEventLoopGroup-2-1")).isEqualTo("nioEventLoopGroup");
+    assertThat(ThreadGrouper.normalize("Thread-42")).isEqualTo("Thread");
+    assertThat(ThreadGrouper.normalize("GC Thread#3")).isEqualTo("GC Thread");
+    assertThat(ThreadGrouper.normalize("C2 CompilerThread0")).isEqualTo("C2 CompilerThread");
+    assertThat(ThreadGrouper.normalize("worker-")).isEqualTo("worker-");
+    assertThat(ThreadGrouper.normalize("1234")).isEqualTo("1234");
+    assertThat(ThreadGrouper.normalize("")).isEqualTo(ThreadGrouper.VIRTUAL_GROUP);
+  }
+
+  @Test
+  void groupThreadsOfPool() {
+    ThreadGrouper grouper = new ThreadGrouper();
+
+    assertThat(grouper.groupedName(1, "pool-1-thread-1")).isEqualTo("pool-thread");
+    assertThat(grouper.groupedName(2, "pool-1-thread-2")).isEqualTo("pool-thread");
+    assertThat(grouper.groupedName(3, "main")).isEqualTo("main");
+    // renamed thread
+    assertThat(grouper.groupedName(3, "renamed")).isEqualTo("renamed");
+  }
+
+  @Test
+  void overflowWhenGroupsAreLive() {
+    ThreadGrouper grouper = new ThreadGrouper(2);
+
+    assertThat(grouper.groupedName(1, "first")).isEqualTo("first");
+    assertThat(grouper.groupedName(2, "second")).isEqualTo("second");
+    assertThat(grouper.groupedName(3, "third")).isEqualTo(ThreadGrouper.OVERFLOW_GROUP);
+    assertThat(grouper.isEvicted("first")).isFalse();
+    assertThat(grouper.isEvicted(ThreadGrouper.OVERFLOW_GROUP)).isFalse();
+  }
+
+  @Test
+  void evictGroupsOfEndedThreads() {
+    ThreadGrouper grouper = new ThreadGrouper(2);
+
+    assertThat(grouper.groupedName(1, "first")).isEqualTo("first");
+    assertThat(grouper.groupedName(2, "second-1")).isEqualTo("second");
+    assertThat(grouper.groupedName(3, "second-2")).isEqualTo("second");
+
+    grouper.threadEnded(2);
+    assertThat(grouper.groupedName(4, "third")).isEqualTo(ThreadGrouper.OVERFLOW_GROUP);
+
+    grouper.threadEnded(1);
+    assertThat(grouper.groupedName(5, "fourth")).isEqualTo("fourth");
+    assertThat(grouper.isEvicted("first")).isTrue();
+    assertThat(grouper.isEvicted("second")).isFalse();
+  }
+
+  @Test
+  void keepGroupsOfUntrackedThreads() {
+    ThreadGrouper grouper = new ThreadGrouper(2, 1);
+
+    assertThat(grouper.groupedName(1, "first")).isEqualTo("first");
+    // too many threads, the second one is not tracked
+    assertThat(grouper.groupedName(2, "second")).isEqualTo("second");
+    assertThat(grouper.groupedName(2, "second")).isEqualTo("second");
+
+    grouper.threadEnded(1);
+    grouper.threadEnded(2);
+    assertThat(grouper.groupedName(3, "third")).isEqualTo("third");
+    assertThat(grouper.isEvicted("first")).isTrue();
+    // the end of the untracked thread was not observed
+    assertThat(grouper.isEvicted("second")).isFalse();
+    assertThat(grouper.groupedName(4, "fourth")).isEqualTo(ThreadGrouper.OVERFLOW_GROUP);
+  }
+
+  @Test
+  void keepGroupOfUnnamedVirtualThreads() {
+    ThreadGrouper grouper = new ThreadGrouper(1);
+
+    assertThat(grouper.groupedName(1, "")).isEqualTo(ThreadGrouper.VIRTUAL_GROUP);
+    assertThat(grouper.groupedName(2, "main")).isEqualTo(ThreadGrouper.OVERFLOW_GROUP);
+    assertThat(grouper.isEvicted(ThreadGrouper.VIRTUAL_GROUP)).isFalse();
+  }
+}
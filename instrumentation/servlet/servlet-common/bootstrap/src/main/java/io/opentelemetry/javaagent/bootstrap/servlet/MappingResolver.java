@@ -6,44 +6,55 @@
 package io.opentelemetry.javaagent.bootstrap.servlet;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import javax.annotation.Nullable;
 
 /**
  * Helper class for finding a mapping that matches current request from a collection of mappings.
+ *
+ * <p>Exact and path prefix mappings are compiled into a trie of path segments, extension mappings
+ * into a table keyed by the extension. The request path is never built, {@link #resolve(String,
+ * String)} reads the servlet path and the path info as if they were a single string. Like the
+ * servlet container, an exact mapping is preferred over the longest matching path prefix mapping,
+ * which is preferred over the longest matching extension mapping.
  */
 public final class MappingResolver {
-  private final Set<String> exactMatches;
-  private final List<WildcardMatcher> wildcardMatchers;
+  private final Node root;
+  private final RegionMap<SuffixMapping[]> suffixMappings;
   private final boolean hasDefault;
 
   private MappingResolver(
-      Set<String> exactMatches, List<WildcardMatcher> wildcardMatchers, boolean hasDefault) {
-    this.exactMatches = exactMatches.isEmpty() ? Collections.emptySet() : exactMatches;
-    this.wildcardMatchers = wildcardMatchers.isEmpty() ? Collections.emptyList() : wildcardMatchers;
+      Node root, RegionMap<SuffixMapping[]> suffixMappings, boolean hasDefault) {
+    this.root = root;
+    this.suffixMappings = suffixMappings;
     this.hasDefault = hasDefault;
   }
 
   public static MappingResolver build(Collection<String> mappings) {
-    List<WildcardMatcher> wildcardMatchers = new ArrayList<>();
-    Set<String> exactMatches = new HashSet<>();
+    NodeBuilder root = new NodeBuilder();
+    Map<String, List<SuffixMapping>> suffixMappings = new HashMap<>();
     boolean hasDefault = false;
     for (String mapping : mappings) {
       if (mapping.equals("")) {
-        exactMatches.add("/");
+        root.add("/").exactMapping = "/";
       } else if (mapping.equals("/") || mapping.equals("/*")) {
         hasDefault = true;
       } else if (mapping.startsWith("*.") && mapping.length() > 2) {
-        wildcardMatchers.add(new SuffixMatcher("/" + mapping, mapping.substring(1)));
+        String suffix = mapping.substring(1);
+        // the extension is everything after the last dot, a path ending with the suffix ends with
+        // the same extension
+        String extension = suffix.substring(suffix.lastIndexOf('.') + 1);
+        suffixMappings
+            .computeIfAbsent(extension, key -> new ArrayList<>())
+            .add(new SuffixMapping("/" + mapping, suffix));
       } else if (mapping.endsWith("/*")) {
-        wildcardMatchers.add(
-            new PrefixMatcher(mapping, mapping.substring(0, mapping.length() - 2)));
+        root.add(mapping.substring(0, mapping.length() - 2)).prefixMapping = mapping;
       } else {
-        exactMatches.add(mapping);
+        root.add(mapping).exactMapping = mapping;
       }
     }
 
@@ -52,7 +63,15 @@ public final class MappingResolver {
       hasDefault = true;
     }
 
-    return new MappingResolver(exactMatches, wildcardMatchers, hasDefault);
+    Map<String, SuffixMapping[]> suffixTable = new HashMap<>();
+    for (Map.Entry<String, List<SuffixMapping>> entry : suffixMappings.entrySet()) {
+      SuffixMapping[] candidates = entry.getValue().toArray(new SuffixMapping[0]);
+      // prefer the longest suffix
+      Arrays.sort(candidates, (s1, s2) -> s2.suffix.length() - s1.suffix.length());
+      suffixTable.put(entry.getKey(), candidates);
+    }
+
+    return new MappingResolver(root.build(), new RegionMap<>(suffixTable), hasDefault);
   }
 
   /** Find mapping for requested path. */
@@ -62,81 +81,206 @@ public final class MappingResolver {
       return null;
     }
 
-    // get full path inside context
-    String path = servletPath;
-    if (pathInfo != null) {
-      path += pathInfo;
-    }
-    // trim trailing /
-    if (path.endsWith("/") && !path.equals("/")) {
-      path = path.substring(0, path.length() - 1);
+    // the full path inside context is servletPath + pathInfo
+    String rest = pathInfo != null ? pathInfo : "";
+    int length = servletPath.length() + rest.length();
+    // ignore trailing /
+    if (length > 1 && charAt(servletPath, rest, length - 1) == '/') {
+      length--;
     }
 
-    if (exactMatches.contains(path)) {
-      return path;
+    String prefixMapping = null;
+    Node node = root;
+    int start = 0;
+    while (true) {
+      int end = indexOfSlash(servletPath, rest, start, length);
+      node = node.children.get(servletPath, rest, start, end);
+      if (node == null) {
+        break;
+      }
+      if (end == length && node.exactMapping != null) {
+        return node.exactMapping;
+      }
+      // a deeper prefix is a longer prefix
+      if (node.prefixMapping != null) {
+        prefixMapping = node.prefixMapping;
+      }
+      if (end == length) {
+        break;
+      }
+      start = end + 1;
+    }
+    if (prefixMapping != null) {
+      return prefixMapping;
     }
 
-    for (WildcardMatcher matcher : wildcardMatchers) {
-      if (matcher.match(path)) {
-        String mapping = matcher.getMapping();
-        // for jsp return servlet path
-        if ("/*.jsp".equals(mapping) || "/*.jspx".equals(mapping)) {
-          return servletPath;
+    int lastDot = lastIndexOfDot(servletPath, rest, length);
+    if (lastDot != -1) {
+      SuffixMapping[] candidates = suffixMappings.get(servletPath, rest, lastDot + 1, length);
+      if (candidates != null) {
+        for (SuffixMapping candidate : candidates) {
+          String suffix = candidate.suffix;
+          int suffixStart = length - suffix.length();
+          if (suffixStart >= 0 && regionEquals(suffix, servletPath, rest, suffixStart, length)) {
+            // for jsp return servlet path
+            return candidate.jsp ? servletPath : candidate.mapping;
+          }
         }
-        return mapping;
       }
     }
 
     if (hasDefault) {
-      return path.equals("/") ? "/" : "/*";
+      return length == 1 && charAt(servletPath, rest, 0) == '/' ? "/" : "/*";
     }
 
     return null;
   }
 
-  private interface WildcardMatcher {
-    boolean match(String path);
+  private static char charAt(String first, String second, int index) {
+    int firstLength = first.length();
+    return index < firstLength ? first.charAt(index) : second.charAt(index - firstLength);
+  }
 
-    String getMapping();
+  private static int indexOfSlash(String first, String second, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (charAt(first, second, i) == '/') {
+        return i;
+      }
+    }
+    return end;
   }
 
-  private static class PrefixMatcher implements WildcardMatcher {
-    private final String mapping;
-    private final String prefix;
+  private static int lastIndexOfDot(String first, String second, int end) {
+    for (int i = end - 1; i >= 0; i--) {
+      if (charAt(first, second, i) == '.') {
+        return i;
+      }
+    }
+    return -1;
+  }
 
-    private PrefixMatcher(String mapping, String prefix) {
-      this.mapping = mapping;
-      this.prefix = prefix;
+  /** Same as {@link String#hashCode()} of the region. */
+  private static int hash(String first, String second, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + charAt(first, second, i);
     }
+    return hash;
+  }
 
-    @Override
-    public boolean match(String path) {
-      return path.equals(prefix) || path.startsWith(prefix + "/");
+  private static boolean regionEquals(String key, String first, String second, int start, int end) {
+    if (key.length() != end - start) {
+      return false;
     }
+    for (int i = start; i < end; i++) {
+      if (key.charAt(i - start) != charAt(first, second, i)) {
+        return false;
+      }
+    }
+    return true;
+  }
 
-    @Override
-    public String getMapping() {
-      return mapping;
+  private static final class Node {
+    @Nullable private final String exactMapping;
+    @Nullable private final String prefixMapping;
+    private final RegionMap<Node> children;
+
+    private Node(
+        @Nullable String exactMapping, @Nullable String prefixMapping, RegionMap<Node> children) {
+      this.exactMapping = exactMapping;
+      this.prefixMapping = prefixMapping;
+      this.children = children;
     }
   }
 
-  private static class SuffixMatcher implements WildcardMatcher {
-    private final String mapping;
-    private final String suffix;
+  private static final class NodeBuilder {
+    private final Map<String, NodeBuilder> children = new HashMap<>();
+    @Nullable private String exactMapping;
+    @Nullable private String prefixMapping;
 
-    private SuffixMatcher(String mapping, String suffix) {
-      this.mapping = mapping;
-      this.suffix = suffix;
+    /** Returns the node for the path, the path is split at every {@code /}. */
+    NodeBuilder add(String path) {
+      NodeBuilder node = this;
+      int start = 0;
+      while (true) {
+        int end = path.indexOf('/', start);
+        String segment = path.substring(start, end == -1 ? path.length() : end);
+        node = node.children.computeIfAbsent(segment, key -> new NodeBuilder());
+        if (end == -1) {
+          return node;
+        }
+        start = end + 1;
+      }
+    }
+
+    Node build() {
+      Map<String, Node> builtChildren = new HashMap<>();
+      for (Map.Entry<String, NodeBuilder> entry : children.entrySet()) {
+        builtChildren.put(entry.getKey(), entry.getValue().build());
+      }
+      return new Node(exactMapping, prefixMapping, new RegionMap<>(builtChildren));
+    }
+  }
+
+  /**
+   * An immutable hash table with string keys that is looked up with a region of the servlet path
+   * and the path info, so that the key does not need to be copied out of the request path.
+   */
+  private static final class RegionMap<V> {
+    private final String[] keys;
+    private final Object[] values;
+
+    RegionMap(Map<String, V> map) {
+      int capacity = map.isEmpty() ? 0 : 1;
+      // keep the table at most half full
+      while (capacity < map.size() * 2) {
+        capacity <<= 1;
+      }
+      keys = new String[capacity];
+      values = new Object[capacity];
+      int mask = capacity - 1;
+      for (Map.Entry<String, V> entry : map.entrySet()) {
+        int index = spread(entry.getKey().hashCode()) & mask;
+        while (keys[index] != null) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = entry.getKey();
+        values[index] = entry.getValue();
+      }
     }
 
-    @Override
-    public boolean match(String path) {
-      return path.endsWith(suffix);
+    @Nullable
+    @SuppressWarnings("unchecked")
+    V get(String first, String second, int start, int end) {
+      if (keys.length == 0) {
+        return null;
+      }
+      int mask = keys.length - 1;
+      int index = spread(hash(first, second, start, end)) & mask;
+      String key;
+      while ((key = keys[index]) != null) {
+        if (regionEquals(key, first, second, start, end)) {
+          return (V) values[index];
+        }
+        index = (index + 1) & mask;
+      }
+      return null;
     }
 
-    @Override
-    public String getMapping() {
-      return mapping;
+    private static int spread(int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+
+  private static final class SuffixMapping {
+    private final String mapping;
+    private final String suffix;
+    private final boolean jsp;
+
+    private SuffixMapping(String mapping, String suffix) {
+      this.mapping = mapping;
+      this.suffix = suffix;
+      this.jsp = "/*.jsp".equals(mapping) || "/*.jspx".equals(mapping);
     }
   }
 
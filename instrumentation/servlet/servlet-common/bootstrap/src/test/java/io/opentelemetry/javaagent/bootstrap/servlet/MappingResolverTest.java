@@ -0,0 +1,69 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap.servlet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class MappingResolverTest {
+
+  @Test
+  void shouldResolveExactMapping() {
+    MappingResolver resolver = MappingResolver.build(Arrays.asList("/exact", "/a/b", ""));
+
+    assertThat(resolver.resolve("/exact", null)).isEqualTo("/exact");
+    assertThat(resolver.resolve("/exact/", null)).isEqualTo("/exact");
+    assertThat(resolver.resolve("/a", "/b")).isEqualTo("/a/b");
+    assertThat(resolver.resolve("", "/")).isEqualTo("/");
+    assertThat(resolver.resolve("/exact", "/more")).isNull();
+    assertThat(resolver.resolve("/exac", null)).isNull();
+    assertThat(resolver.resolve(null, "/exact")).isNull();
+  }
+
+  @Test
+  void shouldPreferLongestPrefixMapping() {
+    MappingResolver resolver =
+        MappingResolver.build(Arrays.asList("/a/*", "/a/b/*", "/a/b/c", "*.do"));
+
+    assertThat(resolver.resolve("/a", null)).isEqualTo("/a/*");
+    assertThat(resolver.resolve("/a", "/x")).isEqualTo("/a/*");
+    assertThat(resolver.resolve("/a/b", "/x")).isEqualTo("/a/b/*");
+    assertThat(resolver.resolve("/a/b/c", null)).isEqualTo("/a/b/c");
+    assertThat(resolver.resolve("/a/b/c", "/d")).isEqualTo("/a/b/*");
+    assertThat(resolver.resolve("/a/b", "/x.do")).isEqualTo("/a/b/*");
+    assertThat(resolver.resolve("/ab", null)).isNull();
+  }
+
+  @Test
+  void shouldResolveExtensionMapping() {
+    MappingResolver resolver =
+        MappingResolver.build(Arrays.asList("*.gz", "*.tar.gz", "*.jsp", "/prefix/*"));
+
+    assertThat(resolver.resolve("/x.gz", null)).isEqualTo("/*.gz");
+    assertThat(resolver.resolve("/dir", "/x.tar.gz")).isEqualTo("/*.tar.gz");
+    assertThat(resolver.resolve("/x.gz/", null)).isEqualTo("/*.gz");
+    assertThat(resolver.resolve("/x.gz", "/y")).isNull();
+    // for jsp the servlet path is returned
+    assertThat(resolver.resolve("/pages/index.jsp", null)).isEqualTo("/pages/index.jsp");
+  }
+
+  @Test
+  void shouldFallBackToDefaultMapping() {
+    MappingResolver resolver = MappingResolver.build(Arrays.asList("/", "/exact"));
+
+    assertThat(resolver.resolve("/exact", null)).isEqualTo("/exact");
+    assertThat(resolver.resolve("/", null)).isEqualTo("/");
+    assertThat(resolver.resolve("", "/")).isEqualTo("/");
+    assertThat(resolver.resolve("/other", null)).isEqualTo("/*");
+
+    // wildfly has empty mappings for default servlet
+    MappingResolver emptyResolver = MappingResolver.build(Collections.emptyList());
+    assertThat(emptyResolver.resolve("/other", "/path")).isEqualTo("/*");
+  }
+}
@@ -5,10 +5,8 @@
 
 package io.opentelemetry.javaagent.instrumentation.servlet;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
 
@@ -51,10 +49,6 @@ public abstract class ServletFilterMappingResolverFactory<FILTERREGISTRATION>
       return null;
     }
 
-    List<String> mappingsList = new ArrayList<>(mappings);
-    // sort the longest mapping first
-    mappingsList.sort((s1, s2) -> s2.length() - s1.length());
-
-    return new Mappings(mappingsList);
+    return new Mappings(mappings);
   }
 }
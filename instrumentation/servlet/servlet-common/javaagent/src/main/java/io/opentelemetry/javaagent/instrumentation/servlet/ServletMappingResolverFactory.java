@@ -5,12 +5,19 @@
 
 package io.opentelemetry.javaagent.instrumentation.servlet;
 
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.servlet.MappingResolver;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import javax.annotation.Nullable;
 
 public abstract class ServletMappingResolverFactory implements MappingResolver.Factory {
 
+  // applications often register many servlets and filters with the same mappings, share the
+  // compiled MappingResolver between them
+  private static final Cache<Set<String>, MappingResolver> mappingResolvers = Cache.bounded(256);
+
   private volatile MappingResolverHolder holder;
 
   @Nullable
@@ -22,7 +29,8 @@ public abstract class ServletMappingResolverFactory implements MappingResolver.F
       return null;
     }
 
-    return MappingResolver.build(mappings.getMappings());
+    return mappingResolvers.computeIfAbsent(
+        new HashSet<>(mappings.getMappings()), MappingResolver::build);
   }
 
   @Override
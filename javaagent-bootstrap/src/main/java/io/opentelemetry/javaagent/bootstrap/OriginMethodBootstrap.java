@@ -0,0 +1,41 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Contains the bootstrap method for the invokedynamic call sites that load the instrumented {@link
+ * Method} in advice code. The method is looked up once when the call site is linked, after that
+ * every execution of the call site returns the same constant.
+ */
+public final class OriginMethodBootstrap {
+
+  private OriginMethodBootstrap() {}
+
+  /**
+   * Links a call site that returns the method referenced by {@code instrumentedMethod}, which must
+   * be a method declared in the class of {@code lookup}.
+   */
+  public static CallSite bootstrap(
+      MethodHandles.Lookup lookup,
+      String name,
+      MethodType callSiteType,
+      MethodHandle instrumentedMethod) {
+    Method method = null;
+    try {
+      method = lookup.revealDirect(instrumentedMethod).reflectAs(Method.class, lookup);
+    } catch (Throwable t) {
+      ExceptionLogger.logSuppressedError("Error resolving instrumented method", t);
+    }
+    return new ConstantCallSite(MethodHandles.constant(Method.class, method));
+  }
+}
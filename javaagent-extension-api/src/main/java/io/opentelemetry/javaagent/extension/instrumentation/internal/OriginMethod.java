@@ -0,0 +1,27 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.extension.instrumentation.internal;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds the instrumented {@link java.lang.reflect.Method} to an advice parameter, like {@code
+ * Advice.Origin}. Unlike {@code Advice.Origin}, which looks the method up with reflection on every
+ * execution of the advice, the method is resolved once per instrumented method by an invokedynamic
+ * call site. Instrumented classes compiled for Java 6 and older fall back to the behavior of {@code
+ * Advice.Origin}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface OriginMethod {}
@@ -8,6 +8,7 @@ package io.opentelemetry.javaagent.extension.matcher;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.internal.ClassLoaderMatcherCacheHolder;
 import io.opentelemetry.javaagent.bootstrap.internal.InClassLoaderMatcher;
+import io.opentelemetry.javaagent.extension.matcher.internal.ClassLoaderMatchCache;
 import java.util.BitSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
@@ -21,10 +22,13 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
   private static final AtomicInteger counter = new AtomicInteger();
 
   private final String[] resources;
+  // identifies this matcher in the persistent ClassLoaderMatchCache
+  private final String cacheKey;
   // each matcher gets a unique index that is used for caching the matching status
   private final int index = counter.getAndIncrement();
 
   ClassLoaderHasClassesNamedMatcher(String... classNames) {
+    cacheKey = "hasClassesNamed:" + String.join(",", classNames);
     resources = classNames;
     for (int i = 0; i < resources.length; i++) {
       resources[i] = resources[i].replace(".", "/") + ".class";
@@ -58,6 +62,20 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
     return true;
   }
 
+  private static boolean hasResources(ClassLoader cl, ClassLoaderHasClassesNamedMatcher matcher) {
+    ClassLoaderMatchCache persistentCache = ClassLoaderMatchCache.get();
+    if (persistentCache == null) {
+      return hasResources(cl, matcher.resources);
+    }
+    Boolean cached = persistentCache.get(cl, matcher.cacheKey);
+    if (cached != null) {
+      return cached;
+    }
+    boolean matches = hasResources(cl, matcher.resources);
+    persistentCache.put(cl, matcher.cacheKey, matches);
+    return matches;
+  }
+
   private static class Manager {
     static final Manager INSTANCE = new Manager();
     // each matcher gets a two bits in BitSet, that first bit indicates whether current matcher has
@@ -82,7 +100,7 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
           readLock.unlock();
           // we do the resource presence check outside the lock to keep the time we need to hold
           // the write lock minimal
-          boolean matches = hasResources(cl, matcher.resources);
+          boolean matches = hasResources(cl, matcher);
           writeLock.lock();
           try {
             if (!set.get(matcherRunBit)) {
@@ -0,0 +1,49 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.extension.matcher.internal;
+
+import javax.annotation.Nullable;
+
+/**
+ * A cache of class loader matching results that survives JVM restarts. Implementations only return
+ * results for class loaders whose classpath has not changed since the result was stored.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface ClassLoaderMatchCache {
+
+  /**
+   * Returns the stored result of the match identified by {@code key} for the given class loader, or
+   * {@code null} if it is not known.
+   */
+  @Nullable
+  Boolean get(ClassLoader classLoader, String key);
+
+  /** Stores the result of the match identified by {@code key} for the given class loader. */
+  void put(ClassLoader classLoader, String key, boolean matches);
+
+  /** Returns the installed cache, or {@code null} if persistent caching is not enabled. */
+  @Nullable
+  static ClassLoaderMatchCache get() {
+    return Holder.instance;
+  }
+
+  /** Installs the cache that is used by the class loader matchers. */
+  static void set(@Nullable ClassLoaderMatchCache cache) {
+    Holder.instance = cache;
+  }
+
+  /**
+   * This class is internal and is hence not for public use. Its APIs are unstable and can change at
+   * any time.
+   */
+  final class Holder {
+    @Nullable private static volatile ClassLoaderMatchCache instance;
+
+    private Holder() {}
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.bytebuddy.agent.builder;
+
+import static java.util.Arrays.asList;
+import static net.bytebuddy.matcher.ElementMatchers.hasSuperType;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Simulates the type matching done while an application loads a corpus of 50k classes, with 500
+ * transformations that mostly match by name, either running every type matcher for every class or
+ * only the matchers of the candidates from the {@link TransformationIndex}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class TransformationIndexBenchmark {
+
+  private static final int CLASSES = 50_000;
+  private static final int TRANSFORMATIONS = 500;
+  private static final TypeDescription.Generic OBJECT =
+      TypeDescription.ForLoadedType.of(Object.class).asGenericType();
+
+  private final List<ElementMatcher<TypeDescription>> matchers = new ArrayList<>();
+  private final TransformationIndex<ElementMatcher<TypeDescription>> index;
+  private final TypeDescription[] classes = new TypeDescription[CLASSES];
+  private final List<Set<String>> superTypes = new ArrayList<>();
+
+  public TransformationIndexBenchmark() {
+    TransformationIndex.Builder<ElementMatcher<TypeDescription>> builder =
+        TransformationIndex.builder();
+    for (int i = 0; i < TRANSFORMATIONS; i++) {
+      ElementMatcher<TypeDescription> matcher;
+      if (i % 10 == 0) {
+        String superTypeName = "com.example.lib" + i + ".Handler";
+        matcher = hasSuperType(named(superTypeName));
+        builder.addSubtype(matcher, Collections.singleton(superTypeName));
+      } else if (i % 10 == 1) {
+        String name1 = "com.example.lib" + i + ".Client";
+        String name2 = "com.example.lib" + i + ".AsyncClient";
+        matcher = namedOneOf(name1, name2);
+        builder.addNamed(matcher, asList(name1, name2));
+      } else {
+        String name = "com.example.lib" + i + ".Client";
+        matcher = named(name);
+        builder.addNamed(matcher, Collections.singleton(name));
+      }
+      matchers.add(matcher);
+    }
+    index = builder.build();
+
+    Random random = new Random(0);
+    Set<String> objectOnly = Collections.singleton("java.lang.Object");
+    for (int i = 0; i < CLASSES; i++) {
+      int lib = random.nextInt(TRANSFORMATIONS * 4);
+      String name =
+          i % 50 == 0 ? "com.example.lib" + lib + ".Client" : "com.example.app" + i + ".Service";
+      classes[i] = new TypeDescription.Latent(name, 0, OBJECT);
+      superTypes.add(objectOnly);
+    }
+  }
+
+  @Benchmark
+  public int allMatchers() {
+    int matched = 0;
+    for (TypeDescription type : classes) {
+      for (ElementMatcher<TypeDescription> matcher : matchers) {
+        if (matcher.matches(type)) {
+          matched++;
+        }
+      }
+    }
+    return matched;
+  }
+
+  @Benchmark
+  public int indexedMatchers() {
+    int matched = 0;
+    for (int i = 0; i < classes.length; i++) {
+      TypeDescription type = classes[i];
+      Iterator<ElementMatcher<TypeDescription>> candidates =
+          index.candidates(type.getName(), superTypes.get(i));
+      while (candidates.hasNext()) {
+        if (candidates.next().matches(type)) {
+          matched++;
+        }
+      }
+    }
+    return matched;
+  }
+}
@@ -44,6 +44,7 @@ import io.opentelemetry.javaagent.tooling.field.VirtualFieldImplementationInstal
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredClassLoadersMatcher;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesBuilderImpl;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesMatcher;
+import io.opentelemetry.javaagent.tooling.instrumentation.PersistentClassLoaderMatchCache;
 import io.opentelemetry.javaagent.tooling.muzzle.AgentTooling;
 import io.opentelemetry.javaagent.tooling.util.Trie;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
@@ -164,6 +165,8 @@ public class AgentInstaller {
     copyNecessaryConfigToSystemProperties(sdkConfig);
 
     setBootstrapPackages(sdkConfig, extensionClassLoader);
+    PersistentClassLoaderMatchCache.configure(sdkConfig);
+    TransformedClassCache.configure(sdkConfig);
     ConfiguredResourceAttributesHolder.initialize(
         SdkAutoconfigureAccess.getResourceAttributes(autoConfiguredSdk));
 
@@ -173,6 +176,7 @@ public class AgentInstaller {
     }
 
     agentBuilder = agentBuilder.with(new ClassLoadListener());
+    agentBuilder = agentBuilder.with(new TransformedClassCache.Listener());
     agentBuilder = configureIgnoredTypes(sdkConfig, extensionClassLoader, agentBuilder);
 
     int numberOfLoadedExtensions = 0;
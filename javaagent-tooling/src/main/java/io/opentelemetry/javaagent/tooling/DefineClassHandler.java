@@ -10,10 +10,13 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
 import org.objectweb.asm.ClassReader;
 
 public class DefineClassHandler implements Handler {
   public static final DefineClassHandler INSTANCE = new DefineClassHandler();
+  public static final long NO_CHECKSUM = -1;
   private static final ThreadLocal<DefineClassContextImpl> defineClassContext =
       ThreadLocal.withInitial(() -> DefineClassContextImpl.NOP);
 
@@ -32,6 +35,13 @@ public class DefineClassHandler implements Handler {
 
     Set<String> superNames = new HashSet<>();
     DefineClassContextImpl context = DefineClassContextImpl.enter();
+    if (TransformedClassCache.isEnabled() && className != null && classLoader != null) {
+      CRC32 crc = new CRC32();
+      crc.update(classBytes, offset, length);
+      context.classDotName = className;
+      context.classLoader = classLoader;
+      context.checksum = ((long) length << 32) | crc.getValue();
+    }
     // attempt to load super types of currently loaded class
     // for a class to be loaded all of its super types must be loaded, here we just change the order
     // of operations and load super types before transforming the bytes for current class so that
@@ -106,12 +116,32 @@ public class DefineClassHandler implements Handler {
     return superNames == null ? Collections.emptySet() : superNames;
   }
 
+  /**
+   * Returns the checksum of the bytes of the class that is being defined, or {@link #NO_CHECKSUM}
+   * if it was not computed.
+   */
+  public static long getDefinedClassChecksum(String dotClassName) {
+    DefineClassContextImpl context = defineClassContext.get();
+    return dotClassName.equals(context.classDotName) ? context.checksum : NO_CHECKSUM;
+  }
+
+  /** Returns the class loader that is defining the class, if its checksum was computed. */
+  @Nullable
+  public static ClassLoader getDefinedClassLoader(String dotClassName) {
+    DefineClassContextImpl context = defineClassContext.get();
+    return dotClassName.equals(context.classDotName) ? context.classLoader : null;
+  }
+
   private static class DefineClassContextImpl implements DefineClassContext {
     private static final DefineClassContextImpl NOP = new DefineClassContextImpl();
 
     private final DefineClassContextImpl previous;
     String failedClassDotName;
     Set<String> superDotNames;
+    // only set when the transformed class cache is enabled
+    String classDotName;
+    ClassLoader classLoader;
+    long checksum = NO_CHECKSUM;
 
     private DefineClassContextImpl() {
       previous = null;
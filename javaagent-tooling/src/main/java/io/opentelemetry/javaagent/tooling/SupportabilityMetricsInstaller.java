@@ -0,0 +1,40 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import com.google.auto.service.AutoService;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.api.internal.ContextPropagationDebug;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.javaagent.extension.AgentListener;
+import io.opentelemetry.javaagent.tooling.muzzle.TypeResolutionCache;
+import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+
+/**
+ * An {@link AgentListener} that reports the agent-internal counters, the type cache statistics and,
+ * when the thread propagation debugger is enabled, its call site counters as {@code
+ * otel.javaagent.*} metrics when {@code otel.javaagent.experimental.supportability-metrics.enabled}
+ * is set.
+ */
+@AutoService(AgentListener.class)
+public class SupportabilityMetricsInstaller implements AgentListener {
+  @Override
+  public void afterAgent(AutoConfiguredOpenTelemetrySdk autoConfiguredSdk) {
+    ConfigProperties config = AgentListener.resolveConfigProperties(autoConfiguredSdk);
+    if (!config.getBoolean("otel.javaagent.experimental.supportability-metrics.enabled", false)) {
+      return;
+    }
+    OpenTelemetry openTelemetry = autoConfiguredSdk.getOpenTelemetrySdk();
+    // the instruments are not closed here, they stop being collected when the SDK's meter provider
+    // is shut down
+    SupportabilityMetrics.instance().registerMetrics(openTelemetry);
+    TypeResolutionCache.instance().registerMetrics(openTelemetry);
+    if (ContextPropagationDebug.isThreadPropagationDebuggerEnabled()) {
+      ContextPropagationDebug.registerMetrics(openTelemetry);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.javaagent.extension.matcher.internal.ClassLoaderMatchCache;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Remembers across restarts which classes were not transformed by the agent, so that the type
+ * matchers don't need to run for them again. Results are stored in the {@link
+ * ClassLoaderMatchCache}, keyed by the name and a checksum of the bytes of the class, so they are
+ * only reused while the classpath of the class loader, the agent and its configuration stay the
+ * same.
+ *
+ * <p>Classes that were transformed are always transformed again: transforming a class also injects
+ * helper classes, opens modules and initializes virtual fields in the class loader, which returning
+ * previously transformed bytes would skip.
+ */
+public final class TransformedClassCache {
+
+  private static final Logger logger = Logger.getLogger(TransformedClassCache.class.getName());
+
+  private static final String ENABLED_CONFIG =
+      "otel.javaagent.experimental.transform-cache.enabled";
+  private static final String VALIDATION_RATE_CONFIG =
+      "otel.javaagent.experimental.transform-cache.validation-rate";
+
+  @Nullable private static volatile TransformedClassCache instance;
+
+  // name of the class whose cached result is being validated on the current thread
+  private static final ThreadLocal<String> validatedClassName = new ThreadLocal<>();
+
+  private final ClassLoaderMatchCache cache;
+  private final double validationRate;
+
+  static void configure(ConfigProperties config) {
+    ClassLoaderMatchCache cache = ClassLoaderMatchCache.get();
+    if (cache == null || !config.getBoolean(ENABLED_CONFIG, false)) {
+      instance = null;
+      return;
+    }
+    instance = new TransformedClassCache(cache, config.getDouble(VALIDATION_RATE_CONFIG, 0.0));
+  }
+
+  private TransformedClassCache(ClassLoaderMatchCache cache, double validationRate) {
+    this.cache = cache;
+    this.validationRate = validationRate;
+  }
+
+  /** Returns {@code true} if class checksums need to be computed while classes are defined. */
+  static boolean isEnabled() {
+    return instance != null;
+  }
+
+  /**
+   * Returns {@code true} if the class with the given name, that is currently being defined, was not
+   * transformed when it was loaded with the same bytes before.
+   */
+  public static boolean isKnownUnchanged(String className) {
+    TransformedClassCache transformedClassCache = instance;
+    if (transformedClassCache == null) {
+      return false;
+    }
+    return transformedClassCache.isUnchanged(
+        className, DefineClassHandler.getDefinedClassLoader(className));
+  }
+
+  private boolean isUnchanged(String className, @Nullable ClassLoader classLoader) {
+    String key = key(className);
+    if (key == null || classLoader == null) {
+      return false;
+    }
+    if (!Boolean.TRUE.equals(cache.get(classLoader, key))) {
+      return false;
+    }
+    if (validationRate > 0 && ThreadLocalRandom.current().nextDouble() < validationRate) {
+      // let the class go through the type matchers and verify that it is not transformed
+      validatedClassName.set(className);
+      return false;
+    }
+    return true;
+  }
+
+  private void recordUnchanged(String className, @Nullable ClassLoader classLoader) {
+    String key = key(className);
+    if (key != null
+        && classLoader != null
+        && classLoader == DefineClassHandler.getDefinedClassLoader(className)) {
+      cache.put(classLoader, key, true);
+    }
+  }
+
+  private void recordTransformed(String className) {
+    if (className.equals(validatedClassName.get())) {
+      logger.log(
+          WARNING,
+          "Class {0} was transformed although it was cached as not transformed, disabling the"
+              + " transformed class cache",
+          className);
+      instance = null;
+    }
+  }
+
+  @Nullable
+  private static String key(String className) {
+    long checksum = DefineClassHandler.getDefinedClassChecksum(className);
+    if (checksum == DefineClassHandler.NO_CHECKSUM) {
+      return null;
+    }
+    return "unchanged:" + className + ":" + Long.toHexString(checksum);
+  }
+
+  /** Records the classes that are defined without being transformed. */
+  static final class Listener extends AgentBuilder.Listener.Adapter {
+
+    @Override
+    public void onIgnored(
+        TypeDescription typeDescription,
+        @Nullable ClassLoader classLoader,
+        @Nullable JavaModule module,
+        boolean loaded) {
+      TransformedClassCache transformedClassCache = instance;
+      if (transformedClassCache != null && !loaded) {
+        transformedClassCache.recordUnchanged(typeDescription.getName(), classLoader);
+      }
+    }
+
+    @Override
+    public void onTransformation(
+        TypeDescription typeDescription,
+        @Nullable ClassLoader classLoader,
+        @Nullable JavaModule module,
+        boolean loaded,
+        DynamicType dynamicType) {
+      TransformedClassCache transformedClassCache = instance;
+      if (transformedClassCache != null) {
+        transformedClassCache.recordTransformed(typeDescription.getName());
+      }
+    }
+
+    @Override
+    public void onComplete(
+        String typeName,
+        @Nullable ClassLoader classLoader,
+        @Nullable JavaModule module,
+        boolean loaded) {
+      validatedClassName.remove();
+    }
+  }
+}
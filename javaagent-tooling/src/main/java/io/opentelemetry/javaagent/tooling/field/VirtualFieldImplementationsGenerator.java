@@ -10,6 +10,8 @@ import static io.opentelemetry.javaagent.tooling.field.GeneratedVirtualFieldName
 import static io.opentelemetry.javaagent.tooling.field.GeneratedVirtualFieldNames.getVirtualFieldImplementationClassName;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.Counter;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.instrumentation.api.util.VirtualField;
 import io.opentelemetry.javaagent.extension.instrumentation.internal.AsmApi;
@@ -302,6 +304,7 @@ final class VirtualFieldImplementationsGenerator {
       if (value == null) {
         map.remove(key);
       } else {
+        SupportabilityMetrics.instance().increment(Counter.VIRTUAL_FIELD_FALLBACK);
         map.put(key, value);
       }
     }
@@ -75,6 +75,7 @@ public final class InstrumentationModuleInstaller {
           FINE, "Instrumentation {0} is disabled", instrumentationModule.instrumentationName());
       return parentAgentBuilder;
     }
+    PersistentClassLoaderMatchCache.addEnabledModule(instrumentationModule);
 
     if (instrumentationModule.isIndyModule()) {
       return installIndyModule(instrumentationModule, parentAgentBuilder, config);
@@ -5,6 +5,8 @@
 
 package io.opentelemetry.javaagent.tooling.instrumentation;
 
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.Counter;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class MuzzleFailureCounter {
@@ -18,5 +20,6 @@ public final class MuzzleFailureCounter {
 
   public static void inc() {
     counter.incrementAndGet();
+    SupportabilityMetrics.instance().increment(Counter.MUZZLE_FAILURE);
   }
 }
@@ -11,6 +11,7 @@ import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.BOOTSTRAP_LOADE
 
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.matcher.internal.ClassLoaderMatchCache;
 import io.opentelemetry.javaagent.tooling.TransformSafeLogger;
 import io.opentelemetry.javaagent.tooling.Utils;
 import io.opentelemetry.javaagent.tooling.config.AgentConfig;
@@ -63,18 +64,46 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
     if (classLoader == BOOTSTRAP_LOADER) {
       classLoader = Utils.getBootstrapProxy();
     }
+    return matchCache.computeIfAbsent(classLoader, this::doesMatchPersistent);
+  }
+
+  private boolean doesMatchPersistent(ClassLoader classLoader) {
+    ClassLoaderMatchCache persistentCache = ClassLoaderMatchCache.get();
+    if (persistentCache == null) {
+      return doesMatchModule(classLoader);
+    }
+    String key = "muzzle:" + instrumentationModule.getClass().getName();
+    Boolean cached = persistentCache.get(classLoader, key);
+    if (cached != null) {
+      if (!cached) {
+        MuzzleFailureCounter.inc();
+        if (muzzleLogger.isLoggable(muzzleLogLevel)) {
+          muzzleLogger.log(
+              muzzleLogLevel,
+              "Instrumentation skipped, mismatched references were found on a previous run: {0}"
+                  + " [class {1}] on {2}",
+              new Object[] {
+                instrumentationModule.instrumentationName(),
+                instrumentationModule.getClass().getName(),
+                classLoader
+              });
+        }
+      }
+      return cached;
+    }
+    boolean isMatch = doesMatchModule(classLoader);
+    persistentCache.put(classLoader, key, isMatch);
+    return isMatch;
+  }
+
+  private boolean doesMatchModule(ClassLoader classLoader) {
     if (instrumentationModule.isIndyModule()) {
-      return matchCache.computeIfAbsent(
-          classLoader,
-          cl -> {
-            InstrumentationModuleClassLoader moduleCl =
-                IndyModuleRegistry.createInstrumentationClassLoaderWithoutRegistration(
-                    instrumentationModule, cl);
-            return doesMatch(moduleCl);
-          });
-    } else {
-      return matchCache.computeIfAbsent(classLoader, this::doesMatch);
+      InstrumentationModuleClassLoader moduleCl =
+          IndyModuleRegistry.createInstrumentationClassLoaderWithoutRegistration(
+              instrumentationModule, classLoader);
+      return doesMatch(moduleCl);
     }
+    return doesMatch(classLoader);
   }
 
   private boolean doesMatch(ClassLoader classLoader) {
@@ -0,0 +1,480 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.javaagent.bootstrap.AgentClassLoader.BootstrapClassLoaderProxy;
+import io.opentelemetry.javaagent.bootstrap.JavaagentFileHolder;
+import io.opentelemetry.javaagent.bootstrap.internal.ClassLoaderMatcherCacheHolder;
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.matcher.internal.ClassLoaderMatchCache;
+import io.opentelemetry.javaagent.tooling.AgentVersion;
+import io.opentelemetry.javaagent.tooling.ExtensionClassLoader;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ClassLoaderMatchCache} that stores the muzzle and class loader matcher results of each
+ * class loader in a file under {@code otel.javaagent.experimental.match-cache.directory}, so that
+ * they don't need to be computed again when the application is restarted.
+ *
+ * <p>The file of a class loader is named after a fingerprint of the agent version, the extensions,
+ * the enabled instrumentation modules and the agent and instrumentation settings, the JVM and the
+ * path, size and modification time of every jar on the classpath of that class loader and its
+ * parents. When any of them changes the fingerprint changes too, and the stale file is not used
+ * anymore. Class loaders whose classpath can't be fingerprinted, e.g. because it contains
+ * directories or remote URLs, are not cached.
+ */
+public final class PersistentClassLoaderMatchCache implements ClassLoaderMatchCache {
+
+  private static final Logger logger =
+      Logger.getLogger(PersistentClassLoaderMatchCache.class.getName());
+
+  private static final String DIRECTORY_CONFIG =
+      "otel.javaagent.experimental.match-cache.directory";
+  private static final String FILE_SUFFIX = ".properties";
+  // number of most recently written files that are kept in the cache directory
+  private static final int MAX_FILES = 64;
+  private static final long FLUSH_INTERVAL_SECONDS = 5;
+  private static final String CONFIGURATION_FILE_CONFIG = "otel.javaagent.configuration-file";
+  private static final String DECLARATIVE_CONFIGURATION_FILE_CONFIG =
+      "otel.experimental.config.file";
+
+  private static final Record UNCACHEABLE = new Record(null);
+
+  private final Path directory;
+  private final String agentFingerprint;
+  // all enabled modules are added before the agent is installed and the first class is matched
+  private final Set<String> enabledModules = new ConcurrentSkipListSet<>();
+  @Nullable private volatile String resolvedAgentFingerprint;
+  private final Cache<ClassLoader, Record> records = Cache.weak();
+  private final Map<Path, Record> recordsByFile = new ConcurrentHashMap<>();
+
+  public static void configure(ConfigProperties config) {
+    String directory = config.getString(DIRECTORY_CONFIG);
+    File javaagentFile = JavaagentFileHolder.getJavaagentFile();
+    if (directory == null || javaagentFile == null) {
+      return;
+    }
+    try {
+      Path directoryPath = Paths.get(directory);
+      Files.createDirectories(directoryPath);
+      deleteOldFiles(directoryPath);
+
+      StringBuilder agentFingerprint = new StringBuilder();
+      agentFingerprint.append(AgentVersion.VERSION).append('\n');
+      String extensions = config.getString(ExtensionClassLoader.EXTENSIONS_CONFIG);
+      if (extensions != null && !appendExtensions(agentFingerprint, extensions)) {
+        logger.log(FINE, "Persistent match cache disabled, extensions can't be fingerprinted");
+        return;
+      }
+      if (!appendConfiguration(agentFingerprint, config)) {
+        logger.log(FINE, "Persistent match cache disabled, configuration can't be fingerprinted");
+        return;
+      }
+
+      PersistentClassLoaderMatchCache cache =
+          new PersistentClassLoaderMatchCache(directoryPath, agentFingerprint.toString());
+      // files are written in the background, never on the threads that load classes
+      ScheduledExecutorService writer =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "otel-javaagent-match-cache-writer");
+                thread.setDaemon(true);
+                return thread;
+              });
+      writer.scheduleWithFixedDelay(
+          cache::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+      Runtime.getRuntime()
+          .addShutdownHook(new Thread(cache::flush, "otel-javaagent-match-cache-shutdown-writer"));
+      ClassLoaderMatchCache.set(cache);
+    } catch (IOException | RuntimeException e) {
+      logger.log(WARNING, "Failed to initialize the persistent match cache in " + directory, e);
+    }
+  }
+
+  // visible for testing
+  PersistentClassLoaderMatchCache(Path directory, String agentFingerprint) {
+    this.directory = directory;
+    this.agentFingerprint = agentFingerprint;
+    // class loaders that get new urls need to be fingerprinted again
+    ClassLoaderMatcherCacheHolder.addCache(records);
+  }
+
+  /** Adds an enabled instrumentation module to the fingerprint of the installed cache. */
+  static void addEnabledModule(InstrumentationModule instrumentationModule) {
+    ClassLoaderMatchCache cache = ClassLoaderMatchCache.get();
+    if (cache instanceof PersistentClassLoaderMatchCache) {
+      ((PersistentClassLoaderMatchCache) cache)
+          .addEnabledModule(instrumentationModule.getClass().getName());
+    }
+  }
+
+  // visible for testing
+  void addEnabledModule(String moduleName) {
+    enabledModules.add(moduleName);
+  }
+
+  @Override
+  @Nullable
+  public Boolean get(ClassLoader classLoader, String key) {
+    return getRecord(classLoader).get(key);
+  }
+
+  @Override
+  public void put(ClassLoader classLoader, String key, boolean matches) {
+    getRecord(classLoader).put(key, matches);
+  }
+
+  /** Writes the files of the class loaders that have new results, called by the writer thread. */
+  void flush() {
+    for (Record record : recordsByFile.values()) {
+      record.flush();
+    }
+  }
+
+  private Record getRecord(ClassLoader classLoader) {
+    return records.computeIfAbsent(
+        classLoader,
+        cl -> {
+          String fingerprint = fingerprint(cl);
+          if (fingerprint == null) {
+            return UNCACHEABLE;
+          }
+          Path file =
+              directory.resolve(sha256(resolveAgentFingerprint() + fingerprint) + FILE_SUFFIX);
+          return recordsByFile.computeIfAbsent(file, Record::load);
+        });
+  }
+
+  private String resolveAgentFingerprint() {
+    String fingerprint = resolvedAgentFingerprint;
+    if (fingerprint == null) {
+      StringBuilder result = new StringBuilder(agentFingerprint);
+      for (String moduleName : enabledModules) {
+        result.append(moduleName).append('\n');
+      }
+      fingerprint = result.toString();
+      resolvedAgentFingerprint = fingerprint;
+    }
+    return fingerprint;
+  }
+
+  @Nullable
+  private static String fingerprint(ClassLoader classLoader) {
+    ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    ClassLoader platformClassLoader = systemClassLoader.getParent();
+    StringBuilder fingerprint = new StringBuilder();
+    fingerprint
+        .append(System.getProperty("java.home"))
+        .append('\n')
+        .append(System.getProperty("java.version"))
+        .append('\n');
+    for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+      // classes of the jdk and of the agent are covered by the jvm and the agent fingerprint
+      if (cl instanceof BootstrapClassLoaderProxy || cl == platformClassLoader) {
+        break;
+      }
+      fingerprint.append(cl.getClass().getName()).append('\n');
+      if (cl == systemClassLoader) {
+        if (!appendClassPath(fingerprint, System.getProperty("java.class.path"))
+            || !appendClassPath(fingerprint, System.getProperty("jdk.module.path"))) {
+          return null;
+        }
+      } else if (cl instanceof URLClassLoader) {
+        for (URL url : ((URLClassLoader) cl).getURLs()) {
+          if (!appendUrl(fingerprint, url)) {
+            return null;
+          }
+        }
+      } else {
+        return null;
+      }
+    }
+    return fingerprint.toString();
+  }
+
+  private static boolean appendClassPath(StringBuilder fingerprint, @Nullable String classPath) {
+    if (classPath == null || classPath.isEmpty()) {
+      return true;
+    }
+    for (String entry : classPath.split(File.pathSeparator)) {
+      if (!entry.isEmpty() && !appendFile(fingerprint, new File(entry))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean appendExtensions(StringBuilder fingerprint, String extensions) {
+    for (String extension : extensions.split(",")) {
+      File file = new File(extension.trim());
+      if (file.isDirectory()) {
+        File[] files = file.listFiles();
+        if (files == null) {
+          return false;
+        }
+        Arrays.sort(files);
+        for (File child : files) {
+          if (!appendChecksum(fingerprint, child)) {
+            return false;
+          }
+        }
+      } else if (!appendChecksum(fingerprint, file)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // which classes get transformed depends on the agent and instrumentation settings, e.g. the
+  // methods traced by otel.instrumentation.methods.include, or settings defined by extensions;
+  // other settings like the resource attributes often change on every restart and must not
+  // invalidate the cache
+  private static boolean appendConfiguration(StringBuilder fingerprint, ConfigProperties config) {
+    Map<String, String> properties = new HashMap<>();
+    String configurationFile = config.getString(CONFIGURATION_FILE_CONFIG);
+    if (configurationFile != null) {
+      Properties fileProperties = new Properties();
+      try (InputStream in = Files.newInputStream(Paths.get(configurationFile))) {
+        fileProperties.load(in);
+      } catch (IOException | RuntimeException e) {
+        return false;
+      }
+      for (String key : fileProperties.stringPropertyNames()) {
+        properties.put(key, fileProperties.getProperty(key));
+      }
+    }
+    System.getenv()
+        .forEach(
+            (key, value) -> properties.put(key.toLowerCase(Locale.ROOT).replace('_', '.'), value));
+    System.getProperties()
+        .forEach(
+            (key, value) -> {
+              if (key instanceof String) {
+                properties.put((String) key, String.valueOf(value));
+              }
+            });
+    fingerprint.append(configurationFingerprint(properties));
+    // declarative configuration can't be filtered, any change of the file invalidates the cache
+    String declarativeConfigurationFile = config.getString(DECLARATIVE_CONFIGURATION_FILE_CONFIG);
+    return declarativeConfigurationFile == null
+        || appendChecksum(fingerprint, new File(declarativeConfigurationFile));
+  }
+
+  // visible for testing
+  static String configurationFingerprint(Map<String, String> properties) {
+    StringBuilder fingerprint = new StringBuilder();
+    new TreeMap<>(properties)
+        .forEach(
+            (key, value) -> {
+              if (key.startsWith("otel.javaagent.") || key.startsWith("otel.instrumentation.")) {
+                fingerprint.append(key).append('=').append(value).append('\n');
+              }
+            });
+    return fingerprint.toString();
+  }
+
+  private static boolean appendUrl(StringBuilder fingerprint, URL url) {
+    String spec = url.toString();
+    // a jar nested in another jar, e.g. jar:file:/app.jar!/BOOT-INF/lib/lib.jar!/, doesn't change
+    // unless the outer jar changes
+    if (spec.startsWith("jar:")) {
+      int separator = spec.indexOf("!/");
+      spec = separator == -1 ? spec.substring(4) : spec.substring(4, separator);
+      fingerprint.append(url).append('\n');
+    }
+    // spring boot 3.2+ format, e.g. jar:nested:/app.jar/!BOOT-INF/lib/lib.jar!/
+    if (spec.startsWith("nested:")) {
+      int separator = spec.indexOf("/!");
+      return separator != -1 && appendFile(fingerprint, new File(spec.substring(7, separator)));
+    }
+    if (!spec.startsWith("file:")) {
+      return false;
+    }
+    try {
+      return appendFile(fingerprint, new File(new URL(spec).toURI()));
+    } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static boolean appendFile(StringBuilder fingerprint, File file) {
+    // the contents of a directory can change without changing its size or modification time
+    if (!file.isFile()) {
+      return false;
+    }
+    fingerprint
+        .append(file.getAbsolutePath())
+        .append(' ')
+        .append(file.length())
+        .append(' ')
+        .append(file.lastModified())
+        .append('\n');
+    return true;
+  }
+
+  // extensions are usually rebuilt and copied on every deployment, their contents are compared
+  private static boolean appendChecksum(StringBuilder fingerprint, File file) {
+    if (!file.isFile()) {
+      return false;
+    }
+    try {
+      fingerprint
+          .append(file.getName())
+          .append(' ')
+          .append(toHex(newSha256().digest(Files.readAllBytes(file.toPath()))))
+          .append('\n');
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static String sha256(String value) {
+    return toHex(newSha256().digest(value.getBytes(UTF_8)));
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] digest) {
+    StringBuilder result = new StringBuilder(digest.length * 2);
+    for (byte b : digest) {
+      result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return result.toString();
+  }
+
+  private static void deleteOldFiles(Path directory) throws IOException {
+    List<Path> files = new ArrayList<>();
+    try (Stream<Path> stream = Files.list(directory)) {
+      stream.filter(file -> file.toString().endsWith(FILE_SUFFIX)).forEach(files::add);
+    }
+    if (files.size() <= MAX_FILES) {
+      return;
+    }
+    files.sort(Comparator.comparingLong((Path file) -> file.toFile().lastModified()).reversed());
+    for (Path file : files.subList(MAX_FILES, files.size())) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static final class Record {
+    @Nullable private final Path file;
+    private final Map<String, Boolean> results = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    Record(@Nullable Path file) {
+      this.file = file;
+    }
+
+    static Record load(Path file) {
+      Record record = new Record(file);
+      if (Files.isRegularFile(file)) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+          properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+          logger.log(FINE, "Ignoring unreadable match cache file " + file, e);
+          return record;
+        }
+        for (String key : properties.stringPropertyNames()) {
+          record.results.put(key, Boolean.valueOf(properties.getProperty(key)));
+        }
+      }
+      return record;
+    }
+
+    @Nullable
+    Boolean get(String key) {
+      return file == null ? null : results.get(key);
+    }
+
+    void put(String key, boolean matches) {
+      if (file == null) {
+        return;
+      }
+      Boolean previous = results.put(key, matches);
+      if (previous == null || previous != matches) {
+        dirty = true;
+      }
+    }
+
+    synchronized void flush() {
+      if (!dirty || file == null) {
+        return;
+      }
+      dirty = false;
+      Properties properties = new Properties();
+      results.forEach((key, value) -> properties.setProperty(key, value.toString()));
+      Path tempFile = null;
+      try {
+        // write to a temporary file first so that other processes never read a partial file
+        tempFile = Files.createTempFile(file.getParent(), "match-cache", ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+          properties.store(out, null);
+        }
+        try {
+          Files.move(
+              tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } catch (IOException | RuntimeException e) {
+        // a failure must not stop the background writer
+        logger.log(FINE, "Failed to write match cache file " + file, e);
+        try {
+          if (tempFile != null) {
+            Files.deleteIfExists(tempFile);
+          }
+        } catch (IOException ignored) {
+          // ignored
+        }
+      }
+    }
+  }
+}
@@ -9,6 +9,7 @@ import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
 import io.opentelemetry.javaagent.tooling.Utils;
 import io.opentelemetry.javaagent.tooling.bytebuddy.ExceptionHandlers;
 import io.opentelemetry.javaagent.tooling.instrumentation.indy.ForceDynamicallyTypedAssignReturnedFactory;
+import io.opentelemetry.javaagent.tooling.instrumentation.indy.OriginMethodFactory;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.description.method.MethodDescription;
@@ -24,7 +25,8 @@ final class TypeTransformerImpl implements TypeTransformer {
         Advice.withCustomMapping()
             .with(
                 new ForceDynamicallyTypedAssignReturnedFactory(
-                    new Advice.AssignReturned.Factory().withSuppressed(Throwable.class)));
+                    new Advice.AssignReturned.Factory().withSuppressed(Throwable.class)))
+            .bind(new OriginMethodFactory());
   }
 
   @Override
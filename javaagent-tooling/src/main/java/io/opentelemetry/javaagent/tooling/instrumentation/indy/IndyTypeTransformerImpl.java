@@ -35,6 +35,7 @@ public final class IndyTypeTransformerImpl implements TypeTransformer {
             .with(
                 new ForceDynamicallyTypedAssignReturnedFactory(
                     new Advice.AssignReturned.Factory().withSuppressed(Throwable.class)))
+            .bind(new OriginMethodFactory())
             .bootstrap(
                 IndyBootstrap.getIndyBootstrapMethod(),
                 IndyBootstrap.getAdviceBootstrapArguments(instrumentationModule),
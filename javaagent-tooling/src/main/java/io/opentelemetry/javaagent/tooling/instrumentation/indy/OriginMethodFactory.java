@@ -0,0 +1,96 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation.indy;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+import io.opentelemetry.javaagent.bootstrap.OriginMethodBootstrap;
+import io.opentelemetry.javaagent.extension.instrumentation.internal.OriginMethod;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import net.bytebuddy.ClassFileVersion;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.ParameterDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.constant.MethodConstant;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import net.bytebuddy.utility.JavaConstant;
+import org.objectweb.asm.MethodVisitor;
+
+/**
+ * Binds advice parameters annotated with {@link OriginMethod} to the instrumented method. The
+ * method is loaded with an {@code INVOKEDYNAMIC} instruction that is linked by {@link
+ * OriginMethodBootstrap} to a constant, so that it is only looked up once per instrumented method.
+ * Classes that are too old for invokedynamic get the reflective lookup that {@code Advice.Origin}
+ * uses.
+ */
+public final class OriginMethodFactory implements Advice.OffsetMapping.Factory<OriginMethod> {
+
+  private static final MethodDescription.InDefinedShape BOOTSTRAP =
+      TypeDescription.ForLoadedType.of(OriginMethodBootstrap.class)
+          .getDeclaredMethods()
+          .filter(named("bootstrap"))
+          .getOnly();
+  private static final TypeDescription METHOD_TYPE = TypeDescription.ForLoadedType.of(Method.class);
+
+  @Override
+  public Class<OriginMethod> getAnnotationType() {
+    return OriginMethod.class;
+  }
+
+  @Override
+  public Advice.OffsetMapping make(
+      ParameterDescription.InDefinedShape target,
+      AnnotationDescription.Loadable<OriginMethod> annotation,
+      Advice.OffsetMapping.Factory.AdviceType adviceType) {
+    if (!target.getType().asErasure().represents(Method.class)) {
+      throw new IllegalStateException("Cannot assign the instrumented method to " + target);
+    }
+    return (instrumentedType, instrumentedMethod, assigner, argumentHandler, sort) -> {
+      if (!instrumentedMethod.isMethod()) {
+        throw new IllegalStateException(
+            "Cannot represent " + instrumentedMethod + " as " + Method.class);
+      }
+      return new Advice.OffsetMapping.Target.ForStackManipulation(
+          new LoadOriginMethod(instrumentedMethod.asDefined()));
+    };
+  }
+
+  private static final class LoadOriginMethod extends StackManipulation.AbstractBase {
+    private final MethodDescription.InDefinedShape method;
+
+    LoadOriginMethod(MethodDescription.InDefinedShape method) {
+      this.method = method;
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor, Implementation.Context implementationContext) {
+      return resolve(implementationContext.getClassFileVersion())
+          .apply(methodVisitor, implementationContext);
+    }
+
+    private StackManipulation resolve(ClassFileVersion classFileVersion) {
+      // method handle constants for interface methods require Java 8
+      ClassFileVersion required =
+          method.getDeclaringType().isInterface()
+              ? ClassFileVersion.JAVA_V8
+              : ClassFileVersion.JAVA_V7;
+      if (!classFileVersion.isAtLeast(required)) {
+        return MethodConstant.of(method);
+      }
+      return MethodInvocation.invoke(BOOTSTRAP)
+          .dynamic(
+              "originMethod",
+              METHOD_TYPE,
+              Collections.emptyList(),
+              Collections.singletonList(JavaConstant.MethodHandle.of(method)));
+    }
+  }
+}
@@ -10,9 +10,9 @@ import static java.util.logging.Level.FINE;
 import io.opentelemetry.javaagent.extension.matcher.internal.DelegatingMatcher;
 import io.opentelemetry.javaagent.extension.matcher.internal.DelegatingSuperTypeMatcher;
 import io.opentelemetry.javaagent.tooling.DefineClassHandler;
+import io.opentelemetry.javaagent.tooling.TransformedClassCache;
 import java.lang.reflect.Field;
 import java.lang.reflect.Proxy;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -72,25 +72,22 @@ public class AgentBuilderUtil {
   }
 
   private static void optimize(AgentBuilder.Default agentBuilder) throws Exception {
-    // class names that have a matcher that matches by name
-    Set<String> classNames = new HashSet<>();
-    // class names that have a matcher that matches subtypes
-    Set<String> superTypeNames = new HashSet<>();
-    List<Transformation> unoptimizedTransformations = new ArrayList<>();
     List<Transformation> transformations = agentBuilder.transformations;
+    TransformationIndex.Builder<Transformation> indexBuilder = TransformationIndex.builder();
     for (Transformation transformation : transformations) {
       AgentBuilder.RawMatcher matcher = transformation.getMatcher();
       // attempt to decompose the matcher and find if it applies to a named class or a subclass
       Result result = inspect(matcher);
       if (result == null) {
         // we were not able to decompose the matcher
-        unoptimizedTransformations.add(transformation);
+        indexBuilder.addUnindexed(transformation);
       } else if (result.subtype) {
-        superTypeNames.addAll(result.names);
+        indexBuilder.addSubtype(transformation, result.names);
       } else {
-        classNames.addAll(result.names);
+        indexBuilder.addNamed(transformation, result.names);
       }
     }
+    TransformationIndex<Transformation> index = indexBuilder.build();
 
     List<?> list =
         (List<?>)
@@ -101,30 +98,18 @@ public class AgentBuilderUtil {
                   String name = TransformContext.getTransformedClassName();
                   // iterator() is the only method we expect to be called on this List
                   if (name != null && "iterator".equals(method.getName())) {
-                    // we know that this class is going to be transformed
-                    if (classNames.contains(name) || superTypeNames.contains(name)) {
-                      return transformations.iterator();
-                    }
                     // we already know that loading this class is going to fail, no need to
                     // transform it
-                    if (DefineClassHandler.isFailedClass(name)) {
+                    if (!index.isIndexed(name) && DefineClassHandler.isFailedClass(name)) {
                       return Collections.emptyIterator();
                     }
-                    Set<String> loadingSuperTypes = DefineClassHandler.getSuperTypes();
-                    // super types set should contain at least java.lang.Object if this set is
-                    // empty something unexpected has happened, run all transformations
-                    if (loadingSuperTypes.isEmpty()) {
-                      return transformations.iterator();
-                    }
-                    for (String className : loadingSuperTypes) {
-                      // we know that this class is going to be transformed
-                      if (superTypeNames.contains(className)) {
-                        return transformations.iterator();
-                      }
+                    // this class was not transformed when it was loaded on a previous run
+                    if (TransformedClassCache.isKnownUnchanged(name)) {
+                      return Collections.emptyIterator();
                     }
-
-                    // apply only the transformations that we can't decompose
-                    return unoptimizedTransformations.iterator();
+                    // apply only the transformations whose matchers can match this class, and the
+                    // transformations that we can't decompose
+                    return index.candidates(name, DefineClassHandler.getSuperTypes());
                   }
 
                   return method.invoke(transformations, args);
@@ -0,0 +1,161 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.bytebuddy.agent.builder;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * An index from class names to the transformations whose type matcher can only match classes with
+ * that name, or subtypes of the class with that name. Used to run only the type matchers of the
+ * transformations that can apply to a class that is being loaded, instead of all of them.
+ */
+final class TransformationIndex<T> {
+
+  private final List<T> transformations;
+  // transformation indexes by the class name they match
+  private final Map<String, BitSet> byClassName;
+  // transformation indexes by the name of the super type they match
+  private final Map<String, BitSet> bySuperTypeName;
+  private final BitSet unindexed;
+  private final List<T> unindexedTransformations;
+
+  private TransformationIndex(Builder<T> builder) {
+    this.transformations = builder.transformations;
+    this.byClassName = builder.byClassName;
+    this.bySuperTypeName = builder.bySuperTypeName;
+    this.unindexed = builder.unindexed;
+    List<T> unindexedTransformations = new ArrayList<>();
+    for (int i = unindexed.nextSetBit(0); i >= 0; i = unindexed.nextSetBit(i + 1)) {
+      unindexedTransformations.add(transformations.get(i));
+    }
+    this.unindexedTransformations = unindexedTransformations;
+  }
+
+  static <T> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  /** Returns {@code true} if a transformation matches the class with the given name by name. */
+  boolean isIndexed(String className) {
+    return byClassName.containsKey(className) || bySuperTypeName.containsKey(className);
+  }
+
+  /**
+   * Returns the transformations that can apply to the class with the given name and super types, in
+   * the order in which they were added to the index.
+   */
+  Iterator<T> candidates(String className, Set<String> superTypeNames) {
+    // super types should contain at least java.lang.Object, if this set is empty something
+    // unexpected has happened, run all transformations
+    if (superTypeNames.isEmpty()) {
+      return transformations.iterator();
+    }
+
+    BitSet candidates = or(null, byClassName.get(className));
+    candidates = or(candidates, bySuperTypeName.get(className));
+    for (String superTypeName : superTypeNames) {
+      candidates = or(candidates, bySuperTypeName.get(superTypeName));
+    }
+    if (candidates == null) {
+      return unindexedTransformations.iterator();
+    }
+    candidates.or(unindexed);
+    return new CandidateIterator<>(transformations, candidates);
+  }
+
+  @Nullable
+  private static BitSet or(@Nullable BitSet result, @Nullable BitSet other) {
+    if (other == null) {
+      return result;
+    }
+    if (result == null) {
+      return (BitSet) other.clone();
+    }
+    result.or(other);
+    return result;
+  }
+
+  static final class Builder<T> {
+    private final List<T> transformations = new ArrayList<>();
+    private final Map<String, BitSet> byClassName = new HashMap<>();
+    private final Map<String, BitSet> bySuperTypeName = new HashMap<>();
+    private final BitSet unindexed = new BitSet();
+
+    private Builder() {}
+
+    /** Adds a transformation that only matches classes with one of the given names. */
+    @CanIgnoreReturnValue
+    Builder<T> addNamed(T transformation, Collection<String> classNames) {
+      index(byClassName, classNames);
+      transformations.add(transformation);
+      return this;
+    }
+
+    /** Adds a transformation that only matches subtypes of the classes with the given names. */
+    @CanIgnoreReturnValue
+    Builder<T> addSubtype(T transformation, Collection<String> superTypeNames) {
+      index(bySuperTypeName, superTypeNames);
+      transformations.add(transformation);
+      return this;
+    }
+
+    /** Adds a transformation whose matcher could not be decomposed, it is always a candidate. */
+    @CanIgnoreReturnValue
+    Builder<T> addUnindexed(T transformation) {
+      unindexed.set(transformations.size());
+      transformations.add(transformation);
+      return this;
+    }
+
+    private void index(Map<String, BitSet> index, Collection<String> names) {
+      int position = transformations.size();
+      for (String name : names) {
+        index.computeIfAbsent(name, n -> new BitSet()).set(position);
+      }
+    }
+
+    TransformationIndex<T> build() {
+      return new TransformationIndex<>(this);
+    }
+  }
+
+  private static final class CandidateIterator<T> implements Iterator<T> {
+    private final List<T> transformations;
+    private final BitSet candidates;
+    private int next;
+
+    CandidateIterator(List<T> transformations, BitSet candidates) {
+      this.transformations = transformations;
+      this.candidates = candidates;
+      this.next = candidates.nextSetBit(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next >= 0;
+    }
+
+    @Override
+    public T next() {
+      if (next < 0) {
+        throw new NoSuchElementException();
+      }
+      T result = transformations.get(next);
+      next = candidates.nextSetBit(next + 1);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.bootstrap.DefineClassHelper.Handler.DefineClassContext;
+import io.opentelemetry.javaagent.extension.matcher.internal.ClassLoaderMatchCache;
+import io.opentelemetry.sdk.autoconfigure.spi.internal.DefaultConfigProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TransformedClassCacheTest {
+
+  private static final String CLASS_NAME = Sample.class.getName();
+
+  private final InMemoryMatchCache matchCache = new InMemoryMatchCache();
+  private final TransformedClassCache.Listener listener = new TransformedClassCache.Listener();
+  private final ClassLoader classLoader = new URLClassLoader(new URL[0], null);
+
+  @AfterEach
+  void tearDown() {
+    ClassLoaderMatchCache.set(null);
+    configure(false, 0);
+  }
+
+  @Test
+  void skipsClassesThatWereNotTransformed() throws IOException {
+    configure(true, 0);
+    byte[] bytes = classBytes();
+
+    DefineClassContext context = define(bytes);
+    assertThat(TransformedClassCache.isKnownUnchanged(CLASS_NAME)).isFalse();
+    listener.onIgnored(TypeDescription.ForLoadedType.of(Sample.class), classLoader, null, false);
+    DefineClassHandler.INSTANCE.afterDefineClass(context);
+
+    context = define(bytes);
+    assertThat(TransformedClassCache.isKnownUnchanged(CLASS_NAME)).isTrue();
+    DefineClassHandler.INSTANCE.afterDefineClass(context);
+
+    // the same class with different bytes
+    bytes[bytes.length - 1]++;
+    context = define(bytes);
+    assertThat(TransformedClassCache.isKnownUnchanged(CLASS_NAME)).isFalse();
+    DefineClassHandler.INSTANCE.afterDefineClass(context);
+  }
+
+  @Test
+  void disablesCacheWhenValidationFails() throws IOException {
+    configure(true, 1.0);
+    byte[] bytes = classBytes();
+
+    DefineClassContext context = define(bytes);
+    listener.onIgnored(TypeDescription.ForLoadedType.of(Sample.class), classLoader, null, false);
+    DefineClassHandler.INSTANCE.afterDefineClass(context);
+
+    context = define(bytes);
+    // every cached result is validated
+    assertThat(TransformedClassCache.isKnownUnchanged(CLASS_NAME)).isFalse();
+    listener.onTransformation(
+        TypeDescription.ForLoadedType.of(Sample.class), classLoader, null, false, null);
+    listener.onComplete(CLASS_NAME, classLoader, null, false);
+    DefineClassHandler.INSTANCE.afterDefineClass(context);
+
+    assertThat(TransformedClassCache.isEnabled()).isFalse();
+  }
+
+  private void configure(boolean enabled, double validationRate) {
+    ClassLoaderMatchCache.set(enabled ? matchCache : null);
+    Map<String, String> config = new HashMap<>();
+    config.put("otel.javaagent.experimental.transform-cache.enabled", String.valueOf(enabled));
+    config.put(
+        "otel.javaagent.experimental.transform-cache.validation-rate",
+        String.valueOf(validationRate));
+    TransformedClassCache.configure(DefaultConfigProperties.createFromMap(config));
+  }
+
+  private DefineClassContext define(byte[] bytes) {
+    return DefineClassHandler.INSTANCE.beforeDefineClass(
+        classLoader, CLASS_NAME, bytes, 0, bytes.length);
+  }
+
+  private static byte[] classBytes() throws IOException {
+    String resource = CLASS_NAME.replace('.', '/') + ".class";
+    try (InputStream in = Sample.class.getClassLoader().getResourceAsStream(resource)) {
+      assertThat(in).isNotNull();
+      byte[] buffer = new byte[8192];
+      int length = 0;
+      for (int read; (read = in.read(buffer, length, buffer.length - length)) > 0; ) {
+        length += read;
+      }
+      byte[] result = new byte[length];
+      System.arraycopy(buffer, 0, result, 0, length);
+      return result;
+    }
+  }
+
+  static class Sample {}
+
+  private static class InMemoryMatchCache implements ClassLoaderMatchCache {
+    private final Map<String, Boolean> results = new HashMap<>();
+
+    @Override
+    @Nullable
+    public Boolean get(ClassLoader classLoader, String key) {
+      return results.get(key);
+    }
+
+    @Override
+    public void put(ClassLoader classLoader, String key, boolean matches) {
+      results.put(key, matches);
+    }
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersistentClassLoaderMatchCacheTest {
+
+  @TempDir Path tempDir;
+
+  private Path cacheDir;
+  private Path jar;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    cacheDir = Files.createDirectory(tempDir.resolve("cache"));
+    jar = Files.write(tempDir.resolve("library.jar"), new byte[] {1, 2, 3});
+  }
+
+  @Test
+  void reusesResultsAfterRestart() throws IOException {
+    PersistentClassLoaderMatchCache cache = new PersistentClassLoaderMatchCache(cacheDir, "agent");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      assertThat(cache.get(classLoader, "muzzle:Module")).isNull();
+      cache.put(classLoader, "muzzle:Module", true);
+      cache.put(classLoader, "hasClassesNamed:a.B", false);
+    }
+    cache.flush();
+
+    PersistentClassLoaderMatchCache restarted =
+        new PersistentClassLoaderMatchCache(cacheDir, "agent");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      assertThat(restarted.get(classLoader, "muzzle:Module")).isTrue();
+      assertThat(restarted.get(classLoader, "hasClassesNamed:a.B")).isFalse();
+      assertThat(restarted.get(classLoader, "muzzle:OtherModule")).isNull();
+    }
+  }
+
+  @Test
+  void ignoresResultsWhenJarChanges() throws IOException {
+    PersistentClassLoaderMatchCache cache = new PersistentClassLoaderMatchCache(cacheDir, "agent");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      cache.put(classLoader, "muzzle:Module", true);
+    }
+    cache.flush();
+
+    Files.setLastModifiedTime(
+        jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 10_000));
+
+    PersistentClassLoaderMatchCache restarted =
+        new PersistentClassLoaderMatchCache(cacheDir, "agent");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      assertThat(restarted.get(classLoader, "muzzle:Module")).isNull();
+    }
+  }
+
+  @Test
+  void ignoresResultsWhenAgentChanges() throws IOException {
+    PersistentClassLoaderMatchCache cache = new PersistentClassLoaderMatchCache(cacheDir, "agent");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      cache.put(classLoader, "muzzle:Module", true);
+    }
+    cache.flush();
+
+    PersistentClassLoaderMatchCache restarted =
+        new PersistentClassLoaderMatchCache(cacheDir, "newer agent");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      assertThat(restarted.get(classLoader, "muzzle:Module")).isNull();
+    }
+  }
+
+  @Test
+  void ignoresResultsWhenEnabledModulesChange() throws IOException {
+    PersistentClassLoaderMatchCache cache = new PersistentClassLoaderMatchCache(cacheDir, "agent");
+    cache.addEnabledModule("JdbcInstrumentationModule");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      cache.put(classLoader, "muzzle:Module", true);
+    }
+    cache.flush();
+
+    PersistentClassLoaderMatchCache restarted =
+        new PersistentClassLoaderMatchCache(cacheDir, "agent");
+    restarted.addEnabledModule("JdbcInstrumentationModule");
+    restarted.addEnabledModule("KafkaInstrumentationModule");
+    try (URLClassLoader classLoader = newClassLoader(jar)) {
+      assertThat(restarted.get(classLoader, "muzzle:Module")).isNull();
+    }
+  }
+
+  @Test
+  void configurationFingerprintIgnoresUnrelatedSettings() {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("otel.instrumentation.jdbc.enabled", "false");
+    properties.put("otel.instrumentation.common.default-enabled", "true");
+    properties.put("otel.javaagent.experimental.transform-cache.enabled", "true");
+    properties.put("otel.resource.attributes", "host.name=first");
+    properties.put("otel.service.name", "first");
+    String fingerprint = PersistentClassLoaderMatchCache.configurationFingerprint(properties);
+
+    properties.put("otel.resource.attributes", "host.name=second,pod.uid=1234");
+    properties.put("otel.service.name", "second");
+    assertThat(PersistentClassLoaderMatchCache.configurationFingerprint(properties))
+        .isEqualTo(fingerprint);
+
+    properties.put("otel.instrumentation.jdbc.enabled", "true");
+    assertThat(PersistentClassLoaderMatchCache.configurationFingerprint(properties))
+        .isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  void configurationFingerprintIncludesTransformationSettings() {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("otel.instrumentation.methods.include", "com.example.Service[process]");
+    String fingerprint = PersistentClassLoaderMatchCache.configurationFingerprint(properties);
+
+    properties.put(
+        "otel.instrumentation.methods.include",
+        "com.example.Service[process];com.example.Job[run]");
+    assertThat(PersistentClassLoaderMatchCache.configurationFingerprint(properties))
+        .isNotEqualTo(fingerprint);
+    fingerprint = PersistentClassLoaderMatchCache.configurationFingerprint(properties);
+
+    properties.put("otel.instrumentation.external-annotations.include", "com.example.Traced");
+    assertThat(PersistentClassLoaderMatchCache.configurationFingerprint(properties))
+        .isNotEqualTo(fingerprint);
+    fingerprint = PersistentClassLoaderMatchCache.configurationFingerprint(properties);
+
+    // settings of extensions
+    properties.put("otel.instrumentation.my-extension.classes", "com.example.Handler");
+    assertThat(PersistentClassLoaderMatchCache.configurationFingerprint(properties))
+        .isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  void doesNotCacheDirectories() throws IOException {
+    PersistentClassLoaderMatchCache cache = new PersistentClassLoaderMatchCache(cacheDir, "agent");
+    try (URLClassLoader classLoader = newClassLoader(jar, tempDir)) {
+      cache.put(classLoader, "muzzle:Module", true);
+      assertThat(cache.get(classLoader, "muzzle:Module")).isNull();
+    }
+    cache.flush();
+
+    try (Stream<Path> files = Files.list(cacheDir)) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  private static URLClassLoader newClassLoader(Path... paths) throws IOException {
+    URL[] urls = new URL[paths.length];
+    for (int i = 0; i < paths.length; i++) {
+      urls[i] = paths[i].toUri().toURL();
+    }
+    return new URLClassLoader(urls, null);
+  }
+}
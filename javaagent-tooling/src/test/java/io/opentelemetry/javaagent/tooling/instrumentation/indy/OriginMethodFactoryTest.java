@@ -0,0 +1,76 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation.indy;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.extension.instrumentation.internal.OriginMethod;
+import java.lang.reflect.Method;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.ClassFileVersion;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.FixedValue;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import org.junit.jupiter.api.Test;
+
+class OriginMethodFactoryTest {
+
+  @Test
+  void loadsMethodOnce() throws Exception {
+    Class<?> type = instrument(ClassFileVersion.JAVA_V8);
+    Object instance = type.getConstructor().newInstance();
+    Method run = type.getMethod("run");
+
+    Object first = run.invoke(instance);
+    Object second = run.invoke(instance);
+
+    assertThat(first).isEqualTo(run);
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void fallsBackToReflectionForOldClasses() throws Exception {
+    Class<?> type = instrument(ClassFileVersion.JAVA_V6);
+    Object instance = type.getConstructor().newInstance();
+    Method run = type.getMethod("run");
+
+    Object first = run.invoke(instance);
+    Object second = run.invoke(instance);
+
+    assertThat(first).isEqualTo(run);
+    assertThat(second).isEqualTo(run).isNotSameAs(first);
+  }
+
+  private static Class<?> instrument(ClassFileVersion classFileVersion) {
+    return new ByteBuddy(classFileVersion)
+        .subclass(Object.class)
+        .name(OriginMethodFactoryTest.class.getName() + "$Java" + classFileVersion.getJavaVersion())
+        .defineMethod("run", Object.class, Visibility.PUBLIC)
+        .intercept(FixedValue.nullValue())
+        .visit(
+            Advice.withCustomMapping()
+                .bind(new OriginMethodFactory())
+                .to(ReturnMethodAdvice.class)
+                .on(named("run")))
+        .make()
+        .load(OriginMethodFactoryTest.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+        .getLoaded();
+  }
+
+  @SuppressWarnings("unused")
+  static class ReturnMethodAdvice {
+
+    @Advice.OnMethodExit
+    static void onExit(
+        @OriginMethod Method method,
+        @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object returnValue) {
+      returnValue = method;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package net.bytebuddy.agent.builder;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TransformationIndexTest {
+
+  private static final Set<String> OBJECT = singleton("java.lang.Object");
+
+  private final TransformationIndex<String> index =
+      TransformationIndex.<String>builder()
+          .addNamed("servlet", asList("javax.servlet.http.HttpServlet", "jakarta.servlet.Servlet"))
+          .addUnindexed("unknown")
+          .addSubtype("runnable", singleton("java.lang.Runnable"))
+          .addNamed("thread", singleton("java.lang.Thread"))
+          .addSubtype("executor", singleton("java.util.concurrent.Executor"))
+          .build();
+
+  @Test
+  void unknownClassOnlyRunsUnindexedTransformations() {
+    assertThat(index.isIndexed("com.example.Foo")).isFalse();
+    assertThat(index.candidates("com.example.Foo", OBJECT)).toIterable().containsExactly("unknown");
+  }
+
+  @Test
+  void namedClassRunsItsTransformationsInOrder() {
+    assertThat(index.isIndexed("java.lang.Thread")).isTrue();
+    assertThat(index.candidates("java.lang.Thread", OBJECT))
+        .toIterable()
+        .containsExactly("unknown", "thread");
+    assertThat(index.candidates("jakarta.servlet.Servlet", OBJECT))
+        .toIterable()
+        .containsExactly("servlet", "unknown");
+  }
+
+  @Test
+  void subtypeRunsTransformationsOfItsSuperTypes() {
+    Set<String> superTypes =
+        new HashSet<>(asList("java.lang.Object", "java.lang.Runnable", "java.lang.Thread"));
+    assertThat(index.candidates("com.example.MyThread", superTypes))
+        .toIterable()
+        .containsExactly("unknown", "runnable");
+
+    assertThat(index.isIndexed("java.util.concurrent.Executor")).isTrue();
+    assertThat(index.candidates("java.util.concurrent.Executor", OBJECT))
+        .toIterable()
+        .containsExactly("unknown", "executor");
+  }
+
+  @Test
+  void unknownSuperTypesRunAllTransformations() {
+    Iterator<String> candidates = index.candidates("com.example.Foo", emptySet());
+    assertThat(candidates)
+        .toIterable()
+        .containsExactly("servlet", "unknown", "runnable", "thread", "executor");
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.pool.TypePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Replays the class loading of an application startup against the type pool: the classes of the
+ * byte-buddy jar are loaded in jar order by several class loaders, interleaved the way web
+ * applications deployed side by side start up, and for every class the super class chain and
+ * interfaces are resolved like the {@code hasSuperType} matchers do.
+ *
+ * <p>{@code steady} keeps every shard at the steady state capacity for the whole run, {@code
+ * adaptive} uses the startup capacity.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.SingleShotTime)
+@State(Scope.Benchmark)
+public class TypeResolutionCacheBenchmark {
+
+  @Param({"steady", "adaptive"})
+  public String cache;
+
+  @Param({"1", "4"})
+  public int classLoaders;
+
+  private final List<String> classNames = new ArrayList<>();
+  private final AgentLocationStrategy locationStrategy =
+      new AgentLocationStrategy(null, Collections.emptyList());
+  private URL jar;
+  private List<URLClassLoader> loaders;
+  private List<ClassFileLocator> locators;
+  private AgentCachingPoolStrategy poolStrategy;
+
+  @Setup(Level.Trial)
+  public void recordClassLoadSequence() throws IOException, URISyntaxException {
+    jar = TypePool.class.getProtectionDomain().getCodeSource().getLocation();
+    try (JarFile jarFile = new JarFile(new File(jar.toURI()))) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        String name = entries.nextElement().getName();
+        if (name.endsWith(".class") && !name.contains("module-info")) {
+          classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+        }
+      }
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void startApplication() {
+    int capacity =
+        cache.equals("steady")
+            ? TypeResolutionCache.STEADY_SHARD_CAPACITY
+            : TypeResolutionCache.STARTUP_SHARD_CAPACITY;
+    TypeResolutionCache resolutionCache =
+        new TypeResolutionCache(
+            capacity,
+            TypeResolutionCache.STEADY_SHARD_CAPACITY,
+            TypeResolutionCache.QUIET_PERIOD_NANOS,
+            TypeResolutionCache.QUIET_PERIOD_MISSES,
+            TypeResolutionCache.MAX_ENTRIES,
+            System::nanoTime);
+    poolStrategy = new AgentCachingPoolStrategy(locationStrategy, resolutionCache);
+
+    loaders = new ArrayList<>();
+    locators = new ArrayList<>();
+    for (int i = 0; i < classLoaders; i++) {
+      URLClassLoader loader = new URLClassLoader(new URL[] {jar}, null);
+      loaders.add(loader);
+      locators.add(locationStrategy.classFileLocator(loader));
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void stopApplication() throws IOException {
+    for (URLClassLoader loader : loaders) {
+      loader.close();
+    }
+  }
+
+  @Benchmark
+  public void replay(Blackhole blackhole) {
+    for (String className : classNames) {
+      for (int i = 0; i < classLoaders; i++) {
+        // like the agent, use a new type pool for every loaded class
+        TypePool pool = poolStrategy.typePool(locators.get(i), loaders.get(i));
+        matchHierarchy(pool.describe(className).resolve(), blackhole);
+      }
+    }
+  }
+
+  private static void matchHierarchy(TypeDefinition type, Blackhole blackhole) {
+    // like SafeHasSuperTypeMatcher, skip the super types that are not on the classpath, the asm
+    // classes that byte-buddy extends aren't
+    try {
+      for (TypeDefinition current = type; current != null; current = current.getSuperClass()) {
+        blackhole.consume(current.asErasure().getName());
+        for (TypeDescription.Generic interfaceType : current.getInterfaces()) {
+          matchHierarchy(interfaceType, blackhole);
+        }
+      }
+    } catch (IllegalStateException ignored) {
+      // the type could not be resolved
+    }
+  }
+}
@@ -9,6 +9,8 @@ import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.SEVERE;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.Counter;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.HelperResources;
 import io.opentelemetry.javaagent.bootstrap.InjectedClassHelper;
@@ -201,6 +203,7 @@ public class HelperInjector implements Transformer {
           if (!isBootClassLoader(cl)) {
             injectHelperResources(cl, classResourcesToInject);
           }
+          SupportabilityMetrics.instance().increment(Counter.HELPER_INJECTION);
           return true;
         });
     return builder;
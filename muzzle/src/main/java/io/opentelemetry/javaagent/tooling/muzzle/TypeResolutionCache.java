@@ -0,0 +1,336 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.opentelemetry.instrumentation.api.internal.cache.weaklockfree.WeakConcurrentMap;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Caches the type resolutions of {@link AgentCachingPoolStrategy}, with a separate shard for every
+ * class loader so that loading classes in one class loader doesn't evict the types of another.
+ *
+ * <p>The shards are sized for the phase the application is in. While classes are loaded at a high
+ * rate, which is what happens during startup, the same super types and interfaces are looked up
+ * over and over and every shard can hold {@link #STARTUP_SHARD_CAPACITY} types. Once a quiet period
+ * passes in which only a few types had to be parsed, all shards shrink to {@link
+ * #STEADY_SHARD_CAPACITY} types. They grow again when a burst of class loading, e.g. a redeployed
+ * application, follows. The phase is re-evaluated when a type pool is requested, so the cache
+ * shrinks with the first class that is loaded after the quiet period.
+ *
+ * <p>All shards together hold at most {@link #MAX_ENTRIES} types. When an application has so many
+ * class loaders that this is exceeded, the types of the class loaders that requested a type pool
+ * least recently are evicted first. The types of the bootstrap shard, which are shared by all class
+ * loaders, are only evicted when no other shard has any.
+ *
+ * <p>The cached resolutions only reference their class loader weakly, which allows shards to be
+ * removed once their class loader is collected.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class TypeResolutionCache {
+
+  private static final String INSTRUMENTATION_NAME = "io.opentelemetry.javaagent";
+
+  static final int STARTUP_SHARD_CAPACITY = 1024;
+  static final int STEADY_SHARD_CAPACITY = 64;
+  static final long QUIET_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(10);
+  // fewer parsed types than this in a quiet period ends the startup phase
+  static final int QUIET_PERIOD_MISSES = 100;
+  static final int MAX_ENTRIES = 8 * STARTUP_SHARD_CAPACITY;
+
+  private static final String OBJECT_NAME = "java.lang.Object";
+  private static final TypePool.Resolution OBJECT_RESOLUTION =
+      new TypePool.Resolution.Simple(TypeDescription.ForLoadedType.of(Object.class));
+
+  private static final TypeResolutionCache INSTANCE =
+      new TypeResolutionCache(
+          STARTUP_SHARD_CAPACITY,
+          STEADY_SHARD_CAPACITY,
+          QUIET_PERIOD_NANOS,
+          QUIET_PERIOD_MISSES,
+          MAX_ENTRIES,
+          System::nanoTime);
+
+  /** Returns the cache used by the agent's type pools. */
+  public static TypeResolutionCache instance() {
+    return INSTANCE;
+  }
+
+  private final int startupShardCapacity;
+  private final int steadyShardCapacity;
+  private final long quietPeriodNanos;
+  private final long quietPeriodMisses;
+  private final int maxEntries;
+  private final LongSupplier nanoClock;
+
+  private final WeakConcurrentMap<ClassLoader, Shard> shards =
+      new WeakConcurrentMap.WithInlinedExpunction<>();
+  private final Shard bootstrapShard;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  // number of cached types, drifts upwards when shards are collected until the next trim()
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicBoolean trimming = new AtomicBoolean();
+
+  private final AtomicLong periodStart;
+  private volatile long periodStartMisses;
+  private volatile int shardCapacity;
+
+  // visible for testing
+  TypeResolutionCache(
+      int startupShardCapacity,
+      int steadyShardCapacity,
+      long quietPeriodNanos,
+      long quietPeriodMisses,
+      int maxEntries,
+      LongSupplier nanoClock) {
+    this.startupShardCapacity = startupShardCapacity;
+    this.steadyShardCapacity = steadyShardCapacity;
+    this.quietPeriodNanos = quietPeriodNanos;
+    this.quietPeriodMisses = quietPeriodMisses;
+    this.maxEntries = maxEntries;
+    this.nanoClock = nanoClock;
+    this.periodStart = new AtomicLong(nanoClock.getAsLong());
+    this.shardCapacity = startupShardCapacity;
+    this.bootstrapShard = new Shard(null);
+  }
+
+  /** Returns the cache provider for the types of the given class loader. */
+  TypePool.CacheProvider getCacheProvider(@Nullable ClassLoader classLoader) {
+    long now = nanoClock.getAsLong();
+    updatePhase(now);
+    if (classLoader == null) {
+      return bootstrapShard;
+    }
+    Shard shard = shards.getIfPresent(classLoader);
+    if (shard == null) {
+      shard = shards.computeIfAbsent(classLoader, Shard::new);
+    }
+    shard.lastUsed = now;
+    return shard;
+  }
+
+  private void updatePhase(long now) {
+    long start = periodStart.get();
+    if (now - start < quietPeriodNanos || !periodStart.compareAndSet(start, now)) {
+      return;
+    }
+    long totalMisses = misses.sum();
+    long periodMisses = totalMisses - periodStartMisses;
+    periodStartMisses = totalMisses;
+
+    int capacity = periodMisses < quietPeriodMisses ? steadyShardCapacity : startupShardCapacity;
+    if (capacity == shardCapacity) {
+      return;
+    }
+    shardCapacity = capacity;
+    bootstrapShard.resolutions.setCapacity(capacity);
+    for (Map.Entry<ClassLoader, Shard> entry : shards) {
+      entry.getValue().resolutions.setCapacity(capacity);
+    }
+  }
+
+  private void added() {
+    if (size.incrementAndGet() > maxEntries && trimming.compareAndSet(false, true)) {
+      try {
+        trim();
+      } finally {
+        trimming.set(false);
+      }
+    }
+  }
+
+  /**
+   * Evicts the types of the least recently used shards until the cache is an eighth below its
+   * limit, so that a cache at its limit isn't trimmed on every added type.
+   */
+  private void trim() {
+    List<Shard> candidates = new ArrayList<>();
+    int total = bootstrapShard.resolutions.size();
+    for (Map.Entry<ClassLoader, Shard> entry : shards) {
+      Shard shard = entry.getValue();
+      // lastUsed changes concurrently, sort by a snapshot of it
+      shard.trimOrder = shard.lastUsed;
+      candidates.add(shard);
+      total += shard.resolutions.size();
+    }
+    candidates.sort(Comparator.comparingLong(shard -> shard.trimOrder));
+    candidates.add(bootstrapShard);
+
+    int target = maxEntries - maxEntries / 8;
+    for (Shard shard : candidates) {
+      if (total <= target) {
+        break;
+      }
+      int excess = total - target;
+      for (String className : shard.resolutions.ascendingKeySetWithLimit(excess)) {
+        if (shard.resolutions.remove(className) != null) {
+          evictions.increment();
+          total--;
+        }
+      }
+    }
+    size.set(total);
+  }
+
+  // visible for testing
+  int size() {
+    return size.get();
+  }
+
+  // visible for testing
+  int shardCapacity() {
+    return shardCapacity;
+  }
+
+  // visible for testing
+  long hits() {
+    return hits.sum();
+  }
+
+  // visible for testing
+  long misses() {
+    return misses.sum();
+  }
+
+  // visible for testing
+  long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Registers counters reporting the hits, misses and evictions of this cache. Call this once per
+   * {@link OpenTelemetry} instance, and close the returned instruments to stop reporting.
+   */
+  public List<AutoCloseable> registerMetrics(OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter(INSTRUMENTATION_NAME);
+    List<AutoCloseable> observables = new ArrayList<>();
+    observables.add(
+        counter(
+            meter,
+            "otel.javaagent.type_cache.hits",
+            "{lookup}",
+            "The number of type descriptions that were found in the type cache.",
+            hits));
+    observables.add(
+        counter(
+            meter,
+            "otel.javaagent.type_cache.misses",
+            "{type}",
+            "The number of type descriptions that had to be parsed because they were not cached.",
+            misses));
+    observables.add(
+        counter(
+            meter,
+            "otel.javaagent.type_cache.evictions",
+            "{type}",
+            "The number of type descriptions evicted from the type cache.",
+            evictions));
+    return observables;
+  }
+
+  private static ObservableLongCounter counter(
+      Meter meter, String name, String unit, String description, LongAdder adder) {
+    return meter
+        .counterBuilder(name)
+        .setUnit(unit)
+        .setDescription(description)
+        .buildWithCallback(measurement -> measurement.record(adder.sum()));
+  }
+
+  private final class Shard implements TypePool.CacheProvider {
+    @Nullable private final WeakReference<ClassLoader> classLoaderRef;
+    private final ConcurrentLinkedHashMap<String, TypePool.Resolution> resolutions;
+    // the time the class loader last requested a type pool
+    private volatile long lastUsed;
+    // only used by trim(), which doesn't run concurrently
+    private long trimOrder;
+
+    Shard(@Nullable ClassLoader classLoader) {
+      classLoaderRef = classLoader != null ? new WeakReference<>(classLoader) : null;
+      resolutions =
+          new ConcurrentLinkedHashMap.Builder<String, TypePool.Resolution>()
+              .maximumWeightedCapacity(shardCapacity)
+              .listener(
+                  (key, value) -> {
+                    evictions.increment();
+                    size.decrementAndGet();
+                  })
+              .build();
+    }
+
+    @Override
+    @Nullable
+    public TypePool.Resolution find(String className) {
+      if (OBJECT_NAME.equals(className)) {
+        return OBJECT_RESOLUTION;
+      }
+      // Skip cache for the type that is currently being transformed.
+      // If class has been transformed by another agent or by class loader it is possible that the
+      // cached TypeDescription isn't the same as the one built from the actual bytes that are
+      // being defined. For example if another agent adds an interface to the class then returning
+      // the cached description that does not have that interface would result in bytebuddy removing
+      // that interface.
+      if (AgentTooling.isTransforming(
+          classLoaderRef != null ? classLoaderRef.get() : null, className)) {
+        return null;
+      }
+
+      TypePool.Resolution resolution = shardFor(className).resolutions.get(className);
+      if (resolution != null) {
+        hits.increment();
+      }
+      return resolution;
+    }
+
+    @Override
+    @CanIgnoreReturnValue
+    public TypePool.Resolution register(String className, TypePool.Resolution resolution) {
+      if (OBJECT_NAME.equals(className)) {
+        return resolution;
+      }
+
+      misses.increment();
+      if (shardFor(className).resolutions.put(className, resolution) == null) {
+        added();
+      }
+      return resolution;
+    }
+
+    private Shard shardFor(String className) {
+      // classes in java package are always loaded from boot loader
+      // use the boot loader shard to avoid creating multiple cache entries
+      return className.startsWith("java.") ? bootstrapShard : this;
+    }
+
+    @Override
+    public void clear() {
+      // Allowing the high-level eviction policy make the clearing decisions
+    }
+  }
+}
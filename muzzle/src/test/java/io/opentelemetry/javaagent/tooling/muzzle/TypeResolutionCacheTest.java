@@ -0,0 +1,112 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicLong;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.pool.TypePool;
+import org.junit.jupiter.api.Test;
+
+class TypeResolutionCacheTest {
+
+  private static final long QUIET_PERIOD = 1_000;
+
+  private final AtomicLong clock = new AtomicLong();
+  private final TypeResolutionCache cache =
+      new TypeResolutionCache(8, 2, QUIET_PERIOD, 4, 16, clock::get);
+  private final ClassLoader first = new URLClassLoader(new URL[0], null);
+  private final ClassLoader second = new URLClassLoader(new URL[0], null);
+  private final ClassLoader third = new URLClassLoader(new URL[0], null);
+
+  @Test
+  void doesNotEvictTypesOfOtherClassLoaders() {
+    TypePool.CacheProvider firstProvider = cache.getCacheProvider(first);
+    firstProvider.register("a.Type", resolution("a.Type"));
+
+    TypePool.CacheProvider secondProvider = cache.getCacheProvider(second);
+    for (int i = 0; i < 8; i++) {
+      secondProvider.register("b.Type" + i, resolution("b.Type" + i));
+    }
+
+    assertThat(firstProvider.find("a.Type")).isNotNull();
+    assertThat(secondProvider.find("a.Type")).isNull();
+    assertThat(cache.hits()).isEqualTo(1);
+    assertThat(cache.misses()).isEqualTo(9);
+    assertThat(cache.evictions()).isZero();
+  }
+
+  @Test
+  void sharesJavaTypesBetweenClassLoaders() {
+    cache.getCacheProvider(first).register("java.lang.String", resolution("java.lang.String"));
+
+    assertThat(cache.getCacheProvider(second).find("java.lang.String")).isNotNull();
+    assertThat(cache.getCacheProvider(null).find("java.lang.String")).isNotNull();
+  }
+
+  @Test
+  void shrinksAfterQuietPeriodAndGrowsOnBurst() {
+    TypePool.CacheProvider provider = cache.getCacheProvider(first);
+    for (int i = 0; i < 8; i++) {
+      provider.register("a.Type" + i, resolution("a.Type" + i));
+    }
+    assertThat(cache.shardCapacity()).isEqualTo(8);
+
+    // startup continues while many types are parsed
+    clock.addAndGet(QUIET_PERIOD);
+    cache.getCacheProvider(first);
+    assertThat(cache.shardCapacity()).isEqualTo(8);
+    assertThat(cache.evictions()).isZero();
+
+    clock.addAndGet(QUIET_PERIOD);
+    cache.getCacheProvider(first);
+    assertThat(cache.shardCapacity()).isEqualTo(2);
+    assertThat(cache.evictions()).isEqualTo(6);
+    assertThat(provider.find("a.Type7")).isNotNull();
+    assertThat(provider.find("a.Type0")).isNull();
+
+    for (int i = 0; i < 4; i++) {
+      provider.register("b.Type" + i, resolution("b.Type" + i));
+    }
+    clock.addAndGet(QUIET_PERIOD);
+    cache.getCacheProvider(first);
+    assertThat(cache.shardCapacity()).isEqualTo(8);
+  }
+
+  @Test
+  void evictsTypesOfLeastRecentlyUsedClassLoaderBeyondLimit() {
+    TypePool.CacheProvider firstProvider = cache.getCacheProvider(first);
+    for (int i = 0; i < 8; i++) {
+      firstProvider.register("a.Type" + i, resolution("a.Type" + i));
+    }
+    clock.incrementAndGet();
+    TypePool.CacheProvider secondProvider = cache.getCacheProvider(second);
+    for (int i = 0; i < 8; i++) {
+      secondProvider.register("b.Type" + i, resolution("b.Type" + i));
+    }
+    assertThat(cache.size()).isEqualTo(16);
+    assertThat(cache.evictions()).isZero();
+
+    // the limit of 16 types is exceeded, the cache is trimmed to 14 types
+    clock.incrementAndGet();
+    cache.getCacheProvider(third).register("c.Type", resolution("c.Type"));
+
+    assertThat(cache.size()).isEqualTo(14);
+    assertThat(cache.evictions()).isEqualTo(3);
+    // the coldest types of the least recently used class loader are evicted
+    assertThat(firstProvider.find("a.Type0")).isNull();
+    assertThat(firstProvider.find("a.Type2")).isNull();
+    assertThat(firstProvider.find("a.Type3")).isNotNull();
+    assertThat(secondProvider.find("b.Type0")).isNotNull();
+  }
+
+  private static TypePool.Resolution resolution(String name) {
+    return new TypePool.Resolution.Simple(new TypeDescription.Latent(name, 0, null));
+  }
+}